@@ -0,0 +1,105 @@
+package com.briannalytical.debt_destroyer.Benchmark;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Service.AllocationStrategies;
+import com.briannalytical.debt_destroyer.Service.AllocationStrategy;
+import com.briannalytical.debt_destroyer.Service.BudgetCache;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService.DebtRecommendation;
+import com.briannalytical.debt_destroyer.Service.DebtColumns;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.briannalytical.debt_destroyer.Benchmark.InMemoryBudgetData.MONTH;
+import static com.briannalytical.debt_destroyer.Benchmark.InMemoryBudgetData.YEAR;
+
+/**
+ BudgetCalculationService over in-memory repositories as row counts grow
+ * the budget cache is sized to zero so every call does the full calculation
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BudgetCalculationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int rows;
+
+    private BudgetCalculationService service;
+    private List<DebtAccount> debts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        InMemoryBudgetData data = new InMemoryBudgetData(rows, 42L);
+        InMemorySnapshotRepository snapshotRepository = new InMemorySnapshotRepository(data);
+
+        service = new BudgetCalculationService();
+        inject(service, "snapshotRepository", snapshotRepository);
+        inject(service, "rollupService", new InMemoryRollupService(snapshotRepository));
+        inject(service, "budgetCache", new BudgetCache(0, Duration.ofMinutes(10)));
+
+        debts = data.debts;
+    }
+
+    @Benchmark
+    public Money calculateTotalEssentials(BoundTenant tenant) {
+        return service.calculateTotalEssentials(MONTH, YEAR);
+    }
+
+    @Benchmark
+    public Money calculateMonthlySinkingFund(BoundTenant tenant) {
+        return service.calculateMonthlySinkingFund();
+    }
+
+    @Benchmark
+    public List<DebtRecommendation> generateRecommendations(BoundTenant tenant) {
+        return service.generateRecommendations(MONTH, YEAR);
+    }
+
+    /**
+     the ranking step of generateRecommendations on its own: primitive columns, keys, one stable sort
+     **/
+    @Benchmark
+    public int[] rankDebtsByUtilization() {
+        DebtColumns columns = DebtColumns.of(debts);
+        AllocationStrategy strategy = AllocationStrategies.of(AllocationMethod.UTILIZATION_FIRST);
+        long[] keys = new long[columns.size()];
+        strategy.sortKeys(columns, keys);
+        return DebtColumns.rankDescending(keys);
+    }
+
+    /**
+     the service works for the tenant bound to the calling thread, so each benchmark thread binds the test data's
+     **/
+    @State(Scope.Thread)
+    public static class BoundTenant {
+
+        private TenantContext.Scope scope;
+
+        @Setup(Level.Iteration)
+        public void bind() {
+            scope = TenantContext.bind(InMemoryBudgetData.TENANT_ID);
+        }
+
+        @TearDown(Level.Iteration)
+        public void unbind() {
+            scope.close();
+        }
+    }
+
+    private static void inject(Object target, String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,70 @@
+package com.briannalytical.debt_destroyer.Benchmark;
+
+import com.briannalytical.debt_destroyer.Model.Entity.*;
+import com.briannalytical.debt_destroyer.Model.Enum.AccountType;
+import com.briannalytical.debt_destroyer.Model.Enum.EssentialExpenseCategory;
+import com.briannalytical.debt_destroyer.Model.Enum.ExpenseType;
+import com.briannalytical.debt_destroyer.Model.Enum.Frequency;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ synthetic rows standing in for the database tables
+ * every table gets the same row count so cost grows with one parameter
+ **/
+public class InMemoryBudgetData {
+
+    public static final int MONTH = 1;
+    public static final int YEAR = 2025;
+    public static final long TENANT_ID = 1;
+
+    final List<MonthlyIncome> incomes = new ArrayList<>();
+    final List<Expense> expenses = new ArrayList<>();
+    final List<VariableExpenseAmount> variableAmounts = new ArrayList<>();
+    final List<IrregularExpense> irregularExpenses = new ArrayList<>();
+    final List<DebtAccount> debts = new ArrayList<>();
+
+    public InMemoryBudgetData(int rows, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Frequency[] frequencies = Frequency.values();
+
+        // enough income that there are always extra funds to allocate
+        incomes.add(new MonthlyIncome(1L, TENANT_ID, MONTH, YEAR, Money.ofCents(1_000L * rows * 100_000), null));
+
+        for (int i = 0; i < rows; i++) {
+            long id = i + 1;
+            boolean fixed = i % 2 == 0;
+
+            Expense expense = new Expense(id, TENANT_ID, "Expense " + id, EssentialExpenseCategory.OTHER,
+                    fixed ? ExpenseType.FIXED : ExpenseType.VARIABLE,
+                    fixed ? Money.ofCents(random.nextLong(1_000, 200_000)) : null,
+                    true, null);
+            expenses.add(expense);
+
+            variableAmounts.add(new VariableExpenseAmount(id, TENANT_ID, expense, MONTH, YEAR,
+                    PeriodKey.of(MONTH, YEAR), Money.ofCents(random.nextLong(1_000, 50_000)), null, null));
+
+            Frequency frequency = frequencies[random.nextInt(frequencies.length)];
+            irregularExpenses.add(new IrregularExpense(id, TENANT_ID, "Irregular " + id,
+                    Money.ofCents(random.nextLong(5_000, 500_000)), frequency,
+                    LocalDate.of(YEAR, 1 + random.nextInt(12), 1),
+                    frequency == Frequency.CUSTOM ? 1 + random.nextInt(24) : null,
+                    true, null));
+
+            boolean revolving = random.nextInt(3) != 0;
+            debts.add(new DebtAccount(id, TENANT_ID, "Debt " + id,
+                    revolving ? AccountType.CREDIT_CARD : AccountType.PERSONAL_LOAN,
+                    Money.ofCents(random.nextLong(10_000, 2_000_000)),
+                    revolving ? Money.ofCents(random.nextLong(2_000_000, 3_000_000)) : null,
+                    Money.ofCents(random.nextLong(2_500, 20_000)),
+                    BigDecimal.valueOf(id * 7_919 % 3_000, 2), // APR from the id, so the random stream is unchanged
+                    true, null));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.briannalytical.debt_destroyer.Benchmark;
+
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyBudgetRollup;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Service.BudgetRollupService;
+
+/**
+ recomputes the rollup row on every read instead of storing it
+ **/
+public class InMemoryRollupService extends BudgetRollupService {
+
+    private final InMemorySnapshotRepository snapshotRepository;
+
+    public InMemoryRollupService(InMemorySnapshotRepository snapshotRepository) {
+        this.snapshotRepository = snapshotRepository;
+    }
+
+    @Override
+    public MonthlyBudgetRollup getRollup(Integer month, Integer year) {
+        Money income = snapshotRepository.findIncome(month, year);
+        Money fixed = snapshotRepository.sumFixedExpenses();
+        Money variable = snapshotRepository.sumVariableExpenses(month, year);
+        Money sinking = snapshotRepository.sumMonthlySinkingFund();
+        long leftover = income == null ? 0
+                : Math.max(income.cents() - fixed.cents() - variable.cents() - sinking.cents(), 0);
+        return new MonthlyBudgetRollup(InMemoryBudgetData.TENANT_ID, month, year, fixed, variable, sinking, income,
+                Money.ofCents(leftover), null);
+    }
+
+    @Override
+    public void refreshMonth(Integer month, Integer year) {
+    }
+
+    @Override
+    public void refreshAllMonths() {
+    }
+}
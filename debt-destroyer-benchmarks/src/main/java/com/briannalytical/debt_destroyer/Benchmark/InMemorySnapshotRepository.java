@@ -0,0 +1,91 @@
+package com.briannalytical.debt_destroyer.Benchmark;
+
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Entity.*;
+import com.briannalytical.debt_destroyer.Model.Enum.ExpenseType;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Repository.MonthlyBudgetSnapshotRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ answers the snapshot queries by scanning InMemoryBudgetData, the way the database would
+ **/
+public class InMemorySnapshotRepository extends MonthlyBudgetSnapshotRepository {
+
+    private final InMemoryBudgetData data;
+
+    public InMemorySnapshotRepository(InMemoryBudgetData data) {
+        this.data = data;
+    }
+
+    @Override
+    public Optional<MonthlyBudgetSnapshot> findSnapshot(Integer month, Integer year) {
+        List<DebtAccount> activeDebts = new ArrayList<>(data.debts.size());
+        for (DebtAccount debt : data.debts) {
+            if (debt.getIsActive()) {
+                activeDebts.add(debt);
+            }
+        }
+        return Optional.of(new MonthlyBudgetSnapshot(month, year, findIncome(month, year),
+                sumFixedExpenses(), sumVariableExpenses(month, year), sumMonthlySinkingFund(),
+                activeDebts));
+    }
+
+    @Override
+    public Money sumFixedExpenses() {
+        long total = 0;
+        for (Expense expense : data.expenses) {
+            if (expense.getIsActive() && expense.getExpenseType() == ExpenseType.FIXED) {
+                total += expense.getFixedAmount().cents();
+            }
+        }
+        return Money.ofCents(total);
+    }
+
+    @Override
+    public Money sumVariableExpenses(Integer month, Integer year) {
+        long total = 0;
+        for (VariableExpenseAmount amount : data.variableAmounts) {
+            if (amount.getMonth().equals(month) && amount.getYear().equals(year)) {
+                total += amount.getAmount().cents();
+            }
+        }
+        return Money.ofCents(total);
+    }
+
+    @Override
+    public Money sumMonthlySinkingFund() {
+        long total = 0;
+        for (IrregularExpense expense : data.irregularExpenses) {
+            if (!expense.getIsActive()) {
+                continue;
+            }
+            int months = periodMonths(expense);
+            if (months > 0) {
+                total += Money.divideHalfUp(expense.getAmount().cents(), months);
+            }
+        }
+        return Money.ofCents(total);
+    }
+
+    Money findIncome(Integer month, Integer year) {
+        for (MonthlyIncome income : data.incomes) {
+            if (income.getMonth().equals(month) && income.getYear().equals(year)) {
+                return income.getAmount();
+            }
+        }
+        return null;
+    }
+
+    private static int periodMonths(IrregularExpense expense) {
+        return switch (expense.getFrequency()) {
+            case ANNUAL -> 12;
+            case SEMI_ANNUAL -> 6;
+            case QUARTERLY -> 3;
+            case CUSTOM -> expense.getCustomMonths() == null ? 0 : expense.getCustomMonths();
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.briannalytical.debt_destroyer.Config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ wraps the pooled DataSource so every statement is timed and counted
+ * debt-destroyer.statements.slow-threshold sets when a statement is logged as slow
+ **/
+@Configuration
+public class DataSourceProxyConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public DataSourceProxyConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    static BeanPostProcessor dataSourceProxyPostProcessor(
+            @Value("${debt-destroyer.statements.slow-threshold:PT0.2S}") Duration slowThreshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new StatementListener(slowThreshold))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementBudgetInterceptor(meterRegistry.getObject()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.briannalytical.debt_destroyer.Config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ remembers which repository method is running so slow statements can be attributed to it
+ * statements issued outside a repository (JdbcTemplate in services) fall back to the nearest application frame
+ **/
+@Aspect
+@Component
+public class RepositoryCallSite {
+
+    private static final String BASE_PACKAGE = "com.briannalytical.debt_destroyer";
+    private static final String REPOSITORY_PACKAGE = BASE_PACKAGE + ".Repository";
+
+    private static final ThreadLocal<Deque<String>> CALLS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Around("target(org.springframework.data.repository.Repository) "
+            + "|| within(com.briannalytical.debt_destroyer.Repository..*)")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        Deque<String> calls = CALLS.get();
+        calls.push(repositoryName(joinPoint) + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            calls.pop();
+        }
+    }
+
+    /**
+     innermost repository method on this thread, e.g. ExpenseRepository.findByIsActiveTrue
+     **/
+    public static String current() {
+        String repositoryMethod = CALLS.get().peek();
+        if (repositoryMethod != null) {
+            return repositoryMethod;
+        }
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(BASE_PACKAGE)
+                        && !frame.getClassName().startsWith(RepositoryCallSite.class.getPackageName()))
+                .findFirst()
+                .map(frame -> ClassUtils.getShortName(frame.getClassName()) + "." + frame.getMethodName()
+                        + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClass(joinPoint.getThis().getClass())) {
+            if (type.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                return type.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName();
+    }
+}
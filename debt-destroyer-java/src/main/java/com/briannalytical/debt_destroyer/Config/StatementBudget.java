@@ -0,0 +1,17 @@
+package com.briannalytical.debt_destroyer.Config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ most JDBC statements a controller method may execute per request
+ * checked by StatementBudgetInterceptor, which logs and counts requests over it as http.server.statements.over.budget
+ **/
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    int value();
+}
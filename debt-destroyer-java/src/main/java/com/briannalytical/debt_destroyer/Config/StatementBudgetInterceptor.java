@@ -0,0 +1,60 @@
+package com.briannalytical.debt_destroyer.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ counts statements per request, records them as http.server.statements and checks @StatementBudget
+ * the budget is checked in afterCompletion, once the response body has been written (and any lazy loads have run);
+ * the response is committed by then, so a request over its budget is logged and counted as
+ * http.server.statements.over.budget, never failed
+ **/
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetInterceptor.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public StatementBudgetInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        StatementCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        int executed = StatementCounter.stop();
+        if (executed < 0 || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+
+        String name = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        DistributionSummary.builder("http.server.statements")
+                .description("JDBC statements executed per request")
+                .tag("handler", name)
+                .register(meterRegistry)
+                .record(executed);
+
+        StatementBudget budget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+        if (budget != null && executed > budget.value()) {
+            log.warn("{} executed {} statements, budget is {}", name, executed, budget.value());
+            Counter.builder("http.server.statements.over.budget")
+                    .description("Requests that executed more statements than their @StatementBudget")
+                    .tag("handler", name)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.briannalytical.debt_destroyer.Config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ counts JDBC statements executed on behalf of the current request
+ * deliberately not inheritable, like TenantContext: a pooled thread would keep counting for the request that
+ * created it, so work handed to another thread must be wrapped with wrap(...) to be counted
+ **/
+public final class StatementCounter {
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    public static void start() {
+        CURRENT.set(new AtomicInteger());
+    }
+
+    /**
+     statements counted since start(), or -1 when nothing is being counted on this thread
+     **/
+    public static int current() {
+        AtomicInteger count = CURRENT.get();
+        return count == null ? -1 : count.get();
+    }
+
+    public static int stop() {
+        int count = current();
+        CURRENT.remove();
+        return count;
+    }
+
+    /**
+     a task whose statements count against the request that wrapped it, whichever thread runs it
+     **/
+    public static Runnable wrap(Runnable task) {
+        AtomicInteger count = CURRENT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = CURRENT.get();
+            CURRENT.set(count);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        AtomicInteger count = CURRENT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = CURRENT.get();
+            CURRENT.set(count);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    static void increment() {
+        AtomicInteger count = CURRENT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    private static void restore(AtomicInteger previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.briannalytical.debt_destroyer.Config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ counts every statement against the current request and logs the ones slower than the threshold
+ **/
+public class StatementListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementListener.class);
+
+    private final long slowThresholdMillis;
+
+    public StatementListener(Duration slowThreshold) {
+        this.slowThresholdMillis = slowThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementCounter.increment();
+
+        if (execInfo.getElapsedTime() >= slowThresholdMillis) {
+            String sql = queryInfoList.stream()
+                    .map(QueryInfo::getQuery)
+                    .map(query -> query.replaceAll("\\s+", " ").trim())
+                    .collect(Collectors.joining("; "));
+            log.warn("slow statement: {} ms in {}{}: {}",
+                    execInfo.getElapsedTime(),
+                    RepositoryCallSite.current(),
+                    execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "",
+                    sql);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.briannalytical.debt_destroyer.Config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ one database shared by many households, every row tagged with tenant_id
+ * Hibernate fills in and filters on the @TenantId column of every entity; native SQL passes :tenantId itself
+ * requests without a tenant header use debt-destroyer.tenancy.default-tenant-id, or are rejected when it is unset
+ **/
+@Configuration
+public class TenancyConfig {
+
+    // tenant ids start at 1
+    private static final String NO_TENANT = "0";
+
+    @Bean
+    FilterRegistrationBean<TenantFilter> tenantFilter(
+            @Value("${debt-destroyer.tenancy.default-tenant-id:#{null}}") Long defaultTenantId) {
+        FilterRegistrationBean<TenantFilter> registration =
+                new FilterRegistrationBean<>(new TenantFilter(defaultTenantId));
+        // before anything that may open a Hibernate session for the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     Hibernate asks for the tenant whenever it opens a session
+     * Spring Data opens one on the startup thread only to inspect it, so a session opened with no tenant bound
+     * gets a tenant no household has, and the statement inspector stops it before any SQL reaches the database
+     **/
+    @Bean
+    HibernatePropertiesCustomizer tenantIdentifierResolver() {
+        CurrentTenantIdentifierResolver resolver = new CurrentTenantIdentifierResolver() {
+            @Override
+            public String resolveCurrentTenantIdentifier() {
+                return TenantContext.isBound() ? Long.toString(TenantContext.currentTenantId()) : NO_TENANT;
+            }
+
+            @Override
+            public boolean validateExistingCurrentSessions() {
+                return false;
+            }
+        };
+        StatementInspector inspector = sql -> {
+            TenantContext.currentTenantId();
+            return sql;
+        };
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, resolver);
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        };
+    }
+
+    /**
+     carries the tenant, and the request's statement count, onto the task executor, e.g. for streamed export responses
+     **/
+    @Bean
+    TaskDecorator tenantTaskDecorator() {
+        return task -> StatementCounter.wrap(TenantContext.wrap(task));
+    }
+}
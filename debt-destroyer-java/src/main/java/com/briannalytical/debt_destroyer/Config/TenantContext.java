@@ -0,0 +1,93 @@
+package com.briannalytical.debt_destroyer.Config;
+
+import java.util.concurrent.Callable;
+
+/**
+ the tenant (household) the current thread is working for, bound per request by TenantFilter
+ * a thread with nothing bound has no tenant at all: asking for one fails rather than guessing a household,
+ * so a missed bind shows up as an error instead of reads and writes against someone else's rows;
+ * the configured default tenant is applied by TenantFilter alone, to requests without the header
+ * deliberately not inheritable: pooled threads would keep whichever tenant created them, so work handed to
+ * another thread must be wrapped with wrap(...)
+ **/
+public final class TenantContext {
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     the bound tenant, or IllegalStateException when this thread has none
+     **/
+    public static long currentTenantId() {
+        Long tenantId = CURRENT.get();
+        if (tenantId == null) {
+            throw new IllegalStateException("no tenant is bound to this thread");
+        }
+        return tenantId;
+    }
+
+    public static boolean isBound() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     bind a tenant until the returned scope is closed, then restore whatever was bound before
+     **/
+    public static Scope bind(long tenantId) {
+        if (tenantId < 1) {
+            throw new IllegalArgumentException("tenant id must be positive");
+        }
+        Long previous = CURRENT.get();
+        CURRENT.set(tenantId);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     run a task for a tenant on the current thread, restoring whatever was bound before
+     **/
+    public static void runAs(long tenantId, Runnable task) {
+        Scope scope = bind(tenantId);
+        try {
+            task.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    public static <T> T callAs(long tenantId, Callable<T> task) throws Exception {
+        Scope scope = bind(tenantId);
+        try {
+            return task.call();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     a task that runs for the tenant bound when it was wrapped, whichever thread runs it
+     * wrapping on a thread with nothing bound fails, so the task cannot silently pick up a tenant later
+     **/
+    public static Runnable wrap(Runnable task) {
+        long tenantId = currentTenantId();
+        return () -> runAs(tenantId, task);
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        long tenantId = currentTenantId();
+        return () -> callAs(tenantId, task);
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
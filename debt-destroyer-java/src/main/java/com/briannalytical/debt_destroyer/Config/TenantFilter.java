@@ -0,0 +1,63 @@
+package com.briannalytical.debt_destroyer.Config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ binds the tenant named in the X-Tenant-Id header for the rest of the request
+ * without the header the request works for the configured default tenant, or is rejected when there is none
+ * the header is trusted as-is, so it must be set by the gateway that authenticates the household
+ **/
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    private final Long defaultTenantId;
+
+    /**
+     defaultTenantId is the tenant of requests without the header, or null to reject them
+     **/
+    public TenantFilter(Long defaultTenantId) {
+        if (defaultTenantId != null && defaultTenantId < 1) {
+            throw new IllegalArgumentException("default tenant id must be positive");
+        }
+        this.defaultTenantId = defaultTenantId;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String header = request.getHeader(TENANT_HEADER);
+        long tenantId;
+        if (header == null || header.isBlank()) {
+            if (defaultTenantId == null) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, TENANT_HEADER + " header is required");
+                return;
+            }
+            tenantId = defaultTenantId;
+        } else {
+            try {
+                tenantId = Long.parseLong(header.trim());
+            } catch (NumberFormatException e) {
+                tenantId = 0;
+            }
+            if (tenantId < 1) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, TENANT_HEADER + " must be a positive number");
+                return;
+            }
+        }
+
+        TenantContext.Scope scope = TenantContext.bind(tenantId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.briannalytical.debt_destroyer.Controller;
+
+import com.briannalytical.debt_destroyer.Config.StatementBudget;
+import com.briannalytical.debt_destroyer.Model.Dto.DebtPayoffProjection;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSummary;
+import com.briannalytical.debt_destroyer.Model.Dto.ScenarioEvaluation;
+import com.briannalytical.debt_destroyer.Model.Dto.ScenarioRequest;
+import com.briannalytical.debt_destroyer.Model.Dto.StoredRecommendations;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyBudgetRollup;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Service.BudgetCache;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService;
+import com.briannalytical.debt_destroyer.Service.BudgetStream;
+import com.briannalytical.debt_destroyer.Service.BudgetRollupService;
+import com.briannalytical.debt_destroyer.Service.DebtPayoffSimulator;
+import com.briannalytical.debt_destroyer.Service.RecommendationStore;
+import com.briannalytical.debt_destroyer.Service.ScenarioEvaluator;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/budget")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class BudgetController {
+
+    @Autowired
+    private BudgetRollupService rollupService;
+
+    @Autowired
+    private BudgetCache budgetCache;
+
+    @Autowired
+    private DebtPayoffSimulator payoffSimulator;
+
+    @Autowired
+    private BudgetCalculationService budgetCalculationService;
+
+    @Autowired
+    private ScenarioEvaluator scenarioEvaluator;
+
+    @Autowired
+    private RecommendationStore recommendationStore;
+
+    @Autowired
+    private BudgetStream budgetStream;
+
+    /**
+     essentials, leftover, payments and recommendations for each month in a range
+     * GET /api/budget?from=2025-01&to=2025-12&strategy=AVALANCHE
+     * strategy is UTILIZATION_FIRST (default), AVALANCHE or SNOWBALL
+     **/
+    @GetMapping
+    @StatementBudget(6)
+    public ResponseEntity<List<MonthlyBudgetSummary>> getBudgetRange(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(defaultValue = "UTILIZATION_FIRST") AllocationMethod strategy) {
+
+        if (to.isBefore(from) || from.until(to, ChronoUnit.MONTHS) >= BudgetCalculationService.MAX_RANGE_MONTHS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(budgetCalculationService.summarizeRange(from, to, strategy));
+    }
+
+    /**
+     server-sent events for a range of up to 12 months: a "summary" event with the month's recomputed summary
+     * and a "recommendations" event with what changed in its recommendations, after each change to its data
+     * GET /api/budget/stream?from=2025-01&to=2025-06&strategy=AVALANCHE
+     * a client that falls behind is sent only the latest summary and the combined changes per month
+     **/
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamBudgetChanges(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(defaultValue = "UTILIZATION_FIRST") AllocationMethod strategy) {
+
+        try {
+            return ResponseEntity.ok(budgetStream.subscribe(from, to, strategy));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     get budget totals for a specific month
+     * GET /api/budget/{month}/{year}
+     * 400 for a month outside 1-12 or a year before 2024
+     **/
+    @GetMapping("/{month}/{year}")
+    @StatementBudget(3)
+    public ResponseEntity<MonthlyBudgetRollup> getMonthlyBudget(
+            @PathVariable Integer month,
+            @PathVariable Integer year) {
+
+        try {
+            return ResponseEntity.ok(rollupService.getRollup(month, year));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     debt payment recommendations for a month, as last computed in the background after a write
+     * GET /api/budget/{month}/{year}/recommendations?strategy=AVALANCHE
+     * computedAt in the body says how fresh they are; only a month's first read computes them inline
+     * 400 for a month outside 1-12 or a year before 2024
+     **/
+    @GetMapping("/{month}/{year}/recommendations")
+    @StatementBudget(3)
+    public ResponseEntity<StoredRecommendations> getRecommendations(
+            @PathVariable Integer month,
+            @PathVariable Integer year,
+            @RequestParam(defaultValue = "UTILIZATION_FIRST") AllocationMethod strategy) {
+
+        try {
+            return ResponseEntity.ok(recommendationStore.get(month, year, strategy));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     project debt payoff month by month, starting from a month's leftover funds
+     * GET /api/budget/{month}/{year}/projection?maxMonths=360&strategy=SNOWBALL
+     * 400 for a month outside 1-12 or a year before 2024
+     **/
+    @GetMapping("/{month}/{year}/projection")
+    public ResponseEntity<DebtPayoffProjection> getPayoffProjection(
+            @PathVariable Integer month,
+            @PathVariable Integer year,
+            @RequestParam(defaultValue = "360") Integer maxMonths,
+            @RequestParam(defaultValue = "UTILIZATION_FIRST") AllocationMethod strategy) {
+
+        if (maxMonths < 1 || maxMonths > DebtPayoffSimulator.MAX_PROJECTION_MONTHS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(payoffSimulator.project(month, year, maxMonths, strategy));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     run sampled what-if scenarios (income or expense shocks) from a month's budget
+     * POST /api/budget/{month}/{year}/scenarios
+     * body: {"maxMonths": 120, "seed": 1, "scenarios": [{"name": "income drop", "samples": 1000,
+     *        "shocks": [{"target": "INCOME", "minChangePercent": -30, "maxChangePercent": -10, "durationMonths": 3}]}]}
+     **/
+    @PostMapping("/{month}/{year}/scenarios")
+    public ResponseEntity<ScenarioEvaluation> evaluateScenarios(
+            @PathVariable Integer month,
+            @PathVariable Integer year,
+            @RequestBody ScenarioRequest request) {
+
+        try {
+            return ResponseEntity.ok(scenarioEvaluator.evaluate(month, year, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     rebuild every monthly rollup row of the tenant from the source tables
+     * POST /api/budget/rollup/rebuild
+     **/
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildRollup() {
+        int months = rollupService.rebuild();
+        return ResponseEntity.ok(Map.of("rebuiltMonths", months));
+    }
+
+    /**
+     hit/miss statistics for the budget totals cache
+     * GET /api/budget/cache/stats
+     **/
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        CacheStats stats = budgetCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", budgetCache.size());
+        body.put("hitCount", stats.hitCount());
+        body.put("missCount", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictionCount", stats.evictionCount());
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,140 @@
+package com.briannalytical.debt_destroyer.Controller;
+
+import com.briannalytical.debt_destroyer.Config.StatementBudget;
+import com.briannalytical.debt_destroyer.Model.Dto.DebtPaymentView;
+import com.briannalytical.debt_destroyer.Model.Dto.PaymentPosting;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtPayment;
+import com.briannalytical.debt_destroyer.Model.Enum.DataFormat;
+import com.briannalytical.debt_destroyer.Repository.DebtPaymentRepository;
+import com.briannalytical.debt_destroyer.Service.DebtPaymentService;
+import com.briannalytical.debt_destroyer.Service.HistoryExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/debt-payments")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class DebtPaymentController {
+
+    @Autowired
+    private DebtPaymentRepository debtPaymentRepository;
+
+    @Autowired
+    private DebtPaymentService debtPaymentService;
+
+    @Autowired
+    private HistoryExportService exportService;
+
+    /**
+     get payments made in a specific month
+     * GET /api/debt-payments/{month}/{year}
+     **/
+    @GetMapping("/{month}/{year}")
+    @StatementBudget(1)
+    public ResponseEntity<List<DebtPaymentView>> getPaymentsByMonth(
+            @PathVariable Integer month,
+            @PathVariable Integer year) {
+
+        return ResponseEntity.ok(debtPaymentRepository.findViewsByMonthAndYear(month, year));
+    }
+
+    /**
+     get payments made from one month to another, inclusive
+     * GET /api/debt-payments?from=2024-11&to=2025-02
+     **/
+    @GetMapping
+    @StatementBudget(1)
+    public ResponseEntity<List<DebtPaymentView>> getPaymentsBetween(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(debtPaymentRepository.findViewsBetween(from, to));
+    }
+
+    /**
+     get payment history for one debt account
+     * GET /api/debt-payments/account/{debtAccountId}
+     **/
+    @GetMapping("/account/{debtAccountId}")
+    @StatementBudget(1)
+    public ResponseEntity<List<DebtPaymentView>> getPaymentsByAccount(@PathVariable Long debtAccountId) {
+        return ResponseEntity.ok(debtPaymentRepository.findViewsByDebtAccountId(debtAccountId));
+    }
+
+    /**
+     record a payment and take it off the account's balance, in one transaction
+     * POST /api/debt-payments  body: {"debtAccount": {"id": 1}, "month": 1, "year": 2025, "amountPaid": 150.00}
+     * payments in the same month add up; a payment larger than the balance is rejected
+     **/
+    @PostMapping
+    public ResponseEntity<DebtPayment> postPayment(@RequestBody DebtPayment payment) {
+        try {
+            return debtPaymentService.post(payment)
+                    .map(result -> ResponseEntity.status(result.inserted() ? HttpStatus.CREATED : HttpStatus.OK)
+                            .body(result.value()))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     post a month's payments for many accounts at once; all of them are posted or none
+     * POST /api/debt-payments/{month}/{year}  body: [{"debtAccountId": 1, "amountPaid": 150.00}, ...]
+     **/
+    @PostMapping("/{month}/{year}")
+    public ResponseEntity<Map<String, Integer>> postMonthPayments(
+            @PathVariable Integer month,
+            @PathVariable Integer year,
+            @RequestBody List<PaymentPosting> payments) {
+
+        try {
+            return ResponseEntity.ok(Map.of("posted", debtPaymentService.postMonth(month, year, payments)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     stream payment history as CSV or NDJSON, optionally for one debt account
+     * GET /api/debt-payments/export?format=csv&debtAccountId={id}&from=2024-11&to=2025-02
+     * format is csv or ndjson in any case; every parameter is optional, and from and to are inclusive
+     * 400 for another format, or a range that ends before it starts
+     **/
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long debtAccountId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+
+        DataFormat dataFormat;
+        try {
+            dataFormat = DataFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(dataFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"debt-payments." + dataFormat.getFileExtension() + "\"")
+                .body(out -> exportService.exportDebtPayments(debtAccountId, from, to, dataFormat, out));
+    }
+}
@@ -1,15 +1,38 @@
 package com.briannalytical.debt_destroyer.Controller;
 
+import com.briannalytical.debt_destroyer.Config.StatementBudget;
+import com.briannalytical.debt_destroyer.Model.Dto.CursorPage;
+import com.briannalytical.debt_destroyer.Model.Dto.ImportSummary;
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
+import com.briannalytical.debt_destroyer.Model.Dto.VariableExpenseAmountView;
 import com.briannalytical.debt_destroyer.Model.Entity.Expense;
 import com.briannalytical.debt_destroyer.Model.Entity.VariableExpenseAmount;
+import com.briannalytical.debt_destroyer.Model.Enum.DataFormat;
+import com.briannalytical.debt_destroyer.Model.Event.BudgetChangedEvent;
 import com.briannalytical.debt_destroyer.Repository.ExpenseRepository;
 import com.briannalytical.debt_destroyer.Repository.VariableExpenseAmountRepository;
+import com.briannalytical.debt_destroyer.Service.BudgetCache;
+import com.briannalytical.debt_destroyer.Service.BudgetRollupService;
+import com.briannalytical.debt_destroyer.Service.HistoryExportService;
+import com.briannalytical.debt_destroyer.Service.VariableExpenseImportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.YearMonth;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/expenses")
@@ -22,14 +45,42 @@ public class ExpenseController {
     @Autowired
     private VariableExpenseAmountRepository variableExpenseAmountRepository;
 
+    @Autowired
+    private BudgetRollupService rollupService;
+
+    @Autowired
+    private BudgetCache budgetCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private VariableExpenseImportService importService;
+
+    @Autowired
+    private HistoryExportService exportService;
+
     /**
-     get all active expenses
-     * GET /api/expenses
+     get active expenses one page at a time, ordered by id
+     * GET /api/expenses?cursor={nextCursor}&limit=50
      **/
     @GetMapping
-    public ResponseEntity<List<Expense>> getAllExpenses() {
-        List<Expense> expenses = expenseRepository.findByIsActiveTrue();
-        return ResponseEntity.ok(expenses);
+    @StatementBudget(1)
+    public ResponseEntity<CursorPage<Expense>> getAllExpenses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        long[] after;
+        try {
+            after = CursorPage.decodeCursor(cursor, 1);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = CursorPage.clampPageSize(limit);
+        List<Expense> expenses = expenseRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(
+                after == null ? 0L : after[0], Limit.of(pageSize + 1));
+        return ResponseEntity.ok(CursorPage.of(expenses, pageSize, expense -> new long[] {expense.getId()}));
     }
 
     /**
@@ -37,6 +88,7 @@ public class ExpenseController {
      * GET /api/expenses/{id}
      **/
     @GetMapping("/{id}")
+    @StatementBudget(1)
     public ResponseEntity<Expense> getExpenseById(@PathVariable Long id) {
         return expenseRepository.findById(id)
                 .map(ResponseEntity::ok)
@@ -48,8 +100,14 @@ public class ExpenseController {
      * POST /api/expenses
      **/
     @PostMapping
+    @Transactional
     public ResponseEntity<Expense> createExpense(@RequestBody Expense expense) {
+        // A create never merges into an existing row, which could belong to another tenant
+        expense.setId(null);
         Expense saved = expenseRepository.save(expense);
+        rollupService.refreshAllMonths();
+        budgetCache.evictFixedExpenses();
+        eventPublisher.publishEvent(BudgetChangedEvent.forAllMonths());
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
@@ -58,17 +116,19 @@ public class ExpenseController {
      * PUT /api/expenses/{id}
      **/
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<Expense> updateExpense(
             @PathVariable Long id,
             @RequestBody Expense expense) {
 
-        if (!expenseRepository.existsById(id)) {
+        if (expenseRepository.updateDetails(id, expense) == 0) {
             return ResponseEntity.notFound().build();
         }
 
-        expense.setId(id);
-        Expense saved = expenseRepository.save(expense);
-        return ResponseEntity.ok(saved);
+        rollupService.refreshAllMonths();
+        budgetCache.evictFixedExpenses();
+        eventPublisher.publishEvent(BudgetChangedEvent.forAllMonths());
+        return ResponseEntity.ok(expenseRepository.findById(id).orElseThrow());
     }
 
     /**
@@ -76,14 +136,59 @@ public class ExpenseController {
      * DELETE /api/expenses/{id}
      **/
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteExpense(@PathVariable Long id) {
-        return expenseRepository.findById(id)
-                .map(expense -> {
-                    expense.setIsActive(false);
-                    expenseRepository.save(expense);
-                    return ResponseEntity.noContent().<Void>build();
-                })
-                .orElse(ResponseEntity.notFound().build());
+        if (expenseRepository.deactivate(id) == 0) {
+            return ResponseEntity.notFound().build();
+        }
+
+        rollupService.refreshAllMonths();
+        budgetCache.evictFixedExpenses();
+        eventPublisher.publishEvent(BudgetChangedEvent.forAllMonths());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     deactivate many expenses at once
+     * POST /api/expenses/deactivate  body: [1, 2, 3]
+     * 404 and nothing changed if any id is not one of the tenant's expenses; 400 for a missing body or a null id
+     **/
+    @PostMapping("/deactivate")
+    @Transactional
+    public ResponseEntity<Map<String, Integer>> deactivateExpenses(@RequestBody(required = false) List<Long> ids) {
+        return setActive(ids, false);
+    }
+
+    /**
+     reactivate many expenses at once
+     * POST /api/expenses/reactivate  body: [1, 2, 3]
+     * 404 and nothing changed if any id is not one of the tenant's expenses; 400 for a missing body or a null id
+     **/
+    @PostMapping("/reactivate")
+    @Transactional
+    public ResponseEntity<Map<String, Integer>> reactivateExpenses(@RequestBody(required = false) List<Long> ids) {
+        return setActive(ids, true);
+    }
+
+    private ResponseEntity<Map<String, Integer>> setActive(List<Long> ids, boolean active) {
+        if (ids == null || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (ids.isEmpty()) {
+            return ResponseEntity.ok(Map.of("affected", 0));
+        }
+        // Checked before the update, so an unknown id leaves every row as it was
+        if (expenseRepository.countByIdIn(ids) < new HashSet<>(ids).size()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        int affected = expenseRepository.setActive(ids, active);
+        if (affected > 0) {
+            rollupService.refreshAllMonths();
+            budgetCache.evictFixedExpenses();
+            eventPublisher.publishEvent(BudgetChangedEvent.forAllMonths());
+        }
+        return ResponseEntity.ok(Map.of("affected", affected));
     }
 
     /**
@@ -91,24 +196,109 @@ public class ExpenseController {
      * GET /api/expenses/variable/{month}/{year}
      **/
     @GetMapping("/variable/{month}/{year}")
-    public ResponseEntity<List<VariableExpenseAmount>> getVariableAmounts(
+    @StatementBudget(1)
+    public ResponseEntity<List<VariableExpenseAmountView>> getVariableAmounts(
             @PathVariable Integer month,
             @PathVariable Integer year) {
 
-        List<VariableExpenseAmount> amounts =
-                variableExpenseAmountRepository.findByMonthAndYear(month, year);
+        List<VariableExpenseAmountView> amounts =
+                variableExpenseAmountRepository.findViewsByMonthAndYear(month, year);
         return ResponseEntity.ok(amounts);
     }
 
     /**
-     add variable expense amount for a month
-     * POST /api/expenses/variable
+     get variable expense amounts from one month to another, inclusive
+     * GET /api/expenses/variable?from=2024-11&to=2025-02
+     **/
+    @GetMapping("/variable")
+    @StatementBudget(1)
+    public ResponseEntity<List<VariableExpenseAmountView>> getVariableAmountsBetween(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(variableExpenseAmountRepository.findViewsBetween(from, to));
+    }
+
+    /**
+     add or replace the variable expense amount for a month
+     * POST /api/expenses/variable  body: {"expense": {"id": 1}, "month": 1, "year": 2025, "amount": 410.25}
+     * 400 for an expense of another tenant, a missing or negative amount, or a month outside the schema's bounds
      **/
     @PostMapping("/variable")
+    @Transactional
     public ResponseEntity<VariableExpenseAmount> addVariableAmount(
             @RequestBody VariableExpenseAmount amount) {
 
-        VariableExpenseAmount saved = variableExpenseAmountRepository.save(amount);
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        // The expense must belong to the current tenant
+        if (amount.getExpense() == null || amount.getExpense().getId() == null
+                || !expenseRepository.existsById(amount.getExpense().getId())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        UpsertResult<VariableExpenseAmount> result;
+        try {
+            result = variableExpenseAmountRepository.upsert(amount);
+        } catch (InvalidDataAccessApiUsageException e) {
+            // the repository's IllegalArgumentException for a missing field or a month out of bounds
+            return ResponseEntity.badRequest().build();
+        }
+        VariableExpenseAmount saved = result.value();
+        rollupService.refreshMonth(saved.getMonth(), saved.getYear());
+        budgetCache.evictVariableExpenses(saved.getMonth(), saved.getYear());
+        eventPublisher.publishEvent(BudgetChangedEvent.forMonth(saved.getMonth(), saved.getYear()));
+        return ResponseEntity.status(result.inserted() ? HttpStatus.CREATED : HttpStatus.OK).body(saved);
+    }
+
+    /**
+     bulk upsert variable expense amounts from a CSV or NDJSON stream
+     * POST /api/expenses/variable/bulk
+     * CSV needs a header row: expenseId,month,year,amount[,notes]
+     * a header without those columns gets 400 with the reason as the error for line 1
+     **/
+    @PostMapping(value = "/variable/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportSummary> importVariableAmounts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+
+        DataFormat format = DataFormat.fromContentType(contentType);
+        try {
+            return ResponseEntity.ok(importService.importVariableAmounts(body, format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ImportSummary.unreadable(e.getMessage()));
+        }
+    }
+
+    /**
+     stream variable expense history as CSV or NDJSON, optionally for one expense
+     * GET /api/expenses/variable/export?format=csv&expenseId={id}&from=2024-11&to=2025-02
+     * format is csv or ndjson in any case; every parameter is optional, and from and to are inclusive
+     * 400 for another format, or a range that ends before it starts
+     **/
+    @GetMapping("/variable/export")
+    public ResponseEntity<StreamingResponseBody> exportVariableAmounts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long expenseId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+
+        DataFormat dataFormat;
+        try {
+            dataFormat = DataFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(dataFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"variable-expenses." + dataFormat.getFileExtension() + "\"")
+                .body(out -> exportService.exportVariableAmounts(expenseId, from, to, dataFormat, out));
     }
-}
\ No newline at end of file
+}
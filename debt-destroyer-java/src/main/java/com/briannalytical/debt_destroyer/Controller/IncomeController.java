@@ -1,10 +1,20 @@
 package com.briannalytical.debt_destroyer.Controller;
 
+import com.briannalytical.debt_destroyer.Config.StatementBudget;
+import com.briannalytical.debt_destroyer.Model.Dto.CursorPage;
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
 import com.briannalytical.debt_destroyer.Model.Entity.MonthlyIncome;
+import com.briannalytical.debt_destroyer.Model.Event.BudgetChangedEvent;
 import com.briannalytical.debt_destroyer.Repository.MonthlyIncomeRepository;
+import com.briannalytical.debt_destroyer.Service.BudgetCache;
+import com.briannalytical.debt_destroyer.Service.BudgetRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,14 +28,40 @@ public class IncomeController {
     @Autowired
     private MonthlyIncomeRepository incomeRepository;
 
+    @Autowired
+    private BudgetRollupService rollupService;
+
+    @Autowired
+    private BudgetCache budgetCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     get all income records
-     * GET /api/income
+     get income records one page at a time, oldest month first
+     * GET /api/income?cursor={nextCursor}&limit=50
      **/
     @GetMapping
-    public ResponseEntity<List<MonthlyIncome>> getAllIncome() {
-        List<MonthlyIncome> incomes = incomeRepository.findAll();
-        return ResponseEntity.ok(incomes);
+    @StatementBudget(1)
+    public ResponseEntity<CursorPage<MonthlyIncome>> getAllIncome(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        int afterYear;
+        int afterMonth;
+        try {
+            long[] after = CursorPage.decodeCursor(cursor, 2);
+            afterYear = after == null ? 0 : Math.toIntExact(after[0]);
+            afterMonth = after == null ? 0 : Math.toIntExact(after[1]);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            // a cursor whose keys do not fit a year and month was not issued here either
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = CursorPage.clampPageSize(limit);
+        List<MonthlyIncome> incomes = incomeRepository.findPageAfter(afterYear, afterMonth, Limit.of(pageSize + 1));
+        return ResponseEntity.ok(CursorPage.of(incomes, pageSize,
+                income -> new long[] {income.getYear(), income.getMonth()}));
     }
 
     /**
@@ -33,6 +69,7 @@ public class IncomeController {
      * GET /api/income/{month}/{year}
      **/
     @GetMapping("/{month}/{year}")
+    @StatementBudget(1)
     public ResponseEntity<MonthlyIncome> getIncomeByMonthYear(
             @PathVariable Integer month,
             @PathVariable Integer year) {
@@ -44,25 +81,25 @@ public class IncomeController {
 
     /**
      create or update income for a month
-     * POST /api/income
+     * POST /api/income  body: {"month": 1, "year": 2025, "amount": 4200.00}
+     * 400 for a missing or negative amount, or a month outside 1-12 or a year before 2024
      **/
     @PostMapping
+    @Transactional
     public ResponseEntity<MonthlyIncome> createOrUpdateIncome(@RequestBody MonthlyIncome income) {
-        // Check if income already exists for this month/year
-        Optional<MonthlyIncome> existing = incomeRepository
-                .findByMonthAndYear(income.getMonth(), income.getYear());
-
-        if (existing.isPresent()) {
-            // Update existing
-            MonthlyIncome existingIncome = existing.get();
-            existingIncome.setAmount(income.getAmount());
-            MonthlyIncome saved = incomeRepository.save(existingIncome);
-            return ResponseEntity.ok(saved);
-        } else {
-            // Create new
-            MonthlyIncome saved = incomeRepository.save(income);
-            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        // Insert, or update the existing row for this month/year, in one statement
+        UpsertResult<MonthlyIncome> result;
+        try {
+            result = incomeRepository.upsert(income);
+        } catch (InvalidDataAccessApiUsageException e) {
+            // the repository's IllegalArgumentException for a missing field or a month out of bounds
+            return ResponseEntity.badRequest().build();
         }
+        MonthlyIncome saved = result.value();
+        rollupService.refreshMonth(saved.getMonth(), saved.getYear());
+        budgetCache.evictIncome(saved.getMonth(), saved.getYear());
+        eventPublisher.publishEvent(BudgetChangedEvent.forMonth(saved.getMonth(), saved.getYear()));
+        return ResponseEntity.status(result.inserted() ? HttpStatus.CREATED : HttpStatus.OK).body(saved);
     }
 
     /**
@@ -70,11 +107,16 @@ public class IncomeController {
      * DELETE /api/income/{id}
      */
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteIncome(@PathVariable Long id) {
-        if (incomeRepository.existsById(id)) {
-            incomeRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return incomeRepository.findById(id)
+                .map(income -> {
+                    incomeRepository.delete(income);
+                    rollupService.refreshMonth(income.getMonth(), income.getYear());
+                    budgetCache.evictIncome(income.getMonth(), income.getYear());
+                    eventPublisher.publishEvent(BudgetChangedEvent.forMonth(income.getMonth(), income.getYear()));
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
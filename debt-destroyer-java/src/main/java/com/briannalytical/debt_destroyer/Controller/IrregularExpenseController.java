@@ -1,13 +1,27 @@
 package com.briannalytical.debt_destroyer.Controller;
 
+import com.briannalytical.debt_destroyer.Config.StatementBudget;
+import com.briannalytical.debt_destroyer.Model.Dto.CursorPage;
+import com.briannalytical.debt_destroyer.Model.Dto.SinkingFundMonth;
 import com.briannalytical.debt_destroyer.Model.Entity.IrregularExpense;
+import com.briannalytical.debt_destroyer.Model.Event.BudgetChangedEvent;
 import com.briannalytical.debt_destroyer.Repository.IrregularExpenseRepository;
+import com.briannalytical.debt_destroyer.Service.BudgetCache;
+import com.briannalytical.debt_destroyer.Service.BudgetRollupService;
+import com.briannalytical.debt_destroyer.Service.SinkingFundCalendar;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/irregular-expenses")
@@ -17,14 +31,57 @@ public class IrregularExpenseController {
     @Autowired
     private IrregularExpenseRepository irregularExpenseRepository;
 
+    @Autowired
+    private BudgetRollupService rollupService;
+
+    @Autowired
+    private BudgetCache budgetCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SinkingFundCalendar sinkingFundCalendar;
+
     /**
-     get all active irregular expenses
-     * GET /api/irregular-expenses
+     get active irregular expenses one page at a time, ordered by id
+     * GET /api/irregular-expenses?cursor={nextCursor}&limit=50
      **/
     @GetMapping
-    public ResponseEntity<List<IrregularExpense>> getAllIrregularExpenses() {
-        List<IrregularExpense> expenses = irregularExpenseRepository.findByIsActiveTrue();
-        return ResponseEntity.ok(expenses);
+    @StatementBudget(1)
+    public ResponseEntity<CursorPage<IrregularExpense>> getAllIrregularExpenses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        long[] after;
+        try {
+            after = CursorPage.decodeCursor(cursor, 1);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = CursorPage.clampPageSize(limit);
+        List<IrregularExpense> expenses = irregularExpenseRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(
+                after == null ? 0L : after[0], Limit.of(pageSize + 1));
+        return ResponseEntity.ok(CursorPage.of(expenses, pageSize, expense -> new long[] {expense.getId()}));
+    }
+
+    /**
+     per-month sinking fund and due bills, defaults to the whole calendar horizon
+     * GET /api/irregular-expenses/calendar?from=2025-01&to=2025-12
+     **/
+    @GetMapping("/calendar")
+    public ResponseEntity<List<SinkingFundMonth>> getSinkingFundCalendar(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+
+        try {
+            return ResponseEntity.ok(sinkingFundCalendar.months(
+                    from == null ? sinkingFundCalendar.firstMonth() : from,
+                    to == null ? sinkingFundCalendar.lastMonth() : to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -32,6 +89,7 @@ public class IrregularExpenseController {
      * GET /api/irregular-expenses/{id}
      **/
     @GetMapping("/{id}")
+    @StatementBudget(1)
     public ResponseEntity<IrregularExpense> getIrregularExpenseById(@PathVariable Long id) {
         return irregularExpenseRepository.findById(id)
                 .map(ResponseEntity::ok)
@@ -43,9 +101,16 @@ public class IrregularExpenseController {
      * POST /api/irregular-expenses
      **/
     @PostMapping
+    @Transactional
     public ResponseEntity<IrregularExpense> createIrregularExpense(
             @RequestBody IrregularExpense expense) {
+        // A create never merges into an existing row, which could belong to another tenant
+        expense.setId(null);
         IrregularExpense saved = irregularExpenseRepository.save(expense);
+        rollupService.refreshAllMonths();
+        budgetCache.evictSinkingFund();
+        eventPublisher.publishEvent(BudgetChangedEvent.forAllMonths());
+        sinkingFundCalendar.expenseChanged(saved);
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
@@ -54,17 +119,21 @@ public class IrregularExpenseController {
      * PUT /api/irregular-expenses/{id}
      **/
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<IrregularExpense> updateIrregularExpense(
             @PathVariable Long id,
             @RequestBody IrregularExpense expense) {
 
-        if (!irregularExpenseRepository.existsById(id)) {
+        if (irregularExpenseRepository.updateDetails(id, expense) == 0) {
             return ResponseEntity.notFound().build();
         }
 
-        expense.setId(id);
-        IrregularExpense saved = irregularExpenseRepository.save(expense);
-        return ResponseEntity.ok(saved);
+        rollupService.refreshAllMonths();
+        budgetCache.evictSinkingFund();
+        eventPublisher.publishEvent(BudgetChangedEvent.forAllMonths());
+        IrregularExpense updated = irregularExpenseRepository.findById(id).orElseThrow();
+        sinkingFundCalendar.expenseChanged(updated);
+        return ResponseEntity.ok(updated);
     }
 
     /**
@@ -72,13 +141,64 @@ public class IrregularExpenseController {
      * DELETE /api/irregular-expenses/{id}
      **/
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteIrregularExpense(@PathVariable Long id) {
-        return irregularExpenseRepository.findById(id)
-                .map(expense -> {
-                    expense.setIsActive(false);
-                    irregularExpenseRepository.save(expense);
-                    return ResponseEntity.noContent().<Void>build();
-                })
-                .orElse(ResponseEntity.notFound().build());
+        if (irregularExpenseRepository.deactivate(id) == 0) {
+            return ResponseEntity.notFound().build();
+        }
+
+        rollupService.refreshAllMonths();
+        budgetCache.evictSinkingFund();
+        eventPublisher.publishEvent(BudgetChangedEvent.forAllMonths());
+        sinkingFundCalendar.expensesRemoved(List.of(id));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     deactivate many irregular expenses at once
+     * POST /api/irregular-expenses/deactivate  body: [1, 2, 3]
+     * 404 and nothing changed if any id is not one of the tenant's irregular expenses; 400 for a missing body or a null id
+     **/
+    @PostMapping("/deactivate")
+    @Transactional
+    public ResponseEntity<Map<String, Integer>> deactivateIrregularExpenses(@RequestBody(required = false) List<Long> ids) {
+        return setActive(ids, false);
+    }
+
+    /**
+     reactivate many irregular expenses at once
+     * POST /api/irregular-expenses/reactivate  body: [1, 2, 3]
+     * 404 and nothing changed if any id is not one of the tenant's irregular expenses; 400 for a missing body or a null id
+     **/
+    @PostMapping("/reactivate")
+    @Transactional
+    public ResponseEntity<Map<String, Integer>> reactivateIrregularExpenses(@RequestBody(required = false) List<Long> ids) {
+        return setActive(ids, true);
+    }
+
+    private ResponseEntity<Map<String, Integer>> setActive(List<Long> ids, boolean active) {
+        if (ids == null || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (ids.isEmpty()) {
+            return ResponseEntity.ok(Map.of("affected", 0));
+        }
+        // Checked before the update, so an unknown id leaves every row as it was
+        if (irregularExpenseRepository.countByIdIn(ids) < new HashSet<>(ids).size()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        int affected = irregularExpenseRepository.setActive(ids, active);
+        if (affected > 0) {
+            rollupService.refreshAllMonths();
+            budgetCache.evictSinkingFund();
+            eventPublisher.publishEvent(BudgetChangedEvent.forAllMonths());
+            if (active) {
+                irregularExpenseRepository.findAllById(ids).forEach(sinkingFundCalendar::expenseChanged);
+            } else {
+                sinkingFundCalendar.expensesRemoved(ids);
+            }
+        }
+        return ResponseEntity.ok(Map.of("affected", affected));
     }
 }
\ No newline at end of file
@@ -2,8 +2,10 @@ package com.briannalytical.debt_destroyer;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.PropertySource;
 
 @SpringBootApplication
+@PropertySource("classpath:debt-destroyer.properties")
 public class DebtDestroyerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,73 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ one page of a keyset-paginated list
+ * nextCursor is an opaque token for the following page, null on the last page
+ **/
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String VERSION = "v1";
+
+    /**
+     build a page from a query that fetched up to pageSize + 1 rows
+     * the extra row only signals that another page exists and is not returned
+     **/
+    public static <T> CursorPage<T> of(List<T> fetched, int pageSize, Function<T, long[]> keyOf) {
+        if (fetched.size() <= pageSize) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, pageSize);
+        return new CursorPage<>(items, encodeCursor(keyOf.apply(items.get(pageSize - 1))));
+    }
+
+    public static int clampPageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    public static String encodeCursor(long... keys) {
+        StringBuilder token = new StringBuilder(VERSION);
+        for (long key : keys) {
+            token.append(':').append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     decode a cursor produced by encodeCursor; null means start from the beginning
+     * throws IllegalArgumentException for tokens that were not issued by this API, including negative keys,
+     * which no page ever ends on
+     **/
+    public static long[] decodeCursor(String cursor, int keyCount) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != keyCount + 1 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("invalid cursor");
+            }
+            long[] keys = new long[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = Long.parseLong(parts[i + 1]);
+                if (keys[i] < 0) {
+                    throw new IllegalArgumentException("invalid cursor");
+                }
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ read model for a debt payment, with the paid account flattened in
+ * built by a constructor query so serialising it never touches a lazy association
+ **/
+public record DebtPaymentView(
+        Long id,
+        Long debtAccountId,
+        String debtAccountName,
+        Integer month,
+        Integer year,
+        Money amountPaid,
+        LocalDateTime paymentDate
+) {
+}
@@ -0,0 +1,30 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+import java.util.List;
+
+/**
+ month-by-month payoff projection for every active debt
+ * balanceTrajectory holds the balance at the end of each simulated month
+ **/
+public record DebtPayoffProjection(
+        Integer startMonth,
+        Integer startYear,
+        Money monthlyBudget,
+        Integer monthsSimulated,
+        boolean allPaidOff,
+        List<AccountProjection> accounts
+) {
+
+    public record AccountProjection(
+            Long debtAccountId,
+            String accountName,
+            Money startingBalance,
+            Money firstMonthPayment,
+            Integer monthsToZero,   // null when the balance is not cleared within the horizon
+            Money totalPaid,
+            List<Money> balanceTrajectory
+    ) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import java.util.List;
+
+/**
+ result of a bulk import: counts for every row, details for rejected rows only
+ * line numbers are 1-based and count the CSV header line
+ **/
+public record ImportSummary(
+        long received,
+        long upserted,
+        long rejected,
+        List<RowError> errors,
+        boolean errorsTruncated
+) {
+
+    /**
+     a body that could not be read at all, e.g. a CSV header without the required columns; nothing was imported
+     **/
+    public static ImportSummary unreadable(String message) {
+        return new ImportSummary(0, 0, 0, List.of(new RowError(1, message)), false);
+    }
+
+    public record RowError(long line, String message) {
+    }
+}
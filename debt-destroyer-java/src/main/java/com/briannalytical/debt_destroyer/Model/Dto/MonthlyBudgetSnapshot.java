@@ -0,0 +1,25 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+import java.util.List;
+
+/**
+ everything the budget calculations need for one month, loaded in a single round trip
+ * income is null when no income has been recorded for the month
+ **/
+public record MonthlyBudgetSnapshot(
+        Integer month,
+        Integer year,
+        Money income,
+        Money fixedTotal,
+        Money variableTotal,
+        Money sinkingFundTotal,
+        List<DebtAccount> activeDebts
+) {
+
+    public boolean hasIncome() {
+        return income != null;
+    }
+}
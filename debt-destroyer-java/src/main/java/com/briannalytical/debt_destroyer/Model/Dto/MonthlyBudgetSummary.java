@@ -0,0 +1,24 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService.DebtRecommendation;
+
+import java.util.List;
+
+/**
+ one month of a budget range view
+ * income is null when no income has been recorded for the month
+ **/
+public record MonthlyBudgetSummary(
+        Integer month,
+        Integer year,
+        Money income,
+        Money fixedTotal,
+        Money variableTotal,
+        Money sinkingFundTotal,
+        Money totalEssentials,
+        Money leftover,
+        Money paymentsTotal,
+        List<DebtRecommendation> recommendations
+) {
+}
@@ -0,0 +1,12 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+/**
+ one account's payment in a month's batch of payments
+ **/
+public record PaymentPosting(
+        Long debtAccountId,
+        Money amountPaid
+) {
+}
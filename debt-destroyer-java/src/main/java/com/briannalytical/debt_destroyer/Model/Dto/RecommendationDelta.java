@@ -0,0 +1,70 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService.DebtRecommendation;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ how a month's recommendations for one strategy changed since the last ones the client was sent
+ * changed holds the new recommendation of every debt whose payment, rank or reason changed, or that is new;
+ * removedDebtAccountIds the debts no longer recommended
+ **/
+public record RecommendationDelta(
+        Integer month,
+        Integer year,
+        AllocationMethod strategy,
+        Instant computedAt,
+        List<DebtRecommendation> changed,
+        List<Long> removedDebtAccountIds
+) {
+
+    public static RecommendationDelta between(Integer month, Integer year, AllocationMethod strategy,
+                                              Instant computedAt, List<DebtRecommendation> previous,
+                                              List<DebtRecommendation> current) {
+        Map<Long, DebtRecommendation> before = byDebtAccount(previous);
+        List<DebtRecommendation> changed = new ArrayList<>();
+        for (DebtRecommendation recommendation : current) {
+            if (!recommendation.equals(before.remove(recommendation.getDebtAccountId()))) {
+                changed.add(recommendation);
+            }
+        }
+        return new RecommendationDelta(month, year, strategy, computedAt, changed, List.copyOf(before.keySet()));
+    }
+
+    public boolean isEmpty() {
+        return changed.isEmpty() && removedDebtAccountIds.isEmpty();
+    }
+
+    /**
+     this delta followed by a later one for the same month, as a single delta
+     **/
+    public RecommendationDelta then(RecommendationDelta later) {
+        Map<Long, DebtRecommendation> changed = byDebtAccount(this.changed);
+        Set<Long> removed = new LinkedHashSet<>(removedDebtAccountIds);
+        for (Long id : later.removedDebtAccountIds()) {
+            changed.remove(id);
+            removed.add(id);
+        }
+        for (DebtRecommendation recommendation : later.changed()) {
+            removed.remove(recommendation.getDebtAccountId());
+            changed.put(recommendation.getDebtAccountId(), recommendation);
+        }
+        return new RecommendationDelta(later.month(), later.year(), later.strategy(), later.computedAt(),
+                List.copyOf(changed.values()), List.copyOf(removed));
+    }
+
+    private static Map<Long, DebtRecommendation> byDebtAccount(List<DebtRecommendation> recommendations) {
+        Map<Long, DebtRecommendation> byId = new LinkedHashMap<>();
+        for (DebtRecommendation recommendation : recommendations) {
+            byId.put(recommendation.getDebtAccountId(), recommendation);
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,32 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ outcome distributions for a batch of what-if scenarios
+ * probabilities have 4 decimal places; a payoff percentile is null when that share of samples
+ * does not clear every debt within maxMonths
+ **/
+public record ScenarioEvaluation(
+        Integer startMonth,
+        Integer startYear,
+        Money baseLeftover,
+        Integer maxMonths,
+        Long seed,
+        List<ScenarioOutcome> scenarios
+) {
+
+    public record ScenarioOutcome(
+            String name,
+            Integer samples,
+            BigDecimal probabilityMissingMinimums,
+            BigDecimal probabilityPaidOff,
+            Integer payoffMonthsP10,
+            Integer payoffMonthsP50,
+            Integer payoffMonthsP90
+    ) {
+    }
+}
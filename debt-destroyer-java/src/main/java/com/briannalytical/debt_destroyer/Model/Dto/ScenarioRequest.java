@@ -0,0 +1,46 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Enum.ShockTarget;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ a batch of what-if scenarios to run against one month's budget
+ * maxMonths defaults to 360; seed is optional and makes the sampling repeatable
+ * strategy picks how extra funds are allocated, UTILIZATION_FIRST by default
+ **/
+public record ScenarioRequest(
+        Integer maxMonths,
+        Long seed,
+        AllocationMethod strategy,
+        List<Scenario> scenarios
+) {
+
+    /**
+     samples defaults to 1, enough when every shock has a single change percent
+     **/
+    public record Scenario(
+            String name,
+            Integer samples,
+            List<Shock> shocks
+    ) {
+    }
+
+    /**
+     a percent change to one part of the budget, e.g. INCOME -20 for 3 months
+     * each sample draws the change uniformly between minChangePercent and maxChangePercent (defaults to min)
+     * startMonth counts from the budget month (0) and durationMonths defaults to the whole projection
+     * expenseId is required for EXPENSE: its fixed amount, or the variable amount recorded for the month
+     **/
+    public record Shock(
+            ShockTarget target,
+            Long expenseId,
+            BigDecimal minChangePercent,
+            BigDecimal maxChangePercent,
+            Integer startMonth,
+            Integer durationMonths
+    ) {
+    }
+}
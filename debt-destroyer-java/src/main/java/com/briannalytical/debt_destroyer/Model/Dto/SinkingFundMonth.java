@@ -0,0 +1,28 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ one month of the sinking fund accrual calendar
+ * sinkingFund is what to set aside this month so every upcoming irregular bill is covered by its due month
+ * dueBills are the irregular bills that land in this month, ordered by due date
+ **/
+public record SinkingFundMonth(
+        Integer month,
+        Integer year,
+        Money sinkingFund,
+        Money dueTotal,
+        List<DueBill> dueBills
+) {
+
+    public record DueBill(
+            Long irregularExpenseId,
+            String name,
+            LocalDate dueDate,
+            Money amount
+    ) {
+    }
+}
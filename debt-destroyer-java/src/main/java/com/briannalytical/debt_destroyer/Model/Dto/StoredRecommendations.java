@@ -0,0 +1,20 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService.DebtRecommendation;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ a month's debt recommendations as last computed in the background
+ * computedAt is when the computation started reading; writes after it show up once the next one finishes
+ **/
+public record StoredRecommendations(
+        Integer month,
+        Integer year,
+        AllocationMethod strategy,
+        Instant computedAt,
+        List<DebtRecommendation> recommendations
+) {
+}
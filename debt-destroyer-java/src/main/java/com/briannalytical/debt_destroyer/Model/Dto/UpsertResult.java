@@ -0,0 +1,7 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+/**
+ the row an upsert wrote, and whether it was inserted (true) or updated an existing row (false)
+ **/
+public record UpsertResult<T>(T value, boolean inserted) {
+}
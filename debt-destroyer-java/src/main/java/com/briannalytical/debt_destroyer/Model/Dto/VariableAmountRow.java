@@ -0,0 +1,15 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+/**
+ one variable expense amount in a bulk import, keyed by (expenseId, month, year)
+ **/
+public record VariableAmountRow(
+        Long expenseId,
+        Integer month,
+        Integer year,
+        Money amount,
+        String notes
+) {
+}
@@ -0,0 +1,21 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ read model for a variable expense amount, with the owning expense flattened in
+ * built by a constructor query so serialising it never touches a lazy association
+ **/
+public record VariableExpenseAmountView(
+        Long id,
+        Long expenseId,
+        String expenseName,
+        Integer month,
+        Integer year,
+        Money amount,
+        String notes,
+        LocalDateTime createdAt
+) {
+}
@@ -1,15 +1,22 @@
 package com.briannalytical.debt_destroyer.Model.Entity;
 
 import com.briannalytical.debt_destroyer.Model.Enum.AccountType;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "debt-accounts")
 @Table(name = "debt_accounts")
 @Data
 @NoArgsConstructor
@@ -20,6 +27,11 @@ public class DebtAccount {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private Long tenantId;
+
     @Column(nullable = false)
     private String name;
 
@@ -28,13 +40,16 @@ public class DebtAccount {
     private AccountType accountType;
 
     @Column(name = "current_balance", nullable = false, precision = 10, scale = 2)
-    private BigDecimal currentBalance;
+    private Money currentBalance;
 
     @Column(name = "credit_limit", precision = 10, scale = 2)
-    private BigDecimal creditLimit;
+    private Money creditLimit;
 
     @Column(name = "minimum_payment", nullable = false, precision = 10, scale = 2)
-    private BigDecimal minimumPayment;
+    private Money minimumPayment;
+
+    @Column(name = "interest_rate", precision = 5, scale = 2)
+    private BigDecimal interestRate; // APR percent, null when unknown
 
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
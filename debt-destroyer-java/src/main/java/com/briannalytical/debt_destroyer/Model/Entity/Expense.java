@@ -2,15 +2,21 @@ package com.briannalytical.debt_destroyer.Model.Entity;
 
 import com.briannalytical.debt_destroyer.Model.Enum.EssentialExpenseCategory;
 import com.briannalytical.debt_destroyer.Model.Enum.ExpenseType;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "expenses")
 @Table(name = "expenses")
 @Data
 @NoArgsConstructor
@@ -21,6 +27,11 @@ public class Expense {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private Long tenantId;
+
     @Column(nullable = false)
     private String name;
 
@@ -33,7 +44,7 @@ public class Expense {
     private ExpenseType expenseType;
 
     @Column(name = "fixed_amount", precision = 10, scale = 2)
-    private BigDecimal fixedAmount;
+    private Money fixedAmount;
 
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
@@ -1,16 +1,22 @@
 package com.briannalytical.debt_destroyer.Model.Entity;
 
 import com.briannalytical.debt_destroyer.Model.Enum.Frequency;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "irregular-expenses")
 @Table(name = "irregular_expenses")
 @Data
 @NoArgsConstructor
@@ -21,11 +27,16 @@ public class IrregularExpense {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private Long tenantId;
+
     @Column(nullable = false)
     private String name;
 
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
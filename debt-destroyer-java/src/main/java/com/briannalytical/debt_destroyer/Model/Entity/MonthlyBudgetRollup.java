@@ -0,0 +1,52 @@
+package com.briannalytical.debt_destroyer.Model.Entity;
+
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ precomputed budget totals for one tenant's month, maintained by BudgetRollupService
+ * the tenant is part of the key here rather than a @TenantId column, matching PRIMARY KEY (tenant_id, year, month)
+ **/
+@Entity
+@Table(name = "monthly_budget_rollup")
+@IdClass(MonthlyBudgetRollupId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyBudgetRollup {
+
+    @Id
+    @JsonIgnore
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Id
+    private Integer month;
+
+    @Id
+    private Integer year;
+
+    @Column(name = "fixed_total", nullable = false, precision = 10, scale = 2)
+    private Money fixedTotal;
+
+    @Column(name = "variable_total", nullable = false, precision = 10, scale = 2)
+    private Money variableTotal;
+
+    @Column(name = "sinking_total", nullable = false, precision = 10, scale = 2)
+    private Money sinkingTotal;
+
+    @Column(precision = 10, scale = 2)
+    private Money income;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private Money leftover;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
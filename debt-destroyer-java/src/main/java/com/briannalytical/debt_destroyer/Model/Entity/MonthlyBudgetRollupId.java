@@ -0,0 +1,19 @@
+package com.briannalytical.debt_destroyer.Model.Entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyBudgetRollupId implements Serializable {
+
+    private Long tenantId;
+
+    private Integer month;
+
+    private Integer year;
+}
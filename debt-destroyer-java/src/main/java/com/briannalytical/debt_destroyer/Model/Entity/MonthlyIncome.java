@@ -1,16 +1,18 @@
 package com.briannalytical.debt_destroyer.Model.Entity;
 
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.TenantId;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "monthly_income", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"month", "year"})
+        @UniqueConstraint(columnNames = {"tenant_id", "month", "year"})
 })
 @Data
 @NoArgsConstructor
@@ -21,6 +23,11 @@ public class MonthlyIncome {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private Long tenantId;
+
     @Column(nullable = false)
     private Integer month;
 
@@ -28,7 +35,7 @@ public class MonthlyIncome {
     private Integer year;
 
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
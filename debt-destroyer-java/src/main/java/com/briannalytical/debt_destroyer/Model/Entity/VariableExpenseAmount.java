@@ -1,16 +1,18 @@
 package com.briannalytical.debt_destroyer.Model.Entity;
 
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.TenantId;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "variable_expense_amounts", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"expense_id", "month", "year"})
+        @UniqueConstraint(columnNames = {"tenant_id", "expense_id", "month", "year"})
 })
 @Data
 @NoArgsConstructor
@@ -21,6 +23,11 @@ public class VariableExpenseAmount {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private Long tenantId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "expense_id", nullable = false)
     private Expense expense;
@@ -31,8 +38,14 @@ public class VariableExpenseAmount {
     @Column(nullable = false)
     private Integer year;
 
+    // year * 100 + month, computed by the database; range finders filter on it
+    @JsonIgnore
+    @Column(insertable = false, updatable = false,
+            columnDefinition = "INTEGER GENERATED ALWAYS AS (year * 100 + month)")
+    private Integer period;
+
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
 
     @Column(length = 255)
     private String notes;
@@ -0,0 +1,7 @@
+package com.briannalytical.debt_destroyer.Model.Enum;
+
+public enum AllocationMethod {
+    UTILIZATION_FIRST,
+    AVALANCHE,
+    SNOWBALL
+}
@@ -0,0 +1,47 @@
+package com.briannalytical.debt_destroyer.Model.Enum;
+
+import org.springframework.http.MediaType;
+
+/**
+ line-oriented formats used by the bulk import and export endpoints
+ **/
+public enum DataFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(new MediaType("application", "x-ndjson"));
+
+    private final MediaType mediaType;
+
+    DataFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return name().toLowerCase();
+    }
+
+    /**
+     the format named by a request parameter, ignoring case, e.g. csv or NDJSON
+     **/
+    public static DataFormat from(String name) {
+        for (DataFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("unsupported format " + name);
+    }
+
+    public static DataFormat fromContentType(String contentType) {
+        MediaType requested = MediaType.parseMediaType(contentType);
+        for (DataFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(requested)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("unsupported content type " + contentType);
+    }
+}
@@ -7,6 +7,7 @@ public enum EssentialExpenseCategory {
     GROCERIES,
     ELECTRIC,
     GAS,
+    WATER,
     PHONE,
     SUBSCRIPTIONS,
     OTHER
@@ -0,0 +1,9 @@
+package com.briannalytical.debt_destroyer.Model.Enum;
+
+public enum ShockTarget {
+    INCOME,
+    FIXED_EXPENSES,
+    VARIABLE_EXPENSES,
+    SINKING_FUND,
+    EXPENSE
+}
@@ -0,0 +1,27 @@
+package com.briannalytical.debt_destroyer.Model.Event;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+
+/**
+ published by every write to a budget input: expenses, variable amounts, income, irregular expenses and payments
+ * month and year are null when the change affects every month, e.g. a fixed or irregular expense
+ * the tenant is captured when the event is created, so listeners can run on any thread
+ **/
+public record BudgetChangedEvent(
+        long tenantId,
+        Integer month,
+        Integer year
+) {
+
+    public static BudgetChangedEvent forMonth(Integer month, Integer year) {
+        return new BudgetChangedEvent(TenantContext.currentTenantId(), month, year);
+    }
+
+    public static BudgetChangedEvent forAllMonths() {
+        return new BudgetChangedEvent(TenantContext.currentTenantId(), null, null);
+    }
+
+    public boolean affectsAllMonths() {
+        return month == null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.briannalytical.debt_destroyer.Model.Event;
+
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService.DebtRecommendation;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ published by RecommendationStore when a background recomputation replaced a month's stored result
+ * carries the snapshot it was computed from and every strategy's ranking before and after
+ * previous is empty when the month had been dropped from the store in the meantime
+ **/
+public record RecommendationsRecomputedEvent(
+        long tenantId,
+        MonthlyBudgetSnapshot snapshot,
+        Instant computedAt,
+        Map<AllocationMethod, List<DebtRecommendation>> previous,
+        Map<AllocationMethod, List<DebtRecommendation>> current
+) {
+}
@@ -0,0 +1,106 @@
+package com.briannalytical.debt_destroyer.Model.Type;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ fixed-scale amount of money held as a long number of cents
+ * every conversion or division that can lose a fraction of a cent rounds HALF_UP
+ * serialises to JSON as a plain decimal number, same as the BigDecimal columns it replaces
+ **/
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     convert a decimal amount, rounding HALF_UP to the cent
+     **/
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        return amount == null ? null : ofCents(toCents(amount));
+    }
+
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money min(Money other) {
+        return cents <= other.cents ? this : other;
+    }
+
+    public Money max(Money other) {
+        return cents >= other.cents ? this : other;
+    }
+
+    /**
+     divide into equal parts, rounding HALF_UP to the cent
+     **/
+    public Money divide(long divisor) {
+        return ofCents(divideHalfUp(cents, divisor));
+    }
+
+    /**
+     this amount as a fraction of another, in basis points (4 decimal places) rounded HALF_UP
+     **/
+    public long ratioBasisPoints(Money denominator) {
+        return divideHalfUp(Math.multiplyExact(cents, 10_000L), denominator.cents);
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    /**
+     integer division rounding half away from zero, matching RoundingMode.HALF_UP
+     **/
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += Long.signum(dividend) * Long.signum(divisor);
+        }
+        return quotient;
+    }
+}
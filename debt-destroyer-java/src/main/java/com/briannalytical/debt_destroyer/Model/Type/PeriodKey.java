@@ -0,0 +1,37 @@
+package com.briannalytical.debt_destroyer.Model.Type;
+
+import java.time.YearMonth;
+
+/**
+ a month packed as yyyymm, the value of the generated period column on the time-series tables
+ * ordered like the months themselves, so one range covers spans that cross a year boundary
+ **/
+public final class PeriodKey {
+
+    // the schema's CHECK (year >= 2024) on every per-month table
+    public static final int FIRST_YEAR = 2024;
+
+    private PeriodKey() {
+    }
+
+    /**
+     throws IllegalArgumentException unless the month is 1 to 12 and the year FIRST_YEAR or later,
+     * the same bounds the per-month tables check
+     **/
+    public static void requireValid(Integer month, Integer year) {
+        if (month == null || month < 1 || month > 12) {
+            throw new IllegalArgumentException("month must be between 1 and 12");
+        }
+        if (year == null || year < FIRST_YEAR) {
+            throw new IllegalArgumentException("year must be " + FIRST_YEAR + " or later");
+        }
+    }
+
+    public static int of(int month, int year) {
+        return year * 100 + month;
+    }
+
+    public static int of(YearMonth month) {
+        return of(month.getMonthValue(), month.getYear());
+    }
+}
@@ -1,14 +1,51 @@
 package com.briannalytical.debt_destroyer.Repository;
 
 import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DebtAccountRepository extends JpaRepository<DebtAccount, Long> {
 
+    // Find one row of the current tenant; the inherited primary key lookup is not tenant-filtered
+    @Override
+    @Query("SELECT d FROM DebtAccount d WHERE d.id = :id")
+    Optional<DebtAccount> findById(@Param("id") Long id);
+
     // Find all active debt accounts
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     List<DebtAccount> findByIsActiveTrue();
-}
\ No newline at end of file
+
+    // Find all active debt accounts in id order, matching the snapshot query
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
+    List<DebtAccount> findByIsActiveTrueOrderByIdAsc();
+
+    // Whether the id is an active account of the current tenant, without loading it
+    boolean existsByIdAndIsActiveTrue(Long id);
+
+    // Take a payment off an active account's balance in one UPDATE, only while the balance covers it;
+    // returns 0 when it does not, or when the id is not an active account of the tenant
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "debt_accounts"))
+    @Query(nativeQuery = true, value = """
+            UPDATE debt_accounts SET current_balance = current_balance - :amount
+            WHERE tenant_id = :tenantId AND id = :id AND is_active AND current_balance >= :amount
+            """)
+    int applyPayment(@Param("tenantId") Long tenantId, @Param("id") Long id, @Param("amount") BigDecimal amount);
+}
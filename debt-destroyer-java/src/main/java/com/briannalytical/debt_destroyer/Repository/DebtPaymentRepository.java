@@ -1,17 +1,66 @@
 package com.briannalytical.debt_destroyer.Repository;
 
+import com.briannalytical.debt_destroyer.Model.Dto.DebtPaymentView;
 import com.briannalytical.debt_destroyer.Model.Entity.DebtPayment;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DebtPaymentRepository extends JpaRepository<DebtPayment, Long> {
+public interface DebtPaymentRepository extends JpaRepository<DebtPayment, Long>, DebtPaymentRepositoryCustom {
+
+    // Find one row of the current tenant; the inherited primary key lookup is not tenant-filtered
+    @Override
+    @Query("SELECT p FROM DebtPayment p WHERE p.id = :id")
+    Optional<DebtPayment> findById(@Param("id") Long id);
 
     // Find all payments for a specific month/year
-    List<DebtPayment> findByMonthAndYear(Integer month, Integer year);
+    // year picks the partition, period (yyyymm) the index range within it
+    @Query("SELECT p FROM DebtPayment p WHERE p.year = :year AND p.period = :year * 100 + :month")
+    List<DebtPayment> findByMonthAndYear(@Param("month") Integer month, @Param("year") Integer year);
+
+    // Payments for a month with their account, as read models in one query
+    @Query("""
+            SELECT new com.briannalytical.debt_destroyer.Model.Dto.DebtPaymentView(
+                p.id, d.id, d.name, p.month, p.year, p.amountPaid, p.paymentDate)
+            FROM DebtPayment p JOIN p.debtAccount d
+            WHERE p.year = :year AND p.period = :year * 100 + :month
+            ORDER BY d.name, p.id
+            """)
+    List<DebtPaymentView> findViewsByMonthAndYear(@Param("month") Integer month, @Param("year") Integer year);
+
+    // Payments from one month to another inclusive, oldest first, as read models in one query
+    @Query("""
+            SELECT new com.briannalytical.debt_destroyer.Model.Dto.DebtPaymentView(
+                p.id, d.id, d.name, p.month, p.year, p.amountPaid, p.paymentDate)
+            FROM DebtPayment p JOIN p.debtAccount d
+            WHERE p.year BETWEEN :fromYear AND :toYear AND p.period BETWEEN :fromPeriod AND :toPeriod
+            ORDER BY p.period, d.name, p.id
+            """)
+    List<DebtPaymentView> findViewsByPeriodRange(@Param("fromYear") Integer fromYear,
+                                                 @Param("toYear") Integer toYear,
+                                                 @Param("fromPeriod") Integer fromPeriod,
+                                                 @Param("toPeriod") Integer toPeriod);
+
+    default List<DebtPaymentView> findViewsBetween(YearMonth from, YearMonth to) {
+        return findViewsByPeriodRange(from.getYear(), to.getYear(), PeriodKey.of(from), PeriodKey.of(to));
+    }
+
+    // Payment history for one debt account as read models, oldest first
+    @Query("""
+            SELECT new com.briannalytical.debt_destroyer.Model.Dto.DebtPaymentView(
+                p.id, d.id, d.name, p.month, p.year, p.amountPaid, p.paymentDate)
+            FROM DebtPayment p JOIN p.debtAccount d
+            WHERE d.id = :debtAccountId
+            ORDER BY p.period, p.id
+            """)
+    List<DebtPaymentView> findViewsByDebtAccountId(@Param("debtAccountId") Long debtAccountId);
 
     // Find all payments for a specific debt account
     List<DebtPayment> findByDebtAccountId(Long debtAccountId);
@@ -0,0 +1,15 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtPayment;
+
+// Both reject a missing debt account, a month outside the schema's bounds, or a missing or negative amount with
+// IllegalArgumentException, which reaches callers translated to InvalidDataAccessApiUsageException
+public interface DebtPaymentRepositoryCustom {
+
+    // Insert or update the payment for (debt account, month, year) in one statement
+    UpsertResult<DebtPayment> upsert(DebtPayment payment);
+
+    // Add a payment to the total for (debt account, month, year) in one statement, inserting the row if needed
+    UpsertResult<DebtPayment> addPayment(DebtPayment payment);
+}
@@ -0,0 +1,90 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtPayment;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+
+import static com.briannalytical.debt_destroyer.Repository.UpsertRows.*;
+
+/**
+ single-statement upserts on UNIQUE(tenant_id, debt_account_id, month, year), replacing or adding to the amount
+ * the table is partitioned, where RETURNING cannot read xmax; instead a fresh insert is the row that took the id
+ * this statement drew from the sequence, since a conflicting row keeps its own id
+ **/
+class DebtPaymentRepositoryCustomImpl implements DebtPaymentRepositoryCustom {
+
+    static final String UPSERT_SQL = """
+            INSERT INTO debt_payments (tenant_id, debt_account_id, month, year, amount_paid, payment_date)
+            VALUES (:tenantId, :debtAccountId, :month, :year, :amountPaid, :paymentDate)
+            ON CONFLICT (tenant_id, debt_account_id, month, year) DO UPDATE SET
+                amount_paid = EXCLUDED.amount_paid,
+                payment_date = EXCLUDED.payment_date
+            RETURNING id, tenant_id, month, year, period, amount_paid, payment_date,
+                id = currval(pg_get_serial_sequence('debt_payments', 'id')) AS inserted
+            """;
+
+    static final String ADD_SQL = """
+            INSERT INTO debt_payments (tenant_id, debt_account_id, month, year, amount_paid, payment_date)
+            VALUES (:tenantId, :debtAccountId, :month, :year, :amountPaid, :paymentDate)
+            ON CONFLICT (tenant_id, debt_account_id, month, year) DO UPDATE SET
+                amount_paid = debt_payments.amount_paid + EXCLUDED.amount_paid,
+                payment_date = EXCLUDED.payment_date
+            RETURNING id, tenant_id, month, year, period, amount_paid, payment_date,
+                id = currval(pg_get_serial_sequence('debt_payments', 'id')) AS inserted
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public UpsertResult<DebtPayment> upsert(DebtPayment payment) {
+        return execute(UPSERT_SQL, payment);
+    }
+
+    @Override
+    public UpsertResult<DebtPayment> addPayment(DebtPayment payment) {
+        return execute(ADD_SQL, payment);
+    }
+
+    private UpsertResult<DebtPayment> execute(String sql, DebtPayment payment) {
+        if (payment.getDebtAccount() == null || payment.getDebtAccount().getId() == null) {
+            throw new IllegalArgumentException("a payment needs a debt account");
+        }
+        PeriodKey.requireValid(payment.getMonth(), payment.getYear());
+        if (payment.getAmountPaid() == null || payment.getAmountPaid().isNegative()) {
+            throw new IllegalArgumentException("a payment needs an amount of zero or more");
+        }
+
+        LocalDateTime paymentDate = payment.getPaymentDate() != null
+                ? payment.getPaymentDate()
+                : LocalDateTime.now();
+
+        Object[] row = (Object[]) entityManager.createNativeQuery(sql)
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, "debt_payments")
+                .setParameter("tenantId", TenantContext.currentTenantId())
+                .setParameter("debtAccountId", payment.getDebtAccount().getId())
+                .setParameter("month", payment.getMonth())
+                .setParameter("year", payment.getYear())
+                .setParameter("amountPaid", payment.getAmountPaid().toBigDecimal())
+                .setParameter("paymentDate", paymentDate)
+                .getSingleResult();
+
+        DebtPayment saved = new DebtPayment(
+                toLong(row[0]),
+                toLong(row[1]),
+                payment.getDebtAccount(),
+                toInteger(row[2]),
+                toInteger(row[3]),
+                toInteger(row[4]),
+                toMoney(row[5]),
+                toLocalDateTime(row[6])
+        );
+        return new UpsertResult<>(saved, (Boolean) row[7]);
+    }
+}
@@ -2,17 +2,72 @@ package com.briannalytical.debt_destroyer.Repository;
 
 import com.briannalytical.debt_destroyer.Model.Entity.Expense;
 import com.briannalytical.debt_destroyer.Model.Enum.ExpenseType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
+    // Find one row of the current tenant; the inherited primary key lookup is not tenant-filtered
+    @Override
+    @Query("SELECT e FROM Expense e WHERE e.id = :id")
+    Optional<Expense> findById(@Param("id") Long id);
+
     // Find all active expenses
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     List<Expense> findByIsActiveTrue();
 
+    // Next page of active expenses after the given id (keyset pagination)
+    List<Expense> findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
     // Find all active expenses by type (FIXED or VARIABLE)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     List<Expense> findByIsActiveTrueAndExpenseType(ExpenseType expenseType);
-}
\ No newline at end of file
+
+    // Find the ids of all expenses of a type, without loading the entities
+    @Query("SELECT e.id FROM Expense e WHERE e.expenseType = :expenseType")
+    Set<Long> findIdsByExpenseType(@Param("expenseType") ExpenseType expenseType);
+
+    // Count how many of the ids are expenses of the current tenant
+    long countByIdIn(Collection<Long> ids);
+
+    // Soft delete one expense in a single UPDATE; returns 0 when the id does not exist
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.isActive = false WHERE e.id = :id")
+    int deactivate(@Param("id") Long id);
+
+    // Set is_active on many expenses in one UPDATE; returns how many rows actually changed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.isActive = :active WHERE e.id IN :ids AND e.isActive <> :active")
+    int setActive(@Param("ids") Collection<Long> ids, @Param("active") boolean active);
+
+    // Overwrite the editable columns only, leaving is_active and created_at alone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Expense e SET
+                e.name = :#{#expense.name},
+                e.category = :#{#expense.category},
+                e.expenseType = :#{#expense.expenseType},
+                e.fixedAmount = :#{#expense.fixedAmount}
+            WHERE e.id = :id
+            """)
+    int updateDetails(@Param("id") Long id, @Param("expense") Expense expense);
+}
@@ -1,14 +1,61 @@
 package com.briannalytical.debt_destroyer.Repository;
 
 import com.briannalytical.debt_destroyer.Model.Entity.IrregularExpense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface IrregularExpenseRepository extends JpaRepository<IrregularExpense, Long> {
 
+    // Find one row of the current tenant; the inherited primary key lookup is not tenant-filtered
+    @Override
+    @Query("SELECT r FROM IrregularExpense r WHERE r.id = :id")
+    Optional<IrregularExpense> findById(@Param("id") Long id);
+
     // Find all active irregular expenses
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     List<IrregularExpense> findByIsActiveTrue();
-}
\ No newline at end of file
+
+    // Next page of active irregular expenses after the given id (keyset pagination)
+    List<IrregularExpense> findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Count how many of the ids are irregular expenses of the current tenant
+    long countByIdIn(Collection<Long> ids);
+
+    // Soft delete one irregular expense in a single UPDATE; returns 0 when the id does not exist
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE IrregularExpense r SET r.isActive = false WHERE r.id = :id")
+    int deactivate(@Param("id") Long id);
+
+    // Set is_active on many irregular expenses in one UPDATE; returns how many rows actually changed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE IrregularExpense r SET r.isActive = :active WHERE r.id IN :ids AND r.isActive <> :active")
+    int setActive(@Param("ids") Collection<Long> ids, @Param("active") boolean active);
+
+    // Overwrite the editable columns only, leaving is_active and created_at alone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE IrregularExpense r SET
+                r.name = :#{#expense.name},
+                r.amount = :#{#expense.amount},
+                r.frequency = :#{#expense.frequency},
+                r.nextDueDate = :#{#expense.nextDueDate},
+                r.customMonths = :#{#expense.customMonths}
+            WHERE r.id = :id
+            """)
+    int updateDetails(@Param("id") Long id, @Param("expense") IrregularExpense expense);
+}
@@ -0,0 +1,108 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyBudgetRollup;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyBudgetRollupId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import static com.briannalytical.debt_destroyer.Repository.MonthlyBudgetSnapshotRepository.FIXED_TOTAL_SQL;
+import static com.briannalytical.debt_destroyer.Repository.MonthlyBudgetSnapshotRepository.SINKING_FUND_TOTAL_SQL;
+import static com.briannalytical.debt_destroyer.Repository.MonthlyBudgetSnapshotRepository.VARIABLE_TOTAL_SQL;
+
+@Repository
+public interface MonthlyBudgetRollupRepository extends JpaRepository<MonthlyBudgetRollup, MonthlyBudgetRollupId> {
+
+    // Leftover after essentials, never negative and zero when there is no income
+    String LEFTOVER_SQL = """
+            CASE WHEN income IS NULL THEN 0
+                 ELSE GREATEST(income - fixed_total - variable_total - sinking_total, 0) END
+            """;
+
+    // Recompute every total for one tenant's month, creating the row if needed
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_budget_rollup"))
+    @Query(nativeQuery = true, value = """
+            INSERT INTO monthly_budget_rollup
+                (tenant_id, month, year, fixed_total, variable_total, sinking_total, income, leftover, updated_at)
+            SELECT :tenantId, :month, :year, fixed_total, variable_total, sinking_total, income,
+            """ + LEFTOVER_SQL + """
+                   , CURRENT_TIMESTAMP
+            FROM (SELECT
+                    (SELECT i.amount FROM monthly_income i
+                     WHERE i.tenant_id = :tenantId AND i.month = :month AND i.year = :year) AS income,
+                    (""" + FIXED_TOTAL_SQL + """
+                    ) AS fixed_total,
+                    (""" + VARIABLE_TOTAL_SQL + """
+                    ) AS variable_total,
+                    (""" + SINKING_FUND_TOTAL_SQL + """
+                    ) AS sinking_total) totals
+            ON CONFLICT (tenant_id, year, month) DO UPDATE SET
+                fixed_total = EXCLUDED.fixed_total,
+                variable_total = EXCLUDED.variable_total,
+                sinking_total = EXCLUDED.sinking_total,
+                income = EXCLUDED.income,
+                leftover = EXCLUDED.leftover,
+                updated_at = EXCLUDED.updated_at
+            """)
+    int refreshMonth(@Param("tenantId") Long tenantId, @Param("month") Integer month, @Param("year") Integer year);
+
+    // Fixed and sinking fund totals do not depend on the month, so they change every row of the tenant at once
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_budget_rollup"))
+    @Query(nativeQuery = true, value = """
+            UPDATE monthly_budget_rollup r
+            SET fixed_total = totals.fixed_total,
+                sinking_total = totals.sinking_total,
+                leftover = CASE WHEN r.income IS NULL THEN 0
+                                ELSE GREATEST(r.income - totals.fixed_total
+                                              - r.variable_total - totals.sinking_total, 0) END,
+                updated_at = CURRENT_TIMESTAMP
+            FROM (SELECT
+                    (""" + FIXED_TOTAL_SQL + """
+                    ) AS fixed_total,
+                    (""" + SINKING_FUND_TOTAL_SQL + """
+                    ) AS sinking_total) totals
+            WHERE r.tenant_id = :tenantId
+            """)
+    int refreshMonthIndependentTotals(@Param("tenantId") Long tenantId);
+
+    // Recreate a row for every month the tenant has income or variable amounts recorded
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_budget_rollup"))
+    @Query(nativeQuery = true, value = """
+            INSERT INTO monthly_budget_rollup
+                (tenant_id, month, year, fixed_total, variable_total, sinking_total, income, leftover, updated_at)
+            SELECT :tenantId, month, year, fixed_total, variable_total, sinking_total, income,
+            """ + LEFTOVER_SQL + """
+                   , CURRENT_TIMESTAMP
+            FROM (SELECT p.month, p.year, totals.fixed_total, totals.sinking_total,
+                         COALESCE(v.total, 0) AS variable_total, i.amount AS income
+                  FROM (SELECT month, year FROM monthly_income WHERE tenant_id = :tenantId
+                        UNION
+                        SELECT month, year FROM variable_expense_amounts WHERE tenant_id = :tenantId) p
+                  CROSS JOIN (SELECT
+                        (""" + FIXED_TOTAL_SQL + """
+                        ) AS fixed_total,
+                        (""" + SINKING_FUND_TOTAL_SQL + """
+                        ) AS sinking_total) totals
+                  LEFT JOIN monthly_income i
+                         ON i.tenant_id = :tenantId AND i.month = p.month AND i.year = p.year
+                  LEFT JOIN (SELECT month, year, SUM(amount) AS total
+                             FROM variable_expense_amounts
+                             WHERE tenant_id = :tenantId
+                             GROUP BY month, year) v
+                         ON v.month = p.month AND v.year = p.year) months
+            """)
+    int insertAllMonths(@Param("tenantId") Long tenantId);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_budget_rollup"))
+    @Query(nativeQuery = true, value = "DELETE FROM monthly_budget_rollup WHERE tenant_id = :tenantId")
+    int deleteAllRows(@Param("tenantId") Long tenantId);
+}
@@ -0,0 +1,192 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Enum.AccountType;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+@Timed("budget.snapshot.queries")
+public class MonthlyBudgetSnapshotRepository {
+
+    // Sum of the tenant's active fixed expenses; every fragment here is scoped to :tenantId
+    static final String FIXED_TOTAL_SQL = """
+            SELECT COALESCE(SUM(e.fixed_amount), 0)
+            FROM expenses e
+            WHERE e.tenant_id = :tenantId AND e.is_active AND e.expense_type = 'FIXED'
+            """;
+
+    // Sum of variable amounts recorded for :month/:year
+    // time-series tables are filtered on year, their partition key, and on the indexed period (yyyymm)
+    static final String VARIABLE_TOTAL_SQL = """
+            SELECT COALESCE(SUM(v.amount), 0)
+            FROM variable_expense_amounts v
+            WHERE v.tenant_id = :tenantId AND v.year = :year AND v.period = :year * 100 + :month
+            """;
+
+    // Monthly sinking fund, each expense rounded HALF_UP to cents before summing
+    static final String SINKING_FUND_TOTAL_SQL = """
+            SELECT COALESCE(SUM(ROUND(r.amount / CASE r.frequency
+                        WHEN 'ANNUAL' THEN 12
+                        WHEN 'SEMI_ANNUAL' THEN 6
+                        WHEN 'QUARTERLY' THEN 3
+                        ELSE r.custom_months END, 2)), 0)
+            FROM irregular_expenses r
+            WHERE r.tenant_id = :tenantId AND r.is_active AND (r.frequency <> 'CUSTOM' OR r.custom_months > 0)
+            """;
+
+    // Income per month over an inclusive (year, month) range
+    static final String INCOME_BY_MONTH_SQL = """
+            SELECT i.year, i.month, SUM(i.amount)
+            FROM monthly_income i
+            WHERE i.tenant_id = :tenantId AND (i.year, i.month) BETWEEN (:fromYear, :fromMonth) AND (:toYear, :toMonth)
+            GROUP BY i.year, i.month
+            """;
+
+    // Variable amounts per month over an inclusive (year, month) range
+    static final String VARIABLE_BY_MONTH_SQL = """
+            SELECT v.year, v.month, SUM(v.amount)
+            FROM variable_expense_amounts v
+            WHERE v.tenant_id = :tenantId AND v.year BETWEEN :fromYear AND :toYear
+              AND v.period BETWEEN :fromYear * 100 + :fromMonth AND :toYear * 100 + :toMonth
+            GROUP BY v.year, v.month
+            """;
+
+    // Debt payments per month over an inclusive (year, month) range
+    static final String PAYMENTS_BY_MONTH_SQL = """
+            SELECT p.year, p.month, SUM(p.amount_paid)
+            FROM debt_payments p
+            WHERE p.tenant_id = :tenantId AND p.year BETWEEN :fromYear AND :toYear
+              AND p.period BETWEEN :fromYear * 100 + :fromMonth AND :toYear * 100 + :toMonth
+            GROUP BY p.year, p.month
+            """;
+
+    // Rollup totals on every row, one row per active debt (or a single row with null debt columns)
+    private static final String SNAPSHOT_SQL = """
+            SELECT r.income, r.fixed_total, r.variable_total, r.sinking_total,
+                   d.id, d.name, d.account_type, d.current_balance,
+                   d.credit_limit, d.minimum_payment, d.interest_rate
+            FROM monthly_budget_rollup r
+            LEFT JOIN debt_accounts d ON d.tenant_id = r.tenant_id AND d.is_active
+            WHERE r.tenant_id = :tenantId AND r.month = :month AND r.year = :year
+            ORDER BY d.id
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     load income, essentials totals and active debts for a month in one query
+     * empty when the month has no rollup row yet
+     **/
+    public Optional<MonthlyBudgetSnapshot> findSnapshot(Integer month, Integer year) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(SNAPSHOT_SQL)
+                .setParameter("tenantId", TenantContext.currentTenantId())
+                .setParameter("month", month)
+                .setParameter("year", year)
+                .getResultList();
+
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Object[] first = rows.get(0);
+        List<DebtAccount> debts = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (row[4] != null) {
+                debts.add(toDebtAccount(row));
+            }
+        }
+
+        return Optional.of(new MonthlyBudgetSnapshot(
+                month,
+                year,
+                Money.of((BigDecimal) first[0]),
+                Money.of((BigDecimal) first[1]),
+                Money.of((BigDecimal) first[2]),
+                Money.of((BigDecimal) first[3]),
+                debts
+        ));
+    }
+
+    public Money sumFixedExpenses() {
+        return Money.of((BigDecimal) entityManager.createNativeQuery(FIXED_TOTAL_SQL)
+                .setParameter("tenantId", TenantContext.currentTenantId())
+                .getSingleResult());
+    }
+
+    public Money sumVariableExpenses(Integer month, Integer year) {
+        return Money.of((BigDecimal) entityManager.createNativeQuery(VARIABLE_TOTAL_SQL)
+                .setParameter("tenantId", TenantContext.currentTenantId())
+                .setParameter("month", month)
+                .setParameter("year", year)
+                .getSingleResult());
+    }
+
+    public Money sumMonthlySinkingFund() {
+        return Money.of((BigDecimal) entityManager.createNativeQuery(SINKING_FUND_TOTAL_SQL)
+                .setParameter("tenantId", TenantContext.currentTenantId())
+                .getSingleResult());
+    }
+
+    /**
+     monthly totals between two months inclusive, one grouped query per table
+     * months with no rows are absent from the map
+     **/
+    public Map<YearMonth, Money> sumIncomeByMonth(YearMonth from, YearMonth to) {
+        return sumByMonth(INCOME_BY_MONTH_SQL, from, to);
+    }
+
+    public Map<YearMonth, Money> sumVariableExpensesByMonth(YearMonth from, YearMonth to) {
+        return sumByMonth(VARIABLE_BY_MONTH_SQL, from, to);
+    }
+
+    public Map<YearMonth, Money> sumPaymentsByMonth(YearMonth from, YearMonth to) {
+        return sumByMonth(PAYMENTS_BY_MONTH_SQL, from, to);
+    }
+
+    private Map<YearMonth, Money> sumByMonth(String sql, YearMonth from, YearMonth to) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(sql)
+                .setParameter("tenantId", TenantContext.currentTenantId())
+                .setParameter("fromYear", from.getYear())
+                .setParameter("fromMonth", from.getMonthValue())
+                .setParameter("toYear", to.getYear())
+                .setParameter("toMonth", to.getMonthValue())
+                .getResultList();
+
+        Map<YearMonth, Money> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            totals.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()),
+                    Money.of((BigDecimal) row[2]));
+        }
+        return totals;
+    }
+
+    private DebtAccount toDebtAccount(Object[] row) {
+        DebtAccount debt = new DebtAccount();
+        debt.setId(((Number) row[4]).longValue());
+        debt.setName((String) row[5]);
+        debt.setAccountType(AccountType.valueOf(row[6].toString()));
+        debt.setCurrentBalance(Money.of((BigDecimal) row[7]));
+        debt.setCreditLimit(Money.of((BigDecimal) row[8]));
+        debt.setMinimumPayment(Money.of((BigDecimal) row[9]));
+        debt.setInterestRate((BigDecimal) row[10]);
+        debt.setIsActive(true);
+        return debt;
+    }
+}
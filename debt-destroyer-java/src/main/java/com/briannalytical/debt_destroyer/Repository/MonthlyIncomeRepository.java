@@ -1,14 +1,31 @@
 package com.briannalytical.debt_destroyer.Repository;
 
 import com.briannalytical.debt_destroyer.Model.Entity.MonthlyIncome;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MonthlyIncomeRepository extends JpaRepository<MonthlyIncome, Long> {
+public interface MonthlyIncomeRepository extends JpaRepository<MonthlyIncome, Long>, MonthlyIncomeRepositoryCustom {
+
+    // Find one row of the current tenant; the inherited primary key lookup is not tenant-filtered
+    @Override
+    @Query("SELECT i FROM MonthlyIncome i WHERE i.id = :id")
+    Optional<MonthlyIncome> findById(@Param("id") Long id);
 
     // Find income for a specific month/year
     Optional<MonthlyIncome> findByMonthAndYear(Integer month, Integer year);
+
+    // Next page of income records after (year, month), oldest first (keyset pagination)
+    @Query("""
+            SELECT i FROM MonthlyIncome i
+            WHERE i.year >= :year AND (i.year > :year OR i.month > :month)
+            ORDER BY i.year, i.month
+            """)
+    List<MonthlyIncome> findPageAfter(@Param("year") Integer year, @Param("month") Integer month, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyIncome;
+
+public interface MonthlyIncomeRepositoryCustom {
+
+    // Insert or update the income for income.month/income.year in one statement
+    // Rejects a month outside the schema's bounds or a missing or negative amount with IllegalArgumentException,
+    // which reaches callers translated to InvalidDataAccessApiUsageException
+    UpsertResult<MonthlyIncome> upsert(MonthlyIncome income);
+}
@@ -0,0 +1,54 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyIncome;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import static com.briannalytical.debt_destroyer.Repository.UpsertRows.*;
+
+/**
+ single-statement upsert on UNIQUE(tenant_id, month, year), so concurrent posts for one month cannot race
+ * (xmax = 0) is true only for a freshly inserted row version
+ **/
+class MonthlyIncomeRepositoryCustomImpl implements MonthlyIncomeRepositoryCustom {
+
+    static final String UPSERT_SQL = """
+            INSERT INTO monthly_income (tenant_id, month, year, amount, created_at)
+            VALUES (:tenantId, :month, :year, :amount, CURRENT_TIMESTAMP)
+            ON CONFLICT (tenant_id, month, year) DO UPDATE SET amount = EXCLUDED.amount
+            RETURNING id, tenant_id, month, year, amount, created_at, (xmax = 0) AS inserted
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public UpsertResult<MonthlyIncome> upsert(MonthlyIncome income) {
+        PeriodKey.requireValid(income.getMonth(), income.getYear());
+        if (income.getAmount() == null || income.getAmount().isNegative()) {
+            throw new IllegalArgumentException("income needs an amount of zero or more");
+        }
+
+        Object[] row = (Object[]) entityManager.createNativeQuery(UPSERT_SQL)
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, "monthly_income")
+                .setParameter("tenantId", TenantContext.currentTenantId())
+                .setParameter("month", income.getMonth())
+                .setParameter("year", income.getYear())
+                .setParameter("amount", income.getAmount().toBigDecimal())
+                .getSingleResult();
+
+        MonthlyIncome saved = new MonthlyIncome(
+                toLong(row[0]),
+                toLong(row[1]),
+                toInteger(row[2]),
+                toInteger(row[3]),
+                toMoney(row[4]),
+                toLocalDateTime(row[5])
+        );
+        return new UpsertResult<>(saved, (Boolean) row[6]);
+    }
+}
@@ -0,0 +1,35 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ converters for the columns returned by the native upsert fragments
+ **/
+final class UpsertRows {
+
+    private UpsertRows() {
+    }
+
+    static Long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    static Integer toInteger(Object value) {
+        return ((Number) value).intValue();
+    }
+
+    static Money toMoney(Object value) {
+        return Money.of((BigDecimal) value);
+    }
+
+    static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -1,16 +1,57 @@
 package com.briannalytical.debt_destroyer.Repository;
 
+import com.briannalytical.debt_destroyer.Model.Dto.VariableExpenseAmountView;
 import com.briannalytical.debt_destroyer.Model.Entity.VariableExpenseAmount;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface VariableExpenseAmountRepository extends JpaRepository<VariableExpenseAmount, Long> {
+public interface VariableExpenseAmountRepository extends JpaRepository<VariableExpenseAmount, Long>,
+        VariableExpenseAmountRepositoryCustom {
+
+    // Find one row of the current tenant; the inherited primary key lookup is not tenant-filtered
+    @Override
+    @Query("SELECT v FROM VariableExpenseAmount v WHERE v.id = :id")
+    Optional<VariableExpenseAmount> findById(@Param("id") Long id);
 
     // Find all variable expense amounts for a specific month/year
-    List<VariableExpenseAmount> findByMonthAndYear(Integer month, Integer year);
+    // year picks the partition, period (yyyymm) the index range within it
+    @Query("SELECT v FROM VariableExpenseAmount v WHERE v.year = :year AND v.period = :year * 100 + :month")
+    List<VariableExpenseAmount> findByMonthAndYear(@Param("month") Integer month, @Param("year") Integer year);
+
+    // Amounts for a month with their expense, as read models in one query
+    @Query("""
+            SELECT new com.briannalytical.debt_destroyer.Model.Dto.VariableExpenseAmountView(
+                v.id, e.id, e.name, v.month, v.year, v.amount, v.notes, v.createdAt)
+            FROM VariableExpenseAmount v JOIN v.expense e
+            WHERE v.year = :year AND v.period = :year * 100 + :month
+            ORDER BY e.name, v.id
+            """)
+    List<VariableExpenseAmountView> findViewsByMonthAndYear(@Param("month") Integer month, @Param("year") Integer year);
+
+    // Amounts from one month to another inclusive, oldest first, as read models in one query
+    @Query("""
+            SELECT new com.briannalytical.debt_destroyer.Model.Dto.VariableExpenseAmountView(
+                v.id, e.id, e.name, v.month, v.year, v.amount, v.notes, v.createdAt)
+            FROM VariableExpenseAmount v JOIN v.expense e
+            WHERE v.year BETWEEN :fromYear AND :toYear AND v.period BETWEEN :fromPeriod AND :toPeriod
+            ORDER BY v.period, e.name, v.id
+            """)
+    List<VariableExpenseAmountView> findViewsByPeriodRange(@Param("fromYear") Integer fromYear,
+                                                           @Param("toYear") Integer toYear,
+                                                           @Param("fromPeriod") Integer fromPeriod,
+                                                           @Param("toPeriod") Integer toPeriod);
+
+    default List<VariableExpenseAmountView> findViewsBetween(YearMonth from, YearMonth to) {
+        return findViewsByPeriodRange(from.getYear(), to.getYear(), PeriodKey.of(from), PeriodKey.of(to));
+    }
 
     // Find all amounts for a specific expense
     List<VariableExpenseAmount> findByExpenseId(Long expenseId);
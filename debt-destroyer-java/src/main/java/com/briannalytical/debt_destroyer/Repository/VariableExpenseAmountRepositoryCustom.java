@@ -0,0 +1,12 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
+import com.briannalytical.debt_destroyer.Model.Entity.VariableExpenseAmount;
+
+public interface VariableExpenseAmountRepositoryCustom {
+
+    // Insert or update the amount for (expense, month, year) in one statement
+    // Rejects a missing expense, a month outside the schema's bounds, or a missing or negative amount with
+    // IllegalArgumentException, which reaches callers translated to InvalidDataAccessApiUsageException
+    UpsertResult<VariableExpenseAmount> upsert(VariableExpenseAmount amount);
+}
@@ -0,0 +1,66 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
+import com.briannalytical.debt_destroyer.Model.Entity.VariableExpenseAmount;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import static com.briannalytical.debt_destroyer.Repository.UpsertRows.*;
+
+/**
+ single-statement upsert on UNIQUE(tenant_id, expense_id, month, year)
+ * the table is partitioned, where RETURNING cannot read xmax; instead a fresh insert is the row that took the id
+ * this statement drew from the sequence, since a conflicting row keeps its own id
+ **/
+class VariableExpenseAmountRepositoryCustomImpl implements VariableExpenseAmountRepositoryCustom {
+
+    static final String UPSERT_SQL = """
+            INSERT INTO variable_expense_amounts (tenant_id, expense_id, month, year, amount, notes, created_at)
+            VALUES (:tenantId, :expenseId, :month, :year, :amount, :notes, CURRENT_TIMESTAMP)
+            ON CONFLICT (tenant_id, expense_id, month, year) DO UPDATE SET
+                amount = EXCLUDED.amount,
+                notes = EXCLUDED.notes
+            RETURNING id, tenant_id, month, year, period, amount, notes, created_at,
+                id = currval(pg_get_serial_sequence('variable_expense_amounts', 'id')) AS inserted
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public UpsertResult<VariableExpenseAmount> upsert(VariableExpenseAmount amount) {
+        if (amount.getExpense() == null || amount.getExpense().getId() == null) {
+            throw new IllegalArgumentException("a variable amount needs an expense");
+        }
+        PeriodKey.requireValid(amount.getMonth(), amount.getYear());
+        if (amount.getAmount() == null || amount.getAmount().isNegative()) {
+            throw new IllegalArgumentException("a variable amount needs an amount of zero or more");
+        }
+
+        Object[] row = (Object[]) entityManager.createNativeQuery(UPSERT_SQL)
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, "variable_expense_amounts")
+                .setParameter("tenantId", TenantContext.currentTenantId())
+                .setParameter("expenseId", amount.getExpense().getId())
+                .setParameter("month", amount.getMonth())
+                .setParameter("year", amount.getYear())
+                .setParameter("amount", amount.getAmount().toBigDecimal())
+                .setParameter("notes", amount.getNotes())
+                .getSingleResult();
+
+        VariableExpenseAmount saved = new VariableExpenseAmount(
+                toLong(row[0]),
+                toLong(row[1]),
+                amount.getExpense(),
+                toInteger(row[2]),
+                toInteger(row[3]),
+                toInteger(row[4]),
+                toMoney(row[5]),
+                (String) row[6],
+                toLocalDateTime(row[7])
+        );
+        return new UpsertResult<>(saved, (Boolean) row[8]);
+    }
+}
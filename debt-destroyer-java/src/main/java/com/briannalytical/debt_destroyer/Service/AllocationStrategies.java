@@ -0,0 +1,102 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ the built-in allocation strategies, looked up by the method a request asks for
+ **/
+public final class AllocationStrategies {
+
+    private static final Map<AllocationMethod, AllocationStrategy> BUILT_IN = new EnumMap<>(AllocationMethod.class);
+
+    static {
+        register(new UtilizationFirst());
+        register(new Avalanche());
+        register(new Snowball());
+    }
+
+    private AllocationStrategies() {
+    }
+
+    public static AllocationStrategy of(AllocationMethod method) {
+        return BUILT_IN.get(method == null ? AllocationMethod.UTILIZATION_FIRST : method);
+    }
+
+    private static void register(AllocationStrategy strategy) {
+        BUILT_IN.put(strategy.method(), strategy);
+    }
+
+    /**
+     highest credit utilization first; loans have none and come last
+     **/
+    static final class UtilizationFirst implements AllocationStrategy {
+
+        @Override
+        public AllocationMethod method() {
+            return AllocationMethod.UTILIZATION_FIRST;
+        }
+
+        @Override
+        public void sortKeys(DebtColumns debts, long[] keys) {
+            System.arraycopy(debts.utilizationBasisPoints(), 0, keys, 0, debts.size());
+        }
+
+        @Override
+        public String reason(DebtColumns debts, int index) {
+            return String.format("High utilization (%.1f%%)",
+                    BigDecimal.valueOf(debts.utilizationBasisPoints()[index], 2));
+        }
+    }
+
+    /**
+     highest interest rate first; debts without a rate come last
+     **/
+    static final class Avalanche implements AllocationStrategy {
+
+        @Override
+        public AllocationMethod method() {
+            return AllocationMethod.AVALANCHE;
+        }
+
+        @Override
+        public void sortKeys(DebtColumns debts, long[] keys) {
+            System.arraycopy(debts.interestRateBasisPoints(), 0, keys, 0, debts.size());
+        }
+
+        @Override
+        public String reason(DebtColumns debts, int index) {
+            long rate = debts.interestRateBasisPoints()[index];
+            return rate < 0 ? "Interest rate unknown"
+                    : String.format("High interest rate (%.2f%% APR)", BigDecimal.valueOf(rate, 2));
+        }
+    }
+
+    /**
+     smallest balance first; paid-off debts come last
+     **/
+    static final class Snowball implements AllocationStrategy {
+
+        @Override
+        public AllocationMethod method() {
+            return AllocationMethod.SNOWBALL;
+        }
+
+        @Override
+        public void sortKeys(DebtColumns debts, long[] keys) {
+            long[] balances = debts.balances();
+            for (int i = 0; i < balances.length; i++) {
+                keys[i] = balances[i] == 0 ? Long.MIN_VALUE : -balances[i];
+            }
+        }
+
+        @Override
+        public String reason(DebtColumns debts, int index) {
+            return "Small balance (" + Money.ofCents(debts.balances()[index]) + ")";
+        }
+    }
+}
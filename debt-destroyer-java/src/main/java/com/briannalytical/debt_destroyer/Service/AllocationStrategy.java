@@ -0,0 +1,23 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+
+/**
+ decides which debts get leftover funds beyond their minimums, and in what order
+ * minimums are always paid first; extra funds then go to debts in descending key order until they run out
+ * keys are computed once per allocation, so a strategy can do any per-debt work there and none while sorting
+ **/
+public interface AllocationStrategy {
+
+    AllocationMethod method();
+
+    /**
+     write one sort key per debt, larger keys receive extra funds first and ties keep list order
+     **/
+    void sortKeys(DebtColumns debts, long[] keys);
+
+    /**
+     why a debt was given extra funds, shown on its recommendation
+     **/
+    String reason(DebtColumns debts, int index);
+}
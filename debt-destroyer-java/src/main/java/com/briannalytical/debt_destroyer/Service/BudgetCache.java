@@ -0,0 +1,156 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ bounded cache for BudgetCalculationService totals, keyed by tenant
+ * evictions run after the writing transaction commits so a concurrent read cannot re-cache the old value
+ * evicting everything for one tenant moves it to a new generation instead of scanning the cache,
+ * so writes cost the same however many tenants share it; old generations age out under the size bound
+ * leftovers have a generation of their own, so a fixed or sinking fund change, which moves every month's
+ * leftover, drops those without touching the tenant's variable totals
+ **/
+@Component
+public class BudgetCache {
+
+    enum Kind { FIXED, SINKING_FUND, VARIABLE, LEFTOVER }
+
+    // leftoverGeneration is 0 on every other kind
+    record Key(long tenantId, long generation, long leftoverGeneration, Kind kind, Integer month, Integer year) {
+    }
+
+    private final Cache<Key, Money> cache;
+    private final Cache<Long, Long> generations;
+    private final Cache<Long, Long> leftoverGenerations;
+    // generations are never reused, so a tenant whose generation was evicted cannot see old entries
+    private final AtomicLong nextGeneration = new AtomicLong();
+
+    public BudgetCache(@Value("${debt-destroyer.budget-cache.maximum-size:10000}") long maximumSize,
+                       @Value("${debt-destroyer.budget-cache.ttl:PT10M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .build();
+        this.leftoverGenerations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    public Money fixedExpenses(Supplier<Money> loader) {
+        return cache.get(key(Kind.FIXED, null, null), key -> loader.get());
+    }
+
+    public Money monthlySinkingFund(Supplier<Money> loader) {
+        return cache.get(key(Kind.SINKING_FUND, null, null), key -> loader.get());
+    }
+
+    public Money variableExpenses(Integer month, Integer year, Supplier<Money> loader) {
+        return cache.get(key(Kind.VARIABLE, month, year), key -> loader.get());
+    }
+
+    public Money leftoverFunds(Integer month, Integer year, Supplier<Money> loader) {
+        return cache.get(key(Kind.LEFTOVER, month, year), key -> loader.get());
+    }
+
+    /**
+     an expense was created, updated or deactivated
+     * the fixed total changes and with it every month's leftover
+     **/
+    public void evictFixedExpenses() {
+        evictWithLeftovers(Kind.FIXED);
+    }
+
+    /**
+     an irregular expense was created, updated or deactivated
+     * the sinking fund total changes and with it every month's leftover
+     **/
+    public void evictSinkingFund() {
+        evictWithLeftovers(Kind.SINKING_FUND);
+    }
+
+    /**
+     a variable amount was recorded for a month
+     **/
+    public void evictVariableExpenses(Integer month, Integer year) {
+        long tenantId = TenantContext.currentTenantId();
+        afterCommit(() -> {
+            cache.invalidate(key(tenantId, Kind.VARIABLE, month, year));
+            cache.invalidate(key(tenantId, Kind.LEFTOVER, month, year));
+        });
+    }
+
+    /**
+     income was created, updated or deleted for a month
+     **/
+    public void evictIncome(Integer month, Integer year) {
+        long tenantId = TenantContext.currentTenantId();
+        afterCommit(() -> cache.invalidate(key(tenantId, Kind.LEFTOVER, month, year)));
+    }
+
+    /**
+     every total of the current tenant, e.g. after a rollup rebuild
+     **/
+    public void evictTenant() {
+        long tenantId = TenantContext.currentTenantId();
+        afterCommit(() -> generations.put(tenantId, nextGeneration.incrementAndGet()));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private Key key(Kind kind, Integer month, Integer year) {
+        return key(TenantContext.currentTenantId(), kind, month, year);
+    }
+
+    private Key key(long tenantId, Kind kind, Integer month, Integer year) {
+        long generation = generations.get(tenantId, id -> nextGeneration.incrementAndGet());
+        long leftoverGeneration = kind == Kind.LEFTOVER
+                ? leftoverGenerations.get(tenantId, id -> nextGeneration.incrementAndGet())
+                : 0;
+        return new Key(tenantId, generation, leftoverGeneration, kind, month, year);
+    }
+
+    private void evictWithLeftovers(Kind kind) {
+        long tenantId = TenantContext.currentTenantId();
+        afterCommit(() -> {
+            cache.invalidate(key(tenantId, kind, null, null));
+            leftoverGenerations.put(tenantId, nextGeneration.incrementAndGet());
+        });
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -1,216 +1,274 @@
 package com.briannalytical.debt_destroyer.Service;
 
-import com.briannalytical.debt_destroyer.Model.Entity.*;
-import com.briannalytical.debt_destroyer.Model.Enum.ExpenseType;
-import com.briannalytical.debt_destroyer.Model.Enum.Frequency;
-import com.briannalytical.debt_destroyer.Repository.*;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSummary;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyBudgetRollup;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
+import com.briannalytical.debt_destroyer.Repository.DebtAccountRepository;
+import com.briannalytical.debt_destroyer.Repository.MonthlyBudgetSnapshotRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.YearMonth;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
+@Timed("budget.calculation")
 public class BudgetCalculationService {
 
-    @Autowired
-    private MonthlyIncomeRepository monthlyIncomeRepository;
+    public static final int MAX_RANGE_MONTHS = 60;
 
     @Autowired
-    private ExpenseRepository expenseRepository;
+    private MonthlyBudgetSnapshotRepository snapshotRepository;
 
     @Autowired
-    private VariableExpenseAmountRepository variableExpenseAmountRepository;
+    private BudgetRollupService rollupService;
 
     @Autowired
-    private IrregularExpenseRepository irregularExpenseRepository;
+    private BudgetCache budgetCache;
 
     @Autowired
     private DebtAccountRepository debtAccountRepository;
 
+    @Autowired
+    private ParallelBudgetLookups parallelLookups;
+
+    @Value("${debt-destroyer.budget.parallel-lookups.enabled:false}")
+    private boolean parallelLookupsEnabled;
+
     /**
-     calculate total fixed essential expenses
+     load everything a month's budget needs in a single round trip
+     * or, with parallel lookups enabled, in five concurrent ones
+     * throws IllegalArgumentException for a month outside 1-12 or a year before 2024
      **/
-    public BigDecimal calculateFixedExpenses() {
-        List<Expense> fixedExpenses = expenseRepository
-                .findByIsActiveTrueAndExpenseType(ExpenseType.FIXED);
+    public MonthlyBudgetSnapshot loadSnapshot(Integer month, Integer year) {
+        PeriodKey.requireValid(month, year);
+        if (parallelLookupsEnabled) {
+            return parallelLookups.loadSnapshot(month, year);
+        }
+        return snapshotRepository.findSnapshot(month, year)
+                .orElseGet(() -> {
+                    rollupService.refreshMonth(month, year);
+                    return snapshotRepository.findSnapshot(month, year).orElseThrow();
+                });
+    }
 
-        return fixedExpenses.stream()
-                .map(Expense::getFixedAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     calculate total fixed essential expenses
+     **/
+    public Money calculateFixedExpenses() {
+        return budgetCache.fixedExpenses(snapshotRepository::sumFixedExpenses);
     }
 
     /**
      calculate total variable expenses for a specific month
      **/
-    public BigDecimal calculateVariableExpenses(Integer month, Integer year) {
-        List<VariableExpenseAmount> variableAmounts =
-                variableExpenseAmountRepository.findByMonthAndYear(month, year);
-
-        return variableAmounts.stream()
-                .map(VariableExpenseAmount::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public Money calculateVariableExpenses(Integer month, Integer year) {
+        return budgetCache.variableExpenses(month, year,
+                () -> snapshotRepository.sumVariableExpenses(month, year));
     }
 
     /**
      calculate monthly sinking fund for irregularly occurring expenses
      **/
-    public BigDecimal calculateMonthlySinkingFund() {
-        List<IrregularExpense> irregularExpenses =
-                irregularExpenseRepository.findByIsActiveTrue();
-
-        BigDecimal totalMonthly = BigDecimal.ZERO;
-
-        for (IrregularExpense expense : irregularExpenses) {
-            BigDecimal monthlyAmount = switch (expense.getFrequency()) {
-                case ANNUAL -> expense.getAmount().divide(
-                        BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP);
-                case SEMI_ANNUAL -> expense.getAmount().divide(
-                        BigDecimal.valueOf(6), 2, RoundingMode.HALF_UP);
-                case QUARTERLY -> expense.getAmount().divide(
-                        BigDecimal.valueOf(3), 2, RoundingMode.HALF_UP);
-                case CUSTOM -> {
-                    if (expense.getCustomMonths() != null && expense.getCustomMonths() > 0) {
-                        yield expense.getAmount().divide(
-                                BigDecimal.valueOf(expense.getCustomMonths()), 2, RoundingMode.HALF_UP);
-                    }
-                    yield BigDecimal.ZERO;  // If custom_months not set, contribute nothing
-                }
-            };
-            totalMonthly = totalMonthly.add(monthlyAmount);
-        }
-
-        return totalMonthly;
+    public Money calculateMonthlySinkingFund() {
+        return budgetCache.monthlySinkingFund(snapshotRepository::sumMonthlySinkingFund);
     }
 
     /**
      calculate total essentials for a specific month
      **/
-    public BigDecimal calculateTotalEssentials(Integer month, Integer year) {
-        BigDecimal fixed = calculateFixedExpenses();
-        BigDecimal variable = calculateVariableExpenses(month, year);
-        BigDecimal sinkingFund = calculateMonthlySinkingFund();
+    public Money calculateTotalEssentials(Integer month, Integer year) {
+        MonthlyBudgetRollup rollup = rollupService.getRollup(month, year);
+        return Money.ofCents(rollup.getFixedTotal().cents()
+                + rollup.getVariableTotal().cents()
+                + rollup.getSinkingTotal().cents());
+    }
 
-        return fixed.add(variable).add(sinkingFund);
+    public Money calculateTotalEssentials(MonthlyBudgetSnapshot snapshot) {
+        return Money.ofCents(snapshot.fixedTotal().cents()
+                + snapshot.variableTotal().cents()
+                + snapshot.sinkingFundTotal().cents());
     }
 
     /**
      calculate leftover funds after minimums are met
      **/
-    public BigDecimal calculateLeftoverFunds(Integer month, Integer year) {
-        MonthlyIncome income = monthlyIncomeRepository
-                .findByMonthAndYear(month, year)
-                .orElse(null);
+    public Money calculateLeftoverFunds(Integer month, Integer year) {
+        if (parallelLookupsEnabled) {
+            return budgetCache.leftoverFunds(month, year,
+                    () -> calculateLeftoverFunds(parallelLookups.loadSnapshot(month, year)));
+        }
+        return budgetCache.leftoverFunds(month, year,
+                () -> rollupService.getRollup(month, year).getLeftover());
+    }
 
-        if (income == null) {
-            return BigDecimal.ZERO;
+    public Money calculateLeftoverFunds(MonthlyBudgetSnapshot snapshot) {
+        if (!snapshot.hasIncome()) {
+            return Money.ZERO;
         }
 
-        BigDecimal totalEssentials = calculateTotalEssentials(month, year);
-        BigDecimal leftover = income.getAmount().subtract(totalEssentials);
+        long totalEssentials = snapshot.fixedTotal().cents()
+                + snapshot.variableTotal().cents()
+                + snapshot.sinkingFundTotal().cents();
+        long leftover = snapshot.income().cents() - totalEssentials;
+
+        return Money.ofCents(Math.max(leftover, 0)); // Don't return negative
+    }
+
+    /**
+     essentials, leftover and recommendations for every month from..to inclusive
+     * loads each table once for the whole range, then computes the months in memory
+     **/
+    public List<MonthlyBudgetSummary> summarizeRange(YearMonth from, YearMonth to) {
+        return summarizeRange(from, to, AllocationMethod.UTILIZATION_FIRST);
+    }
+
+    public List<MonthlyBudgetSummary> summarizeRange(YearMonth from, YearMonth to, AllocationMethod method) {
+        Map<YearMonth, Money> income = snapshotRepository.sumIncomeByMonth(from, to);
+        Map<YearMonth, Money> variable = snapshotRepository.sumVariableExpensesByMonth(from, to);
+        Map<YearMonth, Money> payments = snapshotRepository.sumPaymentsByMonth(from, to);
+        Money fixedTotal = calculateFixedExpenses();
+        Money sinkingFundTotal = calculateMonthlySinkingFund();
+        List<DebtAccount> activeDebts = debtAccountRepository.findByIsActiveTrueOrderByIdAsc();
+
+        List<MonthlyBudgetSummary> months = new ArrayList<>();
+        for (YearMonth current = from; !current.isAfter(to); current = current.plusMonths(1)) {
+            MonthlyBudgetSnapshot snapshot = new MonthlyBudgetSnapshot(
+                    current.getMonthValue(),
+                    current.getYear(),
+                    income.get(current),
+                    fixedTotal,
+                    variable.getOrDefault(current, Money.ZERO),
+                    sinkingFundTotal,
+                    activeDebts
+            );
+            months.add(summarize(snapshot, payments.getOrDefault(current, Money.ZERO),
+                    generateRecommendations(snapshot, method)));
+        }
+        return months;
+    }
 
-        return leftover.max(BigDecimal.ZERO); // Don't return negative
+    /**
+     one month's summary from its snapshot, with recommendations already generated for it
+     **/
+    public MonthlyBudgetSummary summarize(MonthlyBudgetSnapshot snapshot, Money paymentsTotal,
+                                          List<DebtRecommendation> recommendations) {
+        return new MonthlyBudgetSummary(
+                snapshot.month(),
+                snapshot.year(),
+                snapshot.income(),
+                snapshot.fixedTotal(),
+                snapshot.variableTotal(),
+                snapshot.sinkingFundTotal(),
+                calculateTotalEssentials(snapshot),
+                calculateLeftoverFunds(snapshot),
+                paymentsTotal,
+                recommendations
+        );
     }
 
     /**
-     generate debt payment recommendations based on utilization
+     generate debt payment recommendations, highest utilization first
      **/
     public List<DebtRecommendation> generateRecommendations(Integer month, Integer year) {
-        BigDecimal leftover = calculateLeftoverFunds(month, year);
-        List<DebtAccount> debts = debtAccountRepository.findByIsActiveTrue();
+        return generateRecommendations(loadSnapshot(month, year));
+    }
+
+    public List<DebtRecommendation> generateRecommendations(MonthlyBudgetSnapshot snapshot) {
+        return generateRecommendations(snapshot, AllocationMethod.UTILIZATION_FIRST);
+    }
+
+    /**
+     generate debt payment recommendations, ranking debts for extra funds with the given strategy
+     * sort keys are computed once into a primitive array, then one stable O(n log n) sort and one pass
+     **/
+    public List<DebtRecommendation> generateRecommendations(MonthlyBudgetSnapshot snapshot, AllocationMethod method) {
+        long leftover = calculateLeftoverFunds(snapshot).cents();
+        List<DebtAccount> debts = snapshot.activeDebts();
 
-        if (leftover.compareTo(BigDecimal.ZERO) <= 0 || debts.isEmpty()) {
+        if (leftover <= 0 || debts.isEmpty()) {
             return new ArrayList<>();
         }
 
-        // first calculate total amount of minimums
-        BigDecimal totalMinimums = debts.stream()
-                .map(DebtAccount::getMinimumPayment)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        DebtColumns columns = DebtColumns.of(debts);
+        long totalMinimums = columns.totalMinimumsDue();
 
         // if minimums cannot be met, just return minimums
-        if (leftover.compareTo(totalMinimums) < 0) {
-            return debts.stream()
-                    .map(debt -> new DebtRecommendation(
-                            debt.getId(),
-                            debt.getName(),
-                            debt.getMinimumPayment(),
-                            0,
-                            "Minimum payment only",
-                            null
-                    ))
-                    .toList();
+        if (leftover < totalMinimums) {
+            List<DebtRecommendation> minimums = new ArrayList<>(debts.size());
+            for (int i = 0; i < debts.size(); i++) {
+                minimums.add(new DebtRecommendation(
+                        debts.get(i).getId(),
+                        debts.get(i).getName(),
+                        Money.ofCents(columns.minimumDue(i)),
+                        0,
+                        "Minimum payment only",
+                        null
+                ));
+            }
+            return minimums;
         }
 
         // handling extra/leftover funds
-        BigDecimal extraFunds = leftover.subtract(totalMinimums);
+        long extraFunds = leftover - totalMinimums;
 
-        // sort debts by highest utilization
-        List<DebtAccount> sortedDebts = debts.stream()
-                .sorted(Comparator.comparing(this::calculateUtilization).reversed())
-                .toList();
+        AllocationStrategy strategy = AllocationStrategies.of(method);
+        long[] keys = new long[columns.size()];
+        strategy.sortKeys(columns, keys);
+        int[] order = DebtColumns.rankDescending(keys);
 
-        List<DebtRecommendation> recommendations = new ArrayList<>();
+        List<DebtRecommendation> recommendations = new ArrayList<>(order.length);
         int priority = 1;
 
-        for (DebtAccount debt : sortedDebts) {
-            BigDecimal utilization = calculateUtilization(debt);
-            BigDecimal recommendedPayment = debt.getMinimumPayment();
+        for (int i : order) {
+            DebtAccount debt = debts.get(i);
+            long recommendedPayment = columns.minimumDue(i);
             String reason = "Minimum payment";
 
             // allocate extra funds
-            if (extraFunds.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal extraAllocation = extraFunds.min(
-                        debt.getCurrentBalance().subtract(debt.getMinimumPayment())
-                );
-                recommendedPayment = recommendedPayment.add(extraAllocation);
-                extraFunds = extraFunds.subtract(extraAllocation);
-                reason = String.format("High utilization (%.1f%%)",
-                        utilization.multiply(BigDecimal.valueOf(100)));
+            if (extraFunds > 0) {
+                long extraAllocation = Math.min(extraFunds, columns.balances()[i] - recommendedPayment);
+                recommendedPayment += extraAllocation;
+                extraFunds -= extraAllocation;
+                reason = strategy.reason(columns, i);
             }
 
             recommendations.add(new DebtRecommendation(
                     debt.getId(),
                     debt.getName(),
-                    recommendedPayment,
+                    Money.ofCents(recommendedPayment),
                     priority++,
                     reason,
-                    utilization
+                    columns.utilization(i)
             ));
         }
 
         return recommendations;
     }
 
-    /**
-     calculate utilization ratio for debt amount
-     **/
-    private BigDecimal calculateUtilization(DebtAccount debt) {
-        if (debt.getCreditLimit() == null ||
-                debt.getCreditLimit().compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO; // Loans don't have utilization
-        }
-
-        return debt.getCurrentBalance()
-                .divide(debt.getCreditLimit(), 4, RoundingMode.HALF_UP);
-    }
-
     /**
     inner class for budgeting recommendation results
      **/
     public static class DebtRecommendation {
         private Long debtAccountId;
         private String accountName;
-        private BigDecimal recommendedPayment;
+        private Money recommendedPayment;
         private Integer priorityRank;
         private String reason;
         private BigDecimal utilization;
 
         public DebtRecommendation(Long debtAccountId, String accountName,
-                                  BigDecimal recommendedPayment, Integer priorityRank,
+                                  Money recommendedPayment, Integer priorityRank,
                                   String reason, BigDecimal utilization) {
             this.debtAccountId = debtAccountId;
             this.accountName = accountName;
@@ -223,9 +281,26 @@ public class BudgetCalculationService {
         // Getters
         public Long getDebtAccountId() {return debtAccountId;}
         public String getAccountName() {return accountName;}
-        public BigDecimal getRecommendedPayment() {return recommendedPayment;}
+        public Money getRecommendedPayment() {return recommendedPayment;}
         public Integer getPriorityRank() {return priorityRank;}
         public String getReason() {return reason;}
         public BigDecimal getUtilization() {return utilization;}
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof DebtRecommendation that)) return false;
+            return Objects.equals(debtAccountId, that.debtAccountId)
+                    && Objects.equals(accountName, that.accountName)
+                    && Objects.equals(recommendedPayment, that.recommendedPayment)
+                    && Objects.equals(priorityRank, that.priorityRank)
+                    && Objects.equals(reason, that.reason)
+                    && Objects.equals(utilization, that.utilization);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(debtAccountId, accountName, recommendedPayment, priorityRank, reason, utilization);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyBudgetRollup;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyBudgetRollupId;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
+import com.briannalytical.debt_destroyer.Repository.MonthlyBudgetRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ keeps monthly_budget_rollup in step with expenses, income and irregular expenses
+ * write methods join the caller's transaction so the rollup commits with the change
+ * every method works on the current tenant's rows only
+ **/
+@Service
+public class BudgetRollupService {
+
+    @Autowired
+    private MonthlyBudgetRollupRepository rollupRepository;
+
+    @Autowired
+    private BudgetCache budgetCache;
+
+    /**
+     get the rollup for a month, building it on first access
+     * throws IllegalArgumentException for a month the rollup table cannot hold
+     **/
+    @Transactional
+    public MonthlyBudgetRollup getRollup(Integer month, Integer year) {
+        PeriodKey.requireValid(month, year);
+        long tenantId = TenantContext.currentTenantId();
+        MonthlyBudgetRollupId id = new MonthlyBudgetRollupId(tenantId, month, year);
+        return rollupRepository.findById(id)
+                .orElseGet(() -> {
+                    rollupRepository.refreshMonth(tenantId, month, year);
+                    return rollupRepository.findById(id).orElseThrow();
+                });
+    }
+
+    /**
+     income or variable amounts changed for a single month
+     * throws IllegalArgumentException for a month the rollup table cannot hold
+     **/
+    @Transactional
+    public void refreshMonth(Integer month, Integer year) {
+        PeriodKey.requireValid(month, year);
+        rollupRepository.refreshMonth(TenantContext.currentTenantId(), month, year);
+    }
+
+    /**
+     fixed expenses or irregular expenses changed, which affects every month
+     **/
+    @Transactional
+    public void refreshAllMonths() {
+        rollupRepository.refreshMonthIndependentTotals(TenantContext.currentTenantId());
+    }
+
+    /**
+     drop and recompute every rollup row of the tenant to repair drift
+     **/
+    @Transactional
+    public int rebuild() {
+        long tenantId = TenantContext.currentTenantId();
+        rollupRepository.deleteAllRows(tenantId);
+        int months = rollupRepository.insertAllMonths(tenantId);
+        budgetCache.evictTenant();
+        return months;
+    }
+}
@@ -0,0 +1,263 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSummary;
+import com.briannalytical.debt_destroyer.Model.Dto.RecommendationDelta;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Event.RecommendationsRecomputedEvent;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
+import com.briannalytical.debt_destroyer.Repository.MonthlyBudgetSnapshotRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ pushes recomputed month summaries and recommendation deltas to dashboards over server-sent events
+ * each recomputation from RecommendationStore is turned into events once, whatever the number of subscribers:
+ * one payments lookup, one summary and one delta per strategy in use, then handed to every subscriber of the tenant
+ * a subscriber only holds the latest summary and the merged delta per month until its client takes them,
+ * so a slow client falls behind by at most one update per month and never holds up the others
+ * each subscriber sends from its own virtual thread, parked between updates, so idle connections cost no platform thread
+ **/
+@Service
+public class BudgetStream {
+
+    public static final int MAX_STREAM_MONTHS = 12;
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetStream.class);
+
+    @Autowired
+    private RecommendationStore recommendationStore;
+
+    @Autowired
+    private BudgetCalculationService budgetCalculationService;
+
+    @Autowired
+    private MonthlyBudgetSnapshotRepository snapshotRepository;
+
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final int maxSubscribers;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public BudgetStream(@Value("${debt-destroyer.stream.timeout:PT30M}") Duration timeout,
+                        @Value("${debt-destroyer.stream.heartbeat:PT30S}") Duration heartbeat,
+                        @Value("${debt-destroyer.stream.maximum-subscribers:10000}") int maxSubscribers) {
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(tenant -> tenant.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    /**
+     subscribe the current tenant to changes in from..to inclusive, with recommendations ranked by strategy
+     * every month in the range is stored first, so from now on its changes are recomputed and pushed
+     * throws IllegalArgumentException for an invalid range and IllegalStateException when the stream is full
+     **/
+    public SseEmitter subscribe(YearMonth from, YearMonth to, AllocationMethod strategy) {
+        if (to.isBefore(from) || from.until(to, ChronoUnit.MONTHS) >= MAX_STREAM_MONTHS) {
+            throw new IllegalArgumentException("a stream covers 1 to " + MAX_STREAM_MONTHS + " months");
+        }
+        // to is after from, so it is valid whenever from is
+        PeriodKey.requireValid(from.getMonthValue(), from.getYear());
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("budget stream has " + maxSubscribers + " subscribers already");
+        }
+
+        Subscriber subscriber;
+        try {
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                recommendationStore.get(month.getMonthValue(), month.getYear(), strategy);
+            }
+            subscriber = new Subscriber(TenantContext.currentTenantId(), from, to, strategy,
+                    new SseEmitter(timeout.toMillis()));
+        } catch (RuntimeException e) {
+            subscriberCount.decrementAndGet();
+            throw e;
+        }
+
+        subscribers.compute(subscriber.tenantId, (tenantId, tenant) -> {
+            Set<Subscriber> set = tenant == null ? ConcurrentHashMap.newKeySet() : tenant;
+            set.add(subscriber);
+            return set;
+        });
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        subscriber.emitter.onTimeout(subscriber.emitter::complete);
+        subscriber.sender = Thread.ofVirtual()
+                .name("budget-stream-" + subscriber.tenantId)
+                .start(() -> send(subscriber));
+        return subscriber.emitter;
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     runs on the recommendation worker with the event's tenant bound; a failure here only costs this update
+     **/
+    @EventListener
+    public void onRecomputed(RecommendationsRecomputedEvent event) {
+        Set<Subscriber> tenant = subscribers.get(event.tenantId());
+        if (tenant == null) {
+            return;
+        }
+        MonthlyBudgetSnapshot snapshot = event.snapshot();
+        YearMonth month = YearMonth.of(snapshot.year(), snapshot.month());
+        List<Subscriber> watching = tenant.stream().filter(subscriber -> subscriber.covers(month)).toList();
+        if (watching.isEmpty()) {
+            return;
+        }
+
+        try {
+            Money paymentsTotal = snapshotRepository.sumPaymentsByMonth(month, month).getOrDefault(month, Money.ZERO);
+            Map<AllocationMethod, MonthlyBudgetSummary> summaries = new EnumMap<>(AllocationMethod.class);
+            Map<AllocationMethod, RecommendationDelta> deltas = new EnumMap<>(AllocationMethod.class);
+            for (Subscriber subscriber : watching) {
+                AllocationMethod strategy = subscriber.strategy;
+                MonthlyBudgetSummary summary = summaries.computeIfAbsent(strategy, method ->
+                        budgetCalculationService.summarize(snapshot, paymentsTotal, event.current().get(method)));
+                RecommendationDelta delta = deltas.computeIfAbsent(strategy, method ->
+                        RecommendationDelta.between(snapshot.month(), snapshot.year(), method, event.computedAt(),
+                                event.previous().getOrDefault(method, List.of()), event.current().get(method)));
+                subscriber.offer(month, summary, delta);
+            }
+        } catch (RuntimeException e) {
+            log.warn("pushing budget changes for tenant {} {} failed", event.tenantId(), month, e);
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            while (true) {
+                List<SseEmitter.SseEventBuilder> events = subscriber.take(heartbeat);
+                if (events.isEmpty()) {
+                    // a heartbeat finds connections the client dropped without closing
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                for (SseEmitter.SseEventBuilder event : events) {
+                    subscriber.emitter.send(event);
+                }
+            }
+        } catch (InterruptedException e) {
+            // removed, nothing left to send
+        } catch (IOException | IllegalStateException e) {
+            // the client went away or the emitter completed
+            subscriber.emitter.completeWithError(e);
+            remove(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.removed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.tenantId, (tenantId, tenant) -> {
+            tenant.remove(subscriber);
+            return tenant.isEmpty() ? null : tenant;
+        });
+        subscriberCount.decrementAndGet();
+        if (subscriber.sender != null && subscriber.sender != Thread.currentThread()) {
+            subscriber.sender.interrupt();
+        }
+    }
+
+    /**
+     one connected dashboard and the updates it has not been sent yet
+     **/
+    static final class Subscriber {
+
+        final long tenantId;
+        final YearMonth from;
+        final YearMonth to;
+        final AllocationMethod strategy;
+        final SseEmitter emitter;
+        final AtomicBoolean removed = new AtomicBoolean();
+        volatile Thread sender;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition updated = lock.newCondition();
+        // guarded by lock; at most one entry per month in each, so pending updates are bounded by the range
+        private final Map<YearMonth, MonthlyBudgetSummary> summaries = new TreeMap<>();
+        private final Map<YearMonth, RecommendationDelta> deltas = new TreeMap<>();
+
+        Subscriber(long tenantId, YearMonth from, YearMonth to, AllocationMethod strategy, SseEmitter emitter) {
+            this.tenantId = tenantId;
+            this.from = from;
+            this.to = to;
+            this.strategy = strategy;
+            this.emitter = emitter;
+        }
+
+        boolean covers(YearMonth month) {
+            return !month.isBefore(from) && !month.isAfter(to);
+        }
+
+        /**
+         replaces a summary the client has not been sent yet and folds the delta into one still pending
+         **/
+        void offer(YearMonth month, MonthlyBudgetSummary summary, RecommendationDelta delta) {
+            lock.lock();
+            try {
+                summaries.put(month, summary);
+                if (!delta.isEmpty()) {
+                    deltas.merge(month, delta, RecommendationDelta::then);
+                }
+                updated.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         everything pending, waiting up to the heartbeat interval for something to arrive; empty if nothing did
+         **/
+        List<SseEmitter.SseEventBuilder> take(Duration heartbeat) throws InterruptedException {
+            lock.lock();
+            try {
+                long remaining = heartbeat.toNanos();
+                while (summaries.isEmpty() && remaining > 0) {
+                    remaining = updated.awaitNanos(remaining);
+                }
+                List<SseEmitter.SseEventBuilder> events = new ArrayList<>(summaries.size() + deltas.size());
+                summaries.values().forEach(summary -> events.add(SseEmitter.event().name("summary").data(summary)));
+                deltas.values().forEach(delta -> events.add(SseEmitter.event().name("recommendations").data(delta)));
+                summaries.clear();
+                deltas.clear();
+                return events;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
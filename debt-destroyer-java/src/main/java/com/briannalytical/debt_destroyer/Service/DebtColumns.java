@@ -0,0 +1,132 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ active debts as parallel primitive columns, cents for amounts and basis points for ratios
+ * built once per calculation in list order so allocation strategies never touch Money or BigDecimal
+ * interestRateBasisPoints is -1 for a debt without a known rate
+ **/
+public record DebtColumns(
+        long[] balances,
+        long[] creditLimits,
+        long[] minimums,
+        long[] utilizationBasisPoints,
+        long[] interestRateBasisPoints
+) {
+
+    public static DebtColumns of(List<DebtAccount> debts) {
+        int n = debts.size();
+        long[] balances = new long[n];
+        long[] creditLimits = new long[n];
+        long[] minimums = new long[n];
+        long[] utilization = new long[n];
+        long[] interestRates = new long[n];
+        for (int i = 0; i < n; i++) {
+            DebtAccount debt = debts.get(i);
+            balances[i] = debt.getCurrentBalance().cents();
+            creditLimits[i] = debt.getCreditLimit() == null ? 0 : debt.getCreditLimit().cents();
+            minimums[i] = debt.getMinimumPayment().cents();
+            utilization[i] = utilizationBasisPoints(balances[i], creditLimits[i]);
+            interestRates[i] = debt.getInterestRate() == null ? -1
+                    : debt.getInterestRate().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+        }
+        return new DebtColumns(balances, creditLimits, minimums, utilization, interestRates);
+    }
+
+    public int size() {
+        return balances.length;
+    }
+
+    /**
+     the minimum payment still owed, a paid-off debt owes nothing and one nearly paid off only its balance
+     **/
+    public long minimumDue(int index) {
+        return Math.min(minimums[index], balances[index]);
+    }
+
+    public long totalMinimumsDue() {
+        long total = 0;
+        for (int i = 0; i < balances.length; i++) {
+            total += minimumDue(i);
+        }
+        return total;
+    }
+
+    public BigDecimal utilization(int index) {
+        return BigDecimal.valueOf(utilizationBasisPoints[index], 4);
+    }
+
+    /**
+     a copy with its own balances and utilization, for a simulation that pays the debts down
+     **/
+    public DebtColumns withOwnBalances() {
+        return new DebtColumns(balances.clone(), creditLimits, minimums,
+                utilizationBasisPoints.clone(), interestRateBasisPoints);
+    }
+
+    /**
+     recompute utilization after the balances changed
+     **/
+    public void refreshUtilization() {
+        for (int i = 0; i < balances.length; i++) {
+            utilizationBasisPoints[i] = utilizationBasisPoints(balances[i], creditLimits[i]);
+        }
+    }
+
+    /**
+     utilization in basis points (a ratio to 4 decimal places), rounded HALF_UP
+     **/
+    public static long utilizationBasisPoints(long balance, long creditLimit) {
+        if (creditLimit == 0) {
+            return 0; // Loans don't have utilization
+        }
+        return Money.divideHalfUp(balance * 10_000, creditLimit);
+    }
+
+    /**
+     debt indexes ordered by key, largest first; equal keys keep list order
+     * bottom-up merge sort on int indexes, O(n log n) with no boxing
+     **/
+    public static int[] rankDescending(long[] keys) {
+        int[] order = new int[keys.length];
+        rankDescending(keys, order, new int[keys.length]);
+        return order;
+    }
+
+    /**
+     same ranking into caller-owned arrays, so a loop can re-rank every iteration without allocating
+     **/
+    public static void rankDescending(long[] keys, int[] order, int[] buffer) {
+        int n = keys.length;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n - width; lo += 2 * width) {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, n);
+                if (keys[order[mid - 1]] >= keys[order[mid]]) {
+                    continue; // already in order
+                }
+                int left = lo;
+                int right = mid;
+                for (int k = lo; k < hi; k++) {
+                    // taking from the left on ties keeps the sort stable
+                    if (right >= hi || (left < mid && keys[order[left]] >= keys[order[right]])) {
+                        buffer[k] = order[left++];
+                    } else {
+                        buffer[k] = order[right++];
+                    }
+                }
+                System.arraycopy(buffer, lo, order, lo, hi - lo);
+            }
+        }
+    }
+}
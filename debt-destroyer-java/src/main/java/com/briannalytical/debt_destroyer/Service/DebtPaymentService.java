@@ -0,0 +1,165 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.PaymentPosting;
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtPayment;
+import com.briannalytical.debt_destroyer.Model.Event.BudgetChangedEvent;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
+import com.briannalytical.debt_destroyer.Repository.DebtAccountRepository;
+import com.briannalytical.debt_destroyer.Repository.DebtPaymentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ posts debt payments: each payment is added to its month's row in debt_payments and taken off the account's
+ * balance in the same transaction
+ * the balance changes in one conditional UPDATE, never read-modify-write, so concurrent payments on an account
+ * queue on its row lock and a payment the balance no longer covers is rejected instead of going negative
+ * balances feed every month's recommendations, so each post is published as a change to every month
+ **/
+@Service
+public class DebtPaymentService {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private static final String APPLY_SQL = """
+            UPDATE debt_accounts SET current_balance = current_balance - ?
+            WHERE tenant_id = ? AND id = ? AND is_active AND current_balance >= ?
+            """;
+
+    private static final String ADD_SQL = """
+            INSERT INTO debt_payments (tenant_id, debt_account_id, month, year, amount_paid, payment_date)
+            VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (tenant_id, debt_account_id, month, year) DO UPDATE SET
+                amount_paid = debt_payments.amount_paid + EXCLUDED.amount_paid,
+                payment_date = EXCLUDED.payment_date
+            """;
+
+    @Autowired
+    private DebtAccountRepository debtAccountRepository;
+
+    @Autowired
+    private DebtPaymentRepository debtPaymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     post one payment; empty when the account is not an active one of the tenant
+     * throws IllegalArgumentException for an invalid payment or one larger than the balance
+     **/
+    @Transactional
+    public Optional<UpsertResult<DebtPayment>> post(DebtPayment payment) {
+        if (payment.getDebtAccount() == null || payment.getDebtAccount().getId() == null) {
+            throw new IllegalArgumentException("a payment needs a debt account");
+        }
+        validate(payment.getMonth(), payment.getYear(), payment.getAmountPaid());
+
+        Long debtAccountId = payment.getDebtAccount().getId();
+        if (debtAccountRepository.applyPayment(TenantContext.currentTenantId(), debtAccountId,
+                payment.getAmountPaid().toBigDecimal()) == 0) {
+            // only a rejected payment pays for telling the two reasons apart
+            if (!debtAccountRepository.existsByIdAndIsActiveTrue(debtAccountId)) {
+                return Optional.empty();
+            }
+            throw new IllegalArgumentException("payment is larger than the balance of debt account " + debtAccountId);
+        }
+
+        UpsertResult<DebtPayment> result = debtPaymentRepository.addPayment(payment);
+        eventPublisher.publishEvent(BudgetChangedEvent.forAllMonths());
+        return Optional.of(result);
+    }
+
+    /**
+     post a month's payments for many accounts as one JDBC batch of balance updates and one of payment rows,
+     * all in one transaction: if any account is missing, inactive or short of its payment, nothing is posted
+     * throws IllegalArgumentException naming the accounts that were rejected
+     **/
+    @Transactional
+    public int postMonth(Integer month, Integer year, List<PaymentPosting> payments) {
+        if (payments.isEmpty() || payments.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("a batch holds 1 to " + MAX_BATCH_SIZE + " payments");
+        }
+        for (PaymentPosting payment : payments) {
+            if (payment.debtAccountId() == null) {
+                throw new IllegalArgumentException("every payment needs a debt account");
+            }
+            validate(month, year, payment.amountPaid());
+        }
+
+        // a fixed order, so two batches touching the same accounts lock them in the same order
+        List<PaymentPosting> ordered = payments.stream()
+                .sorted(Comparator.comparing(PaymentPosting::debtAccountId))
+                .toList();
+        long tenantId = TenantContext.currentTenantId();
+
+        List<Object[]> balanceArgs = new ArrayList<>(ordered.size());
+        List<Object[]> paymentArgs = new ArrayList<>(ordered.size());
+        for (PaymentPosting payment : ordered) {
+            balanceArgs.add(new Object[] {
+                    payment.amountPaid().toBigDecimal(), tenantId, payment.debtAccountId(), payment.amountPaid().toBigDecimal()
+            });
+            paymentArgs.add(new Object[] {
+                    tenantId, payment.debtAccountId(), month, year, payment.amountPaid().toBigDecimal()
+            });
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(APPLY_SQL, balanceArgs);
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(ordered.get(i).debtAccountId());
+            }
+        }
+        if (!rejected.isEmpty()) {
+            // the exception rolls back the balances already taken
+            throw new IllegalArgumentException("debt accounts " + rejected + " are missing, inactive or short of the payment");
+        }
+        jdbcTemplate.batchUpdate(ADD_SQL, paymentArgs);
+
+        // JDBC bypasses Hibernate, so drop the cached accounts once the new balances are visible
+        afterCommit(() -> entityManagerFactory.getCache().evict(DebtAccount.class));
+        eventPublisher.publishEvent(BudgetChangedEvent.forAllMonths());
+        return ordered.size();
+    }
+
+    private static void validate(Integer month, Integer year, Money amount) {
+        PeriodKey.requireValid(month, year);
+        if (amount == null || amount.cents() <= 0) {
+            throw new IllegalArgumentException("a payment must be positive");
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,205 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Model.Dto.DebtPayoffProjection;
+import com.briannalytical.debt_destroyer.Model.Dto.DebtPayoffProjection.AccountProjection;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ projects debt payoff month by month using the same allocation strategies as generateRecommendations
+ * runs on long cents in flat arrays; nothing is allocated inside the monthly loop
+ **/
+@Service
+public class DebtPayoffSimulator {
+
+    public static final int MAX_PROJECTION_MONTHS = 600;
+
+    @Autowired
+    private BudgetCalculationService budgetCalculationService;
+
+    /**
+     project payoff starting from a month, assuming its leftover repeats every month
+     **/
+    public DebtPayoffProjection project(Integer month, Integer year, int maxMonths) {
+        return project(month, year, maxMonths, AllocationMethod.UTILIZATION_FIRST);
+    }
+
+    public DebtPayoffProjection project(Integer month, Integer year, int maxMonths, AllocationMethod method) {
+        MonthlyBudgetSnapshot snapshot = budgetCalculationService.loadSnapshot(month, year);
+        Money leftover = budgetCalculationService.calculateLeftoverFunds(snapshot);
+        List<DebtAccount> debts = snapshot.activeDebts();
+        int n = debts.size();
+
+        Simulation simulation = new Simulation(DebtColumns.of(debts), AllocationStrategies.of(method), maxMonths, true);
+        simulation.run(leftover.cents());
+
+        List<AccountProjection> accounts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            DebtAccount debt = debts.get(i);
+            List<Money> trajectory = new ArrayList<>(simulation.monthsSimulated);
+            for (int t = 0; t < simulation.monthsSimulated; t++) {
+                trajectory.add(Money.ofCents(simulation.trajectory[t * n + i]));
+            }
+            accounts.add(new AccountProjection(
+                    debt.getId(),
+                    debt.getName(),
+                    debt.getCurrentBalance(),
+                    Money.ofCents(simulation.firstMonthPayments[i]),
+                    simulation.monthsToZero[i] < 0 ? null : simulation.monthsToZero[i],
+                    Money.ofCents(simulation.totalPaid[i]),
+                    trajectory
+            ));
+        }
+
+        return new DebtPayoffProjection(
+                month,
+                year,
+                leftover,
+                simulation.monthsSimulated,
+                simulation.allPaidOff(),
+                accounts
+        );
+    }
+
+    /**
+     state for one projection, every array sized once up front
+     **/
+    static final class Simulation {
+        final int accountCount;
+        final int maxMonths;
+        final DebtColumns debts;
+        final AllocationStrategy strategy;
+        final long[] balances;
+        final long[] keys;
+        final int[] order;
+        final int[] rankBuffer;
+        final long[] payments;
+        final long[] firstMonthPayments;
+        final long[] totalPaid;
+        final int[] monthsToZero;
+        final long[] trajectory;   // [month * accountCount + account]
+        int monthsSimulated;
+
+        /**
+         debts must be this simulation's own copy, its balances are paid down in place
+         * without a trajectory only the totals and payoff months are kept, for callers running many simulations
+         **/
+        Simulation(DebtColumns debts, AllocationStrategy strategy, int maxMonths, boolean recordTrajectory) {
+            this.accountCount = debts.size();
+            this.maxMonths = maxMonths;
+            this.debts = debts;
+            this.strategy = strategy;
+            this.balances = debts.balances();
+            this.keys = new long[accountCount];
+            this.order = new int[accountCount];
+            this.rankBuffer = new int[accountCount];
+            this.payments = new long[accountCount];
+            this.firstMonthPayments = new long[accountCount];
+            this.totalPaid = new long[accountCount];
+            this.monthsToZero = new int[accountCount];
+            this.trajectory = new long[recordTrajectory ? maxMonths * accountCount : 0];
+
+            for (int i = 0; i < accountCount; i++) {
+                monthsToZero[i] = balances[i] == 0 ? 0 : -1;
+            }
+        }
+
+        void run(long monthlyBudget) {
+            // generateRecommendations makes no recommendation without leftover funds
+            if (monthlyBudget <= 0 || accountCount == 0) {
+                return;
+            }
+
+            // the first month always runs so it can be compared with generateRecommendations
+            while (monthsSimulated < maxMonths && (monthsSimulated == 0 || !allPaidOff())) {
+                step(monthlyBudget);
+            }
+        }
+
+        /**
+         simulate one month with its own budget; without leftover funds nothing is recommended or paid
+         **/
+        void step(long monthlyBudget) {
+            if (monthlyBudget <= 0) {
+                Arrays.fill(payments, 0);
+            } else {
+                allocate(monthlyBudget);
+            }
+            if (monthsSimulated == 0) {
+                System.arraycopy(payments, 0, firstMonthPayments, 0, accountCount);
+            }
+            applyPayments();
+            monthsSimulated++;
+        }
+
+        /**
+         minimums still owed, a paid-off account owes nothing and one nearly paid off only its balance
+         **/
+        long minimumsDue() {
+            return debts.totalMinimumsDue();
+        }
+
+        /**
+         same rules as generateRecommendations, in cents
+         **/
+        void allocate(long monthlyBudget) {
+            long minimumsDue = minimumsDue();
+            // if minimums cannot be met, just pay minimums
+            if (monthlyBudget < minimumsDue) {
+                for (int i = 0; i < accountCount; i++) {
+                    payments[i] = debts.minimumDue(i);
+                }
+                return;
+            }
+
+            long extraFunds = monthlyBudget - minimumsDue;
+
+            debts.refreshUtilization();
+            strategy.sortKeys(debts, keys);
+            DebtColumns.rankDescending(keys, order, rankBuffer);
+
+            for (int rank = 0; rank < accountCount; rank++) {
+                int i = order[rank];
+                long payment = debts.minimumDue(i);
+                if (extraFunds > 0) {
+                    long extraAllocation = Math.min(extraFunds, balances[i] - payment);
+                    payment += extraAllocation;
+                    extraFunds -= extraAllocation;
+                }
+                payments[i] = payment;
+            }
+        }
+
+        private void applyPayments() {
+            int offset = monthsSimulated * accountCount;
+            for (int i = 0; i < accountCount; i++) {
+                long applied = Math.min(Math.max(payments[i], 0), balances[i]);
+                balances[i] -= applied;
+                totalPaid[i] += applied;
+                if (balances[i] == 0 && monthsToZero[i] < 0) {
+                    monthsToZero[i] = monthsSimulated + 1;
+                }
+                if (trajectory.length > 0) {
+                    trajectory[offset + i] = balances[i];
+                }
+            }
+        }
+
+        boolean allPaidOff() {
+            for (int i = 0; i < accountCount; i++) {
+                if (balances[i] > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
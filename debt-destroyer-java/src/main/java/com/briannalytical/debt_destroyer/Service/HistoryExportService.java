@@ -0,0 +1,248 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Enum.DataFormat;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ streams payment and variable expense history straight from a forward-only cursor
+ * rows are written as they are fetched, so memory use does not grow with the history
+ **/
+@Service
+public class HistoryExportService {
+
+    private static final String DEBT_PAYMENTS_SQL = """
+            SELECT p.id AS "id", p.debt_account_id AS "debtAccountId", d.name AS "debtAccountName",
+                   p.month AS "month", p.year AS "year", p.amount_paid AS "amountPaid",
+                   p.payment_date AS "paymentDate"
+            FROM debt_payments p
+            JOIN debt_accounts d ON d.id = p.debt_account_id
+            WHERE p.tenant_id = ?
+            """;
+
+    private static final String VARIABLE_AMOUNTS_SQL = """
+            SELECT v.id AS "id", v.expense_id AS "expenseId", e.name AS "expenseName",
+                   v.month AS "month", v.year AS "year", v.amount AS "amount",
+                   v.notes AS "notes", v.created_at AS "createdAt"
+            FROM variable_expense_amounts v
+            JOIN expenses e ON e.id = v.expense_id
+            WHERE v.tenant_id = ?
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${debt-destroyer.export.fetch-size:500}")
+    private int fetchSize;
+
+    /**
+     the current tenant's payments, or only those for one debt account, oldest first
+     * from and to are inclusive and either may be null for an open end
+     **/
+    public void exportDebtPayments(Long debtAccountId, YearMonth from, YearMonth to,
+                                   DataFormat format, OutputStream out) {
+        List<Object> params = new ArrayList<>();
+        String sql = DEBT_PAYMENTS_SQL
+                + filter("p.debt_account_id = ?", debtAccountId, params)
+                + periodFilter("p", from, to, params)
+                + "ORDER BY p.year, p.month, p.id";
+        export(sql, params, format, out);
+    }
+
+    /**
+     the current tenant's variable amounts, or only those for one expense, oldest first
+     * from and to are inclusive and either may be null for an open end
+     **/
+    public void exportVariableAmounts(Long expenseId, YearMonth from, YearMonth to,
+                                      DataFormat format, OutputStream out) {
+        List<Object> params = new ArrayList<>();
+        String sql = VARIABLE_AMOUNTS_SQL
+                + filter("v.expense_id = ?", expenseId, params)
+                + periodFilter("v", from, to, params)
+                + "ORDER BY v.year, v.month, v.id";
+        export(sql, params, format, out);
+    }
+
+    private static String filter(String condition, Object value, List<Object> params) {
+        if (value == null) {
+            return "";
+        }
+        params.add(value);
+        return "AND " + condition + "\n";
+    }
+
+    /**
+     bounds on the year as well as the period, so Postgres only scans the partitions the range covers
+     **/
+    private static String periodFilter(String alias, YearMonth from, YearMonth to, List<Object> params) {
+        String sql = "";
+        if (from != null) {
+            params.add(from.getYear());
+            params.add(PeriodKey.of(from));
+            sql += "AND " + alias + ".year >= ? AND " + alias + ".period >= ?\n";
+        }
+        if (to != null) {
+            params.add(to.getYear());
+            params.add(PeriodKey.of(to));
+            sql += "AND " + alias + ".year <= ? AND " + alias + ".period <= ?\n";
+        }
+        return sql;
+    }
+
+    /**
+     the Postgres driver only honours fetchSize inside a transaction, so the cursor is read in a read-only one
+     **/
+    private void export(String sql, List<Object> params, DataFormat format, OutputStream out) {
+        long tenantId = TenantContext.currentTenantId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        transaction.executeWithoutResult(status -> jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    statement.setLong(1, tenantId);
+                    for (int i = 0; i < params.size(); i++) {
+                        statement.setObject(i + 2, params.get(i));
+                    }
+                    return statement;
+                },
+                (ResultSet rs) -> {
+                    try (RowWriter writer = format == DataFormat.CSV
+                            ? new CsvRowWriter(out)
+                            : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(out))) {
+                        writeRows(rs, writer);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return null;
+                }));
+    }
+
+    private void writeRows(ResultSet rs, RowWriter writer) throws SQLException, IOException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        String[] columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+        }
+        writer.writeHeader(columns);
+
+        Object[] values = new Object[columns.length];
+        while (rs.next()) {
+            for (int i = 0; i < values.length; i++) {
+                Object value = rs.getObject(i + 1);
+                values[i] = value instanceof Timestamp timestamp
+                        ? timestamp.toLocalDateTime().toString()
+                        : value;
+            }
+            writer.writeRow(values);
+        }
+    }
+
+    private interface RowWriter extends Closeable {
+
+        void writeHeader(String[] columns) throws IOException;
+
+        void writeRow(Object[] values) throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void writeHeader(String[] columns) throws IOException {
+            writeRow(columns);
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] instanceof BigDecimal amount) {
+                    writer.write(amount.toPlainString());
+                } else if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write('\n');
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private String[] columns;
+
+        NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeHeader(String[] columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns[i]);
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
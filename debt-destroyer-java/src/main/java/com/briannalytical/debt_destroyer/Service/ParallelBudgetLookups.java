@@ -0,0 +1,114 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.StatementCounter;
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyIncome;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Repository.DebtAccountRepository;
+import com.briannalytical.debt_destroyer.Repository.MonthlyBudgetSnapshotRepository;
+import com.briannalytical.debt_destroyer.Repository.MonthlyIncomeRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ loads a month's snapshot from five independent lookups issued at the same time on virtual threads
+ * used instead of the rollup snapshot query when debt-destroyer.budget.parallel-lookups.enabled is true
+ * each lookup borrows its own pooled connection, so size the pool for five per concurrent request
+ * the caller's tenant and statement count are carried onto each lookup thread
+ **/
+@Service
+public class ParallelBudgetLookups {
+
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("budget-lookup-", 0).factory());
+
+    @Autowired
+    private MonthlyBudgetSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private MonthlyIncomeRepository incomeRepository;
+
+    @Autowired
+    private DebtAccountRepository debtAccountRepository;
+
+    @Autowired
+    private BudgetCache budgetCache;
+
+    @Value("${debt-destroyer.budget.parallel-lookups.timeout:PT2S}")
+    private Duration timeout;
+
+    /**
+     run every lookup concurrently and wait for all of them, up to the configured timeout
+     * the first failure or the timeout cancels whatever is still running, so no lookup outlives the call
+     **/
+    public MonthlyBudgetSnapshot loadSnapshot(Integer month, Integer year) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        ExecutorCompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+
+        Future<Object> fixed = completion.submit(lookup(
+                () -> budgetCache.fixedExpenses(snapshotRepository::sumFixedExpenses)));
+        Future<Object> variable = completion.submit(lookup(
+                () -> budgetCache.variableExpenses(month, year,
+                        () -> snapshotRepository.sumVariableExpenses(month, year))));
+        Future<Object> sinkingFund = completion.submit(lookup(
+                () -> budgetCache.monthlySinkingFund(snapshotRepository::sumMonthlySinkingFund)));
+        Future<Object> income = completion.submit(lookup(
+                () -> incomeRepository.findByMonthAndYear(month, year).map(MonthlyIncome::getAmount)));
+        Future<Object> debts = completion.submit(lookup(
+                () -> debtAccountRepository.findByIsActiveTrueOrderByIdAsc()));
+        List<Future<Object>> lookups = List.of(fixed, variable, sinkingFund, income, debts);
+
+        try {
+            for (int remaining = lookups.size(); remaining > 0; remaining--) {
+                Future<Object> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new IllegalStateException("budget lookups for " + month + "/" + year
+                            + " did not finish within " + timeout);
+                }
+                done.get(); // surfaces the first failure immediately
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while loading budget lookups", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException(e.getCause());
+        } finally {
+            lookups.forEach(lookup -> lookup.cancel(true));
+        }
+
+        @SuppressWarnings("unchecked")
+        Optional<Money> incomeAmount = (Optional<Money>) income.resultNow();
+        @SuppressWarnings("unchecked")
+        List<DebtAccount> activeDebts = (List<DebtAccount>) debts.resultNow();
+
+        return new MonthlyBudgetSnapshot(
+                month,
+                year,
+                incomeAmount.orElse(null),
+                (Money) fixed.resultNow(),
+                (Money) variable.resultNow(),
+                (Money) sinkingFund.resultNow(),
+                activeDebts
+        );
+    }
+
+    private static Callable<Object> lookup(Callable<Object> task) {
+        return StatementCounter.wrap(TenantContext.wrap(task));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
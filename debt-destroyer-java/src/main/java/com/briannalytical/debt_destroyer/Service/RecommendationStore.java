@@ -0,0 +1,171 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Dto.StoredRecommendations;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Event.BudgetChangedEvent;
+import com.briannalytical.debt_destroyer.Model.Event.RecommendationsRecomputedEvent;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService.DebtRecommendation;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ debt recommendations precomputed per tenant and month, for every strategy from one snapshot
+ * a month is computed on its first read; after that BudgetChangedEvents recompute it in the background,
+ * and reads keep serving the previous result, tagged with when it was computed, until the new one is stored
+ * events for a month coalesce: the first one schedules a recomputation after the debounce delay and the rest
+ * of the burst rides along, so a burst costs one snapshot load however many writes it had
+ * only months already stored (or being computed) are recomputed; idle months are dropped past the size bound
+ * each stored recomputation is published as a RecommendationsRecomputedEvent, on the worker thread
+ **/
+@Service
+public class RecommendationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationStore.class);
+
+    record Key(long tenantId, int month, int year) {
+    }
+
+    // sequence orders computations by when they started reading, so a slow older one cannot replace a newer one
+    record Entry(long sequence, Instant computedAt, MonthlyBudgetSnapshot snapshot,
+                 Map<AllocationMethod, List<DebtRecommendation>> rankings) {
+    }
+
+    @Autowired
+    private BudgetCalculationService budgetCalculationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Duration debounce;
+    private final Clock clock;
+    private final Cache<Key, Entry> entries;
+    // computations in progress per key; a change committed while one runs may not be in what it read
+    private final Map<Key, Integer> computing = new ConcurrentHashMap<>();
+    private final Set<Key> scheduled = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("recommendations").daemon().factory());
+
+    @Autowired
+    public RecommendationStore(@Value("${debt-destroyer.recommendations.debounce:PT0.5S}") Duration debounce,
+                               @Value("${debt-destroyer.recommendations.maximum-size:10000}") long maximumSize) {
+        this(debounce, maximumSize, Clock.systemUTC());
+    }
+
+    RecommendationStore(Duration debounce, long maximumSize, Clock clock) {
+        this.debounce = debounce;
+        this.clock = clock;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     the stored recommendations for a month of the current tenant, computed on the caller's thread if missing
+     * throws IllegalArgumentException for a month outside 1-12 or a year before 2024
+     **/
+    public StoredRecommendations get(Integer month, Integer year, AllocationMethod method) {
+        Key key = new Key(TenantContext.currentTenantId(), month, year);
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            entry = compute(key);
+        }
+        return new StoredRecommendations(month, year, method, entry.computedAt(), entry.rankings().get(method));
+    }
+
+    /**
+     runs after the writing transaction commits, so the recomputation reads the change
+     **/
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        for (Key key : affectedKeys(event)) {
+            if (scheduled.add(key)) {
+                worker.schedule(() -> recompute(key), debounce.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private Set<Key> affectedKeys(BudgetChangedEvent event) {
+        if (!event.affectsAllMonths()) {
+            Key key = new Key(event.tenantId(), event.month(), event.year());
+            return entries.asMap().containsKey(key) || computing.containsKey(key) ? Set.of(key) : Set.of();
+        }
+        Set<Key> keys = new LinkedHashSet<>();
+        Stream.concat(entries.asMap().keySet().stream(), computing.keySet().stream())
+                .filter(key -> key.tenantId() == event.tenantId())
+                .forEach(keys::add);
+        return keys;
+    }
+
+    private void recompute(Key key) {
+        // events from here on schedule another run, since this one may read before they commit
+        scheduled.remove(key);
+        try {
+            TenantContext.runAs(key.tenantId(), () -> {
+                Entry previous = entries.getIfPresent(key);
+                Entry stored = compute(key);
+                if (stored != previous) {
+                    eventPublisher.publishEvent(new RecommendationsRecomputedEvent(key.tenantId(), stored.snapshot(),
+                            stored.computedAt(), previous == null ? Map.of() : previous.rankings(), stored.rankings()));
+                }
+            });
+        } catch (RuntimeException e) {
+            // the previous result keeps being served; the next change to the month retries
+            log.warn("recomputing recommendations for tenant {} {}/{} failed",
+                    key.tenantId(), key.month(), key.year(), e);
+        }
+    }
+
+    private Entry compute(Key key) {
+        // registered before reading, and the entry is stored before unregistering, so an event committed
+        // meanwhile always finds the key in one place or the other
+        computing.merge(key, 1, Integer::sum);
+        try {
+            long started = sequence.incrementAndGet();
+            Instant computedAt = clock.instant();
+            MonthlyBudgetSnapshot snapshot = budgetCalculationService.loadSnapshot(key.month(), key.year());
+            Map<AllocationMethod, List<DebtRecommendation>> rankings = new EnumMap<>(AllocationMethod.class);
+            for (AllocationMethod method : AllocationMethod.values()) {
+                rankings.put(method, List.copyOf(budgetCalculationService.generateRecommendations(snapshot, method)));
+            }
+            return entries.asMap().merge(key, new Entry(started, computedAt, snapshot, rankings),
+                    (stored, computed) -> computed.sequence() > stored.sequence() ? computed : stored);
+        } finally {
+            computing.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Dto.ScenarioEvaluation;
+import com.briannalytical.debt_destroyer.Model.Dto.ScenarioEvaluation.ScenarioOutcome;
+import com.briannalytical.debt_destroyer.Model.Dto.ScenarioRequest;
+import com.briannalytical.debt_destroyer.Model.Dto.ScenarioRequest.Scenario;
+import com.briannalytical.debt_destroyer.Model.Dto.ScenarioRequest.Shock;
+import com.briannalytical.debt_destroyer.Model.Dto.VariableExpenseAmountView;
+import com.briannalytical.debt_destroyer.Model.Entity.Expense;
+import com.briannalytical.debt_destroyer.Model.Enum.ExpenseType;
+import com.briannalytical.debt_destroyer.Model.Enum.ShockTarget;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Repository.ExpenseRepository;
+import com.briannalytical.debt_destroyer.Repository.VariableExpenseAmountRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ runs batches of sampled income and expense shocks through the leftover rule and an allocation strategy
+ * the month's snapshot is loaded once and shared read-only; every sample only copies the debt balances
+ * samples are split across a fork-join pool and each draws from its own seeded generator,
+ * so a given seed gives the same distributions however the work is split
+ **/
+@Service
+public class ScenarioEvaluator {
+
+    public static final int DEFAULT_MAX_MONTHS = 360;
+    public static final int MAX_SCENARIOS = 100;
+    public static final int MAX_SAMPLES_PER_SCENARIO = 10_000;
+    public static final int MAX_TOTAL_SAMPLES = 20_000;
+
+    // below this many samples a task runs them itself instead of splitting further
+    static final int SAMPLES_PER_TASK = 64;
+
+    private static final int MIN_CHANGE_BASIS_POINTS = -10_000;   // -100%
+    private static final int MAX_CHANGE_BASIS_POINTS = 100_000;   // +1000%
+
+    @Autowired
+    private BudgetCalculationService budgetCalculationService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private VariableExpenseAmountRepository variableExpenseAmountRepository;
+
+    private final ForkJoinPool pool;
+
+    public ScenarioEvaluator(@Value("${debt-destroyer.scenarios.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     evaluate every scenario starting from a month's budget
+     * throws IllegalArgumentException for an invalid batch or an unknown expense
+     **/
+    public ScenarioEvaluation evaluate(Integer month, Integer year, ScenarioRequest request) {
+        int maxMonths = request.maxMonths() == null ? DEFAULT_MAX_MONTHS : request.maxMonths();
+        if (maxMonths < 1 || maxMonths > DebtPayoffSimulator.MAX_PROJECTION_MONTHS) {
+            throw new IllegalArgumentException("maxMonths must be between 1 and "
+                    + DebtPayoffSimulator.MAX_PROJECTION_MONTHS);
+        }
+        List<Scenario> scenarios = request.scenarios() == null ? List.of() : request.scenarios();
+        if (scenarios.isEmpty() || scenarios.size() > MAX_SCENARIOS) {
+            throw new IllegalArgumentException("between 1 and " + MAX_SCENARIOS + " scenarios are required");
+        }
+
+        MonthlyBudgetSnapshot snapshot = budgetCalculationService.loadSnapshot(month, year);
+        Map<Long, Long> expenseAmounts = loadExpenseAmounts(scenarios, month, year);
+
+        List<CompiledScenario> compiled = new ArrayList<>(scenarios.size());
+        int totalSamples = 0;
+        for (Scenario scenario : scenarios) {
+            CompiledScenario next = compile(scenario, expenseAmounts);
+            totalSamples += next.samples();
+            compiled.add(next);
+        }
+        if (totalSamples > MAX_TOTAL_SAMPLES) {
+            throw new IllegalArgumentException("at most " + MAX_TOTAL_SAMPLES + " samples per batch");
+        }
+
+        long seed = request.seed() == null ? ThreadLocalRandom.current().nextLong() : request.seed();
+        AllocationStrategy strategy = AllocationStrategies.of(request.strategy());
+        List<ScenarioOutcome> outcomes = run(Base.of(snapshot), compiled, strategy, maxMonths, seed);
+
+        return new ScenarioEvaluation(
+                month,
+                year,
+                budgetCalculationService.calculateLeftoverFunds(snapshot),
+                maxMonths,
+                seed,
+                outcomes
+        );
+    }
+
+    List<ScenarioOutcome> run(Base base, List<CompiledScenario> scenarios, AllocationStrategy strategy,
+                              int maxMonths, long seed) {
+        List<SampleRange> roots = new ArrayList<>(scenarios.size());
+        for (int s = 0; s < scenarios.size(); s++) {
+            CompiledScenario scenario = scenarios.get(s);
+            roots.add(new SampleRange(base, scenario, new Results(scenario.samples()), strategy, maxMonths, seed,
+                    s, 0, scenario.samples()));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(roots)));
+
+        List<ScenarioOutcome> outcomes = new ArrayList<>(roots.size());
+        for (SampleRange root : roots) {
+            outcomes.add(root.results.summarize(root.scenario.name()));
+        }
+        return outcomes;
+    }
+
+    /**
+     base amounts for the expenses named by EXPENSE shocks, in cents
+     * fixed expenses use fixedAmount, variable ones what was recorded for the month
+     **/
+    private Map<Long, Long> loadExpenseAmounts(List<Scenario> scenarios, Integer month, Integer year) {
+        Set<Long> expenseIds = new HashSet<>();
+        for (Scenario scenario : scenarios) {
+            if (scenario.shocks() == null) {
+                continue;
+            }
+            for (Shock shock : scenario.shocks()) {
+                if (shock.target() == ShockTarget.EXPENSE && shock.expenseId() != null) {
+                    expenseIds.add(shock.expenseId());
+                }
+            }
+        }
+        if (expenseIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Long> amounts = new HashMap<>();
+        boolean anyVariable = false;
+        for (Expense expense : expenseRepository.findAllById(expenseIds)) {
+            if (!Boolean.TRUE.equals(expense.getIsActive())) {
+                continue;
+            }
+            if (expense.getExpenseType() == ExpenseType.FIXED) {
+                amounts.put(expense.getId(), expense.getFixedAmount() == null ? 0 : expense.getFixedAmount().cents());
+            } else {
+                amounts.put(expense.getId(), 0L);
+                anyVariable = true;
+            }
+        }
+
+        if (anyVariable) {
+            for (VariableExpenseAmountView amount : variableExpenseAmountRepository.findViewsByMonthAndYear(month, year)) {
+                amounts.computeIfPresent(amount.expenseId(), (id, cents) -> cents + amount.amount().cents());
+            }
+        }
+        return amounts;
+    }
+
+    static CompiledScenario compile(Scenario scenario, Map<Long, Long> expenseAmounts) {
+        int samples = scenario.samples() == null ? 1 : scenario.samples();
+        if (samples < 1 || samples > MAX_SAMPLES_PER_SCENARIO) {
+            throw new IllegalArgumentException("samples must be between 1 and " + MAX_SAMPLES_PER_SCENARIO);
+        }
+
+        List<Shock> shocks = scenario.shocks() == null ? List.of() : scenario.shocks();
+        CompiledShock[] compiled = new CompiledShock[shocks.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            Shock shock = shocks.get(i);
+            if (shock.target() == null || shock.minChangePercent() == null) {
+                throw new IllegalArgumentException("every shock needs a target and minChangePercent");
+            }
+
+            long expenseCents = 0;
+            if (shock.target() == ShockTarget.EXPENSE) {
+                Long amount = expenseAmounts.get(shock.expenseId());
+                if (amount == null) {
+                    throw new IllegalArgumentException("no active expense " + shock.expenseId());
+                }
+                expenseCents = amount;
+            }
+
+            int minBasisPoints = toBasisPoints(shock.minChangePercent());
+            int maxBasisPoints = shock.maxChangePercent() == null
+                    ? minBasisPoints : toBasisPoints(shock.maxChangePercent());
+            if (maxBasisPoints < minBasisPoints) {
+                throw new IllegalArgumentException("maxChangePercent must not be below minChangePercent");
+            }
+
+            int startMonth = shock.startMonth() == null ? 0 : shock.startMonth();
+            int durationMonths = shock.durationMonths() == null
+                    ? DebtPayoffSimulator.MAX_PROJECTION_MONTHS : shock.durationMonths();
+            // both are capped at the projection length, so their sum cannot overflow
+            if (startMonth < 0 || startMonth > DebtPayoffSimulator.MAX_PROJECTION_MONTHS
+                    || durationMonths < 1 || durationMonths > DebtPayoffSimulator.MAX_PROJECTION_MONTHS) {
+                throw new IllegalArgumentException("startMonth must be between 0 and "
+                        + DebtPayoffSimulator.MAX_PROJECTION_MONTHS + " and durationMonths between 1 and "
+                        + DebtPayoffSimulator.MAX_PROJECTION_MONTHS);
+            }
+
+            compiled[i] = new CompiledShock(shock.target(), expenseCents, minBasisPoints, maxBasisPoints,
+                    startMonth, startMonth + durationMonths);
+        }
+
+        String name = scenario.name() == null ? "scenario" : scenario.name();
+        return new CompiledScenario(name, samples, compiled);
+    }
+
+    private static int toBasisPoints(BigDecimal percent) {
+        BigDecimal basisPoints = percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP);
+        if (basisPoints.compareTo(BigDecimal.valueOf(MIN_CHANGE_BASIS_POINTS)) < 0
+                || basisPoints.compareTo(BigDecimal.valueOf(MAX_CHANGE_BASIS_POINTS)) > 0) {
+            throw new IllegalArgumentException("change percent must be between -100 and 1000");
+        }
+        return basisPoints.intValue();
+    }
+
+    /**
+     the month's totals and debts in cents, shared read-only by every worker
+     **/
+    record Base(boolean hasIncome, long income, long fixed, long variable, long sinkingFund, DebtColumns debts) {
+
+        static Base of(MonthlyBudgetSnapshot snapshot) {
+            return new Base(
+                    snapshot.hasIncome(),
+                    snapshot.hasIncome() ? snapshot.income().cents() : 0,
+                    snapshot.fixedTotal().cents(),
+                    snapshot.variableTotal().cents(),
+                    snapshot.sinkingFundTotal().cents(),
+                    DebtColumns.of(snapshot.activeDebts())
+            );
+        }
+    }
+
+    record CompiledShock(ShockTarget target, long expenseCents, int minBasisPoints, int maxBasisPoints,
+                         int firstMonth, int endMonth) {
+
+        boolean activeIn(int month) {
+            return month >= firstMonth && month < endMonth;
+        }
+    }
+
+    record CompiledScenario(String name, int samples, CompiledShock[] shocks) {
+    }
+
+    /**
+     leftover for one simulated month with the sampled changes applied, same rule as calculateLeftoverFunds
+     **/
+    static long leftover(Base base, CompiledShock[] shocks, int[] changeBasisPoints, int month) {
+        if (!base.hasIncome()) {
+            return 0;
+        }
+
+        long income = base.income();
+        long fixed = base.fixed();
+        long variable = base.variable();
+        long sinkingFund = base.sinkingFund();
+        long expenseChanges = 0;
+        for (int i = 0; i < shocks.length; i++) {
+            CompiledShock shock = shocks[i];
+            if (!shock.activeIn(month)) {
+                continue;
+            }
+            int change = changeBasisPoints[i];
+            switch (shock.target()) {
+                case INCOME -> income = applyChange(income, change);
+                case FIXED_EXPENSES -> fixed = applyChange(fixed, change);
+                case VARIABLE_EXPENSES -> variable = applyChange(variable, change);
+                case SINKING_FUND -> sinkingFund = applyChange(sinkingFund, change);
+                case EXPENSE -> expenseChanges += applyChange(shock.expenseCents(), change) - shock.expenseCents();
+            }
+        }
+
+        return Math.max(income - (fixed + variable + sinkingFund + expenseChanges), 0);
+    }
+
+    private static long applyChange(long cents, int changeBasisPoints) {
+        return Money.divideHalfUp(cents * (10_000 + changeBasisPoints), 10_000);
+    }
+
+    /**
+     per-sample outcomes for one scenario; each task writes only its own index range
+     **/
+    static final class Results {
+        final int[] payoffMonths;       // -1 when not paid off within maxMonths
+        final boolean[] missedMinimums;
+
+        Results(int samples) {
+            this.payoffMonths = new int[samples];
+            this.missedMinimums = new boolean[samples];
+        }
+
+        ScenarioOutcome summarize(String name) {
+            int samples = payoffMonths.length;
+            int missed = 0;
+            int paidOff = 0;
+            int[] sorted = new int[samples];
+            for (int i = 0; i < samples; i++) {
+                if (missedMinimums[i]) {
+                    missed++;
+                }
+                if (payoffMonths[i] >= 0) {
+                    paidOff++;
+                }
+                sorted[i] = payoffMonths[i] < 0 ? Integer.MAX_VALUE : payoffMonths[i];
+            }
+            Arrays.sort(sorted);
+
+            return new ScenarioOutcome(
+                    name,
+                    samples,
+                    probability(missed, samples),
+                    probability(paidOff, samples),
+                    percentile(sorted, 10),
+                    percentile(sorted, 50),
+                    percentile(sorted, 90)
+            );
+        }
+
+        private static BigDecimal probability(int count, int samples) {
+            return BigDecimal.valueOf(Money.divideHalfUp(count * 10_000L, samples), 4);
+        }
+
+        /**
+         nearest-rank percentile, null when it falls on a sample that never paid off
+         **/
+        private static Integer percentile(int[] sorted, int percent) {
+            int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+            int value = sorted[Math.max(rank, 1) - 1];
+            return value == Integer.MAX_VALUE ? null : value;
+        }
+    }
+
+    /**
+     a slice of one scenario's samples, split in half until it is small enough to run directly
+     **/
+    static final class SampleRange extends RecursiveAction {
+        final Base base;
+        final CompiledScenario scenario;
+        final Results results;
+        final AllocationStrategy strategy;
+        final int maxMonths;
+        final long seed;
+        final int scenarioIndex;
+        final int from;
+        final int to;
+
+        SampleRange(Base base, CompiledScenario scenario, Results results, AllocationStrategy strategy,
+                    int maxMonths, long seed, int scenarioIndex, int from, int to) {
+            this.base = base;
+            this.scenario = scenario;
+            this.results = results;
+            this.strategy = strategy;
+            this.maxMonths = maxMonths;
+            this.seed = seed;
+            this.scenarioIndex = scenarioIndex;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SAMPLES_PER_TASK) {
+                int[] changes = new int[scenario.shocks().length];
+                for (int sample = from; sample < to; sample++) {
+                    runSample(sample, changes);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new SampleRange(base, scenario, results, strategy, maxMonths, seed, scenarioIndex, from, middle),
+                    new SampleRange(base, scenario, results, strategy, maxMonths, seed, scenarioIndex, middle, to));
+        }
+
+        private void runSample(int sample, int[] changes) {
+            SplittableRandom random = new SplittableRandom(
+                    seed + 0x9E3779B97F4A7C15L * (((long) scenarioIndex << 32) | sample));
+            CompiledShock[] shocks = scenario.shocks();
+            for (int i = 0; i < shocks.length; i++) {
+                CompiledShock shock = shocks[i];
+                changes[i] = shock.minBasisPoints() == shock.maxBasisPoints()
+                        ? shock.minBasisPoints()
+                        : random.nextInt(shock.minBasisPoints(), shock.maxBasisPoints() + 1);
+            }
+
+            DebtPayoffSimulator.Simulation simulation = new DebtPayoffSimulator.Simulation(
+                    base.debts().withOwnBalances(), strategy, maxMonths, false);
+            boolean missed = false;
+            while (simulation.monthsSimulated < maxMonths && !simulation.allPaidOff()) {
+                long monthlyBudget = leftover(base, shocks, changes, simulation.monthsSimulated);
+                if (monthlyBudget < simulation.minimumsDue()) {
+                    missed = true;
+                }
+                simulation.step(monthlyBudget);
+            }
+
+            results.payoffMonths[sample] = simulation.allPaidOff() ? simulation.monthsSimulated : -1;
+            results.missedMinimums[sample] = missed;
+        }
+    }
+}
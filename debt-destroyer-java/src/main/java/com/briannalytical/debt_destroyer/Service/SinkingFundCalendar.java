@@ -0,0 +1,376 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.SinkingFundMonth;
+import com.briannalytical.debt_destroyer.Model.Dto.SinkingFundMonth.DueBill;
+import com.briannalytical.debt_destroyer.Model.Entity.IrregularExpense;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Repository.IrregularExpenseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ accrual calendar for irregular expenses, expanded from nextDueDate over a horizon starting this month
+ * each occurrence is saved for in equal cent shares over the months leading up to and including its due month,
+ * at most one period's worth of months, so the shares add up to exactly the bill by the time it lands
+ * built once in O(expenses x horizon); per-month lookups are array reads and one changed expense costs O(horizon)
+ * one index per tenant, built on that tenant's first read; idle tenants are dropped past the size bound
+ **/
+@Service
+public class SinkingFundCalendar {
+
+    public static final int MAX_HORIZON_MONTHS = 120;
+
+    private static final Comparator<DueBill> BY_DUE_DATE =
+            Comparator.comparing(DueBill::dueDate).thenComparing(DueBill::irregularExpenseId);
+
+    @Autowired
+    private IrregularExpenseRepository irregularExpenseRepository;
+
+    private final int horizonMonths;
+    private final Clock clock;
+    private final Cache<Long, Index> indexes;
+    // sequence number of each tenant's latest change, so an index read from the database before it is not installed
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final Cache<Long, Long> lastChanges;
+
+    @Autowired
+    public SinkingFundCalendar(@Value("${debt-destroyer.sinking-fund.horizon-months:24}") int horizonMonths,
+                               @Value("${debt-destroyer.sinking-fund.maximum-tenants:10000}") long maximumTenants) {
+        this(horizonMonths, maximumTenants, Clock.systemDefaultZone());
+    }
+
+    SinkingFundCalendar(int horizonMonths, long maximumTenants, Clock clock) {
+        if (horizonMonths < 1 || horizonMonths > MAX_HORIZON_MONTHS) {
+            throw new IllegalArgumentException("horizon must be between 1 and " + MAX_HORIZON_MONTHS + " months");
+        }
+        this.horizonMonths = horizonMonths;
+        this.clock = clock;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maximumTenants)
+                .build();
+        this.lastChanges = Caffeine.newBuilder()
+                .maximumSize(maximumTenants)
+                .build();
+    }
+
+    public YearMonth firstMonth() {
+        return view().start();
+    }
+
+    public YearMonth lastMonth() {
+        View view = view();
+        return view.start().plusMonths(view.sinkingCents().length - 1);
+    }
+
+    /**
+     amount to set aside in a month, throws IllegalArgumentException outside the horizon
+     **/
+    public Money sinkingFund(YearMonth month) {
+        View view = view();
+        return Money.ofCents(view.sinkingCents()[view.offsetOf(month)]);
+    }
+
+    /**
+     irregular bills due in a month, throws IllegalArgumentException outside the horizon
+     **/
+    public List<DueBill> dueBills(YearMonth month) {
+        View view = view();
+        return List.of(view.dueBills()[view.offsetOf(month)]);
+    }
+
+    /**
+     every month between two months inclusive, throws IllegalArgumentException outside the horizon
+     **/
+    public List<SinkingFundMonth> months(YearMonth from, YearMonth to) {
+        View view = view();
+        int first = view.offsetOf(from);
+        int last = view.offsetOf(to);
+        if (last < first) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+
+        List<SinkingFundMonth> months = new ArrayList<>(last - first + 1);
+        for (int i = first; i <= last; i++) {
+            YearMonth month = view.start().plusMonths(i);
+            months.add(new SinkingFundMonth(
+                    month.getMonthValue(),
+                    month.getYear(),
+                    Money.ofCents(view.sinkingCents()[i]),
+                    Money.ofCents(view.dueCents()[i]),
+                    List.of(view.dueBills()[i])
+            ));
+        }
+        return months;
+    }
+
+    /**
+     an irregular expense was created, edited or reactivated; applied once the transaction commits
+     * inactive expenses are dropped from the calendar
+     **/
+    public void expenseChanged(IrregularExpense expense) {
+        long tenantId = TenantContext.currentTenantId();
+        afterCommit(() -> update(tenantId, index -> index.put(expense)));
+    }
+
+    /**
+     irregular expenses were deactivated; applied once the transaction commits
+     **/
+    public void expensesRemoved(Collection<Long> ids) {
+        long tenantId = TenantContext.currentTenantId();
+        afterCommit(() -> update(tenantId, index -> ids.forEach(index::remove)));
+    }
+
+    /**
+     the current tenant's index, rebuilt from the database on first use and whenever the month rolls over
+     * the expenses are read outside the map entry, so the round trip never holds its lock; installing the index
+     * and applying changes are serialised by the entry, and a build that read before a change is read again
+     **/
+    private View view() {
+        long tenantId = TenantContext.currentTenantId();
+        YearMonth thisMonth = YearMonth.now(clock);
+        Index current = indexes.getIfPresent(tenantId);
+        while (current == null || !current.start.equals(thisMonth)) {
+            long readAt = changeSequence.get();
+            Index built = new Index(thisMonth, horizonMonths, irregularExpenseRepository.findByIsActiveTrue());
+            current = indexes.asMap().compute(tenantId, (id, existing) -> {
+                if (existing != null && existing.start.equals(thisMonth)) {
+                    return existing;
+                }
+                Long lastChange = lastChanges.getIfPresent(id);
+                return lastChange != null && lastChange > readAt ? existing : built;
+            });
+        }
+        return current.view;
+    }
+
+    private void update(long tenantId, Consumer<Index> change) {
+        indexes.asMap().compute(tenantId, (id, current) -> {
+            lastChanges.put(id, changeSequence.incrementAndGet());
+            // without an index for this month the next read rebuilds from the database anyway
+            if (current != null && current.start.equals(YearMonth.now(clock))) {
+                change.accept(current);
+            }
+            return current;
+        });
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     months between savings targets, 0 when the expense cannot be scheduled
+     **/
+    static int periodMonths(IrregularExpense expense) {
+        if (expense.getFrequency() == null) {
+            return 0;
+        }
+        return switch (expense.getFrequency()) {
+            case ANNUAL -> 12;
+            case SEMI_ANNUAL -> 6;
+            case QUARTERLY -> 3;
+            case CUSTOM -> expense.getCustomMonths() == null ? 0 : Math.max(expense.getCustomMonths(), 0);
+        };
+    }
+
+    /**
+     per-month arrays readers see, never modified once published
+     **/
+    record View(YearMonth start, long[] sinkingCents, long[] dueCents, DueBill[][] dueBills) {
+
+        int offsetOf(YearMonth month) {
+            long offset = start.until(month, ChronoUnit.MONTHS);
+            if (offset < 0 || offset >= sinkingCents.length) {
+                throw new IllegalArgumentException(month + " is outside the calendar ("
+                        + start + " to " + start.plusMonths(sinkingCents.length - 1) + ")");
+            }
+            return (int) offset;
+        }
+    }
+
+    /**
+     one expense's contribution to the calendar, kept so a change can be subtracted again
+     **/
+    record Row(Long expenseId, long[] accrualCents, DueBill[] dueBills) {
+    }
+
+    /**
+     the calendar for one start month; changes copy the arrays and publish a new view
+     * not thread-safe for writers, SinkingFundCalendar serialises them
+     **/
+    static final class Index {
+        final YearMonth start;
+        final int horizon;
+        private final Map<Long, Row> rows = new HashMap<>();
+        volatile View view;
+
+        Index(YearMonth start, int horizon, List<IrregularExpense> expenses) {
+            this.start = start;
+            this.horizon = horizon;
+
+            long[] sinking = new long[horizon];
+            long[] due = new long[horizon];
+            List<List<DueBill>> billsByMonth = new ArrayList<>(horizon);
+            for (int i = 0; i < horizon; i++) {
+                billsByMonth.add(new ArrayList<>());
+            }
+
+            for (IrregularExpense expense : expenses) {
+                // the same rule as put, so a rebuild never counts what an incremental change would drop
+                Row row = Boolean.TRUE.equals(expense.getIsActive()) ? expand(expense) : null;
+                if (row == null) {
+                    continue;
+                }
+                rows.put(row.expenseId(), row);
+                for (int i = 0; i < horizon; i++) {
+                    sinking[i] += row.accrualCents()[i];
+                }
+                for (DueBill bill : row.dueBills()) {
+                    int month = offsetOf(bill.dueDate());
+                    due[month] += bill.amount().cents();
+                    billsByMonth.get(month).add(bill);
+                }
+            }
+
+            DueBill[][] bills = new DueBill[horizon][];
+            for (int i = 0; i < horizon; i++) {
+                bills[i] = billsByMonth.get(i).toArray(DueBill[]::new);
+                Arrays.sort(bills[i], BY_DUE_DATE);
+            }
+            this.view = new View(start, sinking, due, bills);
+        }
+
+        void put(IrregularExpense expense) {
+            Row previous = rows.remove(expense.getId());
+            Row next = Boolean.TRUE.equals(expense.getIsActive()) ? expand(expense) : null;
+            if (next != null) {
+                rows.put(next.expenseId(), next);
+            }
+            apply(previous, next);
+        }
+
+        void remove(Long expenseId) {
+            Row previous = rows.remove(expenseId);
+            if (previous != null) {
+                apply(previous, null);
+            }
+        }
+
+        private void apply(Row previous, Row next) {
+            if (previous == null && next == null) {
+                return;
+            }
+
+            View current = view;
+            long[] sinking = current.sinkingCents().clone();
+            long[] due = current.dueCents().clone();
+            DueBill[][] bills = current.dueBills().clone();
+
+            if (previous != null) {
+                for (int i = 0; i < horizon; i++) {
+                    sinking[i] -= previous.accrualCents()[i];
+                }
+                for (DueBill bill : previous.dueBills()) {
+                    int month = offsetOf(bill.dueDate());
+                    due[month] -= bill.amount().cents();
+                    bills[month] = Arrays.stream(bills[month])
+                            .filter(other -> !other.irregularExpenseId().equals(previous.expenseId()))
+                            .toArray(DueBill[]::new);
+                }
+            }
+
+            if (next != null) {
+                for (int i = 0; i < horizon; i++) {
+                    sinking[i] += next.accrualCents()[i];
+                }
+                for (DueBill bill : next.dueBills()) {
+                    int month = offsetOf(bill.dueDate());
+                    due[month] += bill.amount().cents();
+                    DueBill[] monthBills = Arrays.copyOf(bills[month], bills[month].length + 1);
+                    monthBills[monthBills.length - 1] = bill;
+                    Arrays.sort(monthBills, BY_DUE_DATE);
+                    bills[month] = monthBills;
+                }
+            }
+
+            view = new View(start, sinking, due, bills);
+        }
+
+        /**
+         expand one expense over the horizon, null when it has no usable schedule
+         * a nextDueDate already in the past is rolled forward by whole periods
+         **/
+        Row expand(IrregularExpense expense) {
+            int period = periodMonths(expense);
+            if (period == 0 || expense.getAmount() == null || expense.getNextDueDate() == null) {
+                return null;
+            }
+
+            long amount = expense.getAmount().cents();
+            long[] accrual = new long[horizon];
+            List<DueBill> dueBills = new ArrayList<>();
+
+            LocalDate firstDue = expense.getNextDueDate();
+            int firstOffset = offsetOf(firstDue);
+            int occurrence = firstOffset < 0 ? Math.ceilDiv(-firstOffset, period) : 0;
+
+            while (true) {
+                // plusMonths from the original date so a 31st does not drift after a short month
+                LocalDate dueDate = firstDue.plusMonths((long) occurrence * period);
+                int dueMonth = firstOffset + occurrence * period;
+                int savingFrom = Math.max(0, dueMonth - period + 1);
+                if (savingFrom >= horizon) {
+                    break;
+                }
+
+                // equal shares, the earliest months carry the leftover cents
+                int savingMonths = dueMonth - savingFrom + 1;
+                long share = amount / savingMonths;
+                long leftoverCents = amount % savingMonths;
+                for (int month = savingFrom; month <= Math.min(dueMonth, horizon - 1); month++) {
+                    accrual[month] += share + (month - savingFrom < leftoverCents ? 1 : 0);
+                }
+
+                if (dueMonth < horizon) {
+                    dueBills.add(new DueBill(expense.getId(), expense.getName(), dueDate, expense.getAmount()));
+                }
+                occurrence++;
+            }
+
+            return new Row(expense.getId(), accrual, dueBills.toArray(DueBill[]::new));
+        }
+
+        private int offsetOf(LocalDate date) {
+            return (int) start.until(YearMonth.from(date), ChronoUnit.MONTHS);
+        }
+    }
+}
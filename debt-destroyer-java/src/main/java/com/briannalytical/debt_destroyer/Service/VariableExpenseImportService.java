@@ -0,0 +1,263 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.ImportSummary;
+import com.briannalytical.debt_destroyer.Model.Dto.VariableAmountRow;
+import com.briannalytical.debt_destroyer.Model.Enum.DataFormat;
+import com.briannalytical.debt_destroyer.Model.Enum.ExpenseType;
+import com.briannalytical.debt_destroyer.Model.Event.BudgetChangedEvent;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Model.Type.PeriodKey;
+import com.briannalytical.debt_destroyer.Repository.ExpenseRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ streams CSV or NDJSON variable amounts into variable_expense_amounts
+ * rows are upserted on (tenant_id, expense_id, month, year) in JDBC batches, one transaction per batch
+ * only the current batch is held in memory, never the whole body
+ **/
+@Service
+public class VariableExpenseImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO variable_expense_amounts (tenant_id, expense_id, month, year, amount, notes, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (tenant_id, expense_id, month, year) DO UPDATE SET
+                amount = EXCLUDED.amount,
+                notes = EXCLUDED.notes
+            """;
+
+    private static final List<String> CSV_COLUMNS = List.of("expenseId", "month", "year", "amount", "notes");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private BudgetRollupService rollupService;
+
+    @Autowired
+    private BudgetCache budgetCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${debt-destroyer.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     import every readable row, reporting the rejected ones in the summary
+     * throws IllegalArgumentException when the CSV header lacks a required column, before anything is written
+     **/
+    public ImportSummary importVariableAmounts(InputStream body, DataFormat format) throws IOException {
+        Set<Long> variableExpenseIds = expenseRepository.findIdsByExpenseType(ExpenseType.VARIABLE);
+        Progress progress = new Progress();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(body, StandardCharsets.UTF_8))) {
+
+            long lineNumber = 0;
+            Map<String, Integer> csvColumns = null;
+            if (format == DataFormat.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                if (header == null) {
+                    return progress.summary();
+                }
+                csvColumns = parseCsvHeader(header);
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.received++;
+
+                try {
+                    VariableAmountRow row = format == DataFormat.CSV
+                            ? parseCsvRow(line, csvColumns)
+                            : objectMapper.readValue(line, VariableAmountRow.class);
+                    validate(row, variableExpenseIds);
+                    batch.add(new PendingRow(lineNumber, row));
+                } catch (IllegalArgumentException | JsonProcessingException e) {
+                    progress.reject(lineNumber, e.getMessage());
+                    continue;
+                }
+
+                if (batch.size() >= batchSize) {
+                    flush(batch, progress);
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush(batch, progress);
+        }
+        return progress.summary();
+    }
+
+    /**
+     upsert one batch and refresh the rollup rows for the months it touched, all in one transaction
+     **/
+    private void flush(List<PendingRow> batch, Progress progress) {
+        long tenantId = TenantContext.currentTenantId();
+        List<Object[]> args = new ArrayList<>(batch.size());
+        Set<List<Integer>> months = new LinkedHashSet<>();
+        for (PendingRow pending : batch) {
+            VariableAmountRow row = pending.row();
+            args.add(new Object[] {
+                    tenantId, row.expenseId(), row.month(), row.year(), row.amount().toBigDecimal(), row.notes()
+            });
+            months.add(List.of(row.month(), row.year()));
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+                for (List<Integer> month : months) {
+                    rollupService.refreshMonth(month.get(0), month.get(1));
+                    budgetCache.evictVariableExpenses(month.get(0), month.get(1));
+                    eventPublisher.publishEvent(BudgetChangedEvent.forMonth(month.get(0), month.get(1)));
+                }
+            });
+            progress.upserted += batch.size();
+        } catch (DataAccessException e) {
+            String message = "batch rolled back: " + e.getMostSpecificCause().getMessage();
+            for (PendingRow pending : batch) {
+                progress.reject(pending.line(), message);
+            }
+        }
+    }
+
+    private void validate(VariableAmountRow row, Set<Long> variableExpenseIds) {
+        if (row.expenseId() == null || !variableExpenseIds.contains(row.expenseId())) {
+            throw new IllegalArgumentException("expenseId " + row.expenseId() + " is not a variable expense");
+        }
+        PeriodKey.requireValid(row.month(), row.year());
+        if (row.amount() == null || row.amount().isNegative()) {
+            throw new IllegalArgumentException("amount must be zero or more");
+        }
+        if (row.notes() != null && row.notes().length() > 255) {
+            throw new IllegalArgumentException("notes must be at most 255 characters");
+        }
+    }
+
+    private Map<String, Integer> parseCsvHeader(String header) {
+        List<String> names = splitCsvLine(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        for (String required : CSV_COLUMNS.subList(0, 4)) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must include " + CSV_COLUMNS.subList(0, 4));
+            }
+        }
+        return columns;
+    }
+
+    private VariableAmountRow parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        String notes = csvValue(values, columns.get("notes"));
+        return new VariableAmountRow(
+                Long.valueOf(csvValue(values, columns.get("expenseId")).trim()),
+                Integer.valueOf(csvValue(values, columns.get("month")).trim()),
+                Integer.valueOf(csvValue(values, columns.get("year")).trim()),
+                Money.parse(csvValue(values, columns.get("amount"))),
+                notes == null || notes.isEmpty() ? null : notes
+        );
+    }
+
+    private String csvValue(List<String> values, Integer column) {
+        if (column == null) {
+            return null;
+        }
+        if (column >= values.size()) {
+            throw new IllegalArgumentException("expected at least " + (column + 1) + " columns");
+        }
+        return values.get(column);
+    }
+
+    /**
+     split one CSV record; supports double-quoted fields with "" escapes
+     **/
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record PendingRow(long line, VariableAmountRow row) {
+    }
+
+    private static final class Progress {
+        long received;
+        long upserted;
+        long rejected;
+        final List<ImportSummary.RowError> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportSummary.RowError(line, message));
+            }
+        }
+
+        ImportSummary summary() {
+            return new ImportSummary(received, upserted, rejected, errors, rejected > errors.size());
+        }
+    }
+}
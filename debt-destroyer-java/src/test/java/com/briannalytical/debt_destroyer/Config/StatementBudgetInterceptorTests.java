@@ -0,0 +1,111 @@
+package com.briannalytical.debt_destroyer.Config;
+
+import com.briannalytical.debt_destroyer.H2Tests;
+import com.briannalytical.debt_destroyer.StatementBudgetExtension;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ a request over its @StatementBudget still gets its response, and is logged and counted instead
+ * the controller is only registered here (nested test classes are left out of component scanning), and its own
+ * in-memory database keeps this context's schema away from the one the other H2 tests share
+ * its overruns are on purpose, so they are left out of the check every other integration test gets
+ **/
+@StatementBudgetExtension.OverrunsExpected
+@Import(StatementBudgetInterceptorTests.BudgetedController.class)
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:statement-budget;MODE=PostgreSQL;NON_KEYWORDS=MONTH,YEAR")
+class StatementBudgetInterceptorTests extends H2Tests {
+
+    private static final String OVER_BUDGET = "http.server.statements.over.budget";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void requestOverItsBudgetIsCountedNotFailed() throws Exception {
+        mockMvc.perform(get("/test/statement-budget/over"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+
+        Counter counter = meterRegistry.find(OVER_BUDGET).tag("handler", "BudgetedController.twoStatements").counter();
+        assertEquals(1, counter == null ? 0 : counter.count());
+    }
+
+    @Test
+    void requestWithinItsBudgetIsNotCounted() throws Exception {
+        mockMvc.perform(get("/test/statement-budget/within"))
+                .andExpect(status().isOk());
+
+        assertNull(meterRegistry.find(OVER_BUDGET).tag("handler", "BudgetedController.oneStatement").counter());
+    }
+
+    @Test
+    void statementsOnWrappedTasksCountAgainstTheRequest() throws Exception {
+        mockMvc.perform(get("/test/statement-budget/forked"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+
+        Counter counter = meterRegistry.find(OVER_BUDGET).tag("handler", "BudgetedController.forkedStatement").counter();
+        assertEquals(1, counter == null ? 0 : counter.count());
+    }
+
+    @RestController
+    static class BudgetedController {
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @GetMapping("/test/statement-budget/over")
+        @StatementBudget(1)
+        public int twoStatements() {
+            jdbcTemplate.execute("SELECT 1");
+            jdbcTemplate.execute("SELECT 1");
+            return StatementCounter.current();
+        }
+
+        @GetMapping("/test/statement-budget/within")
+        @StatementBudget(1)
+        public int oneStatement() {
+            jdbcTemplate.execute("SELECT 1");
+            return StatementCounter.current();
+        }
+
+        // one statement here and one on a pooled thread that existed before the request
+        @GetMapping("/test/statement-budget/forked")
+        @StatementBudget(1)
+        public int forkedStatement() throws Exception {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                executor.submit(() -> { }).get();
+                jdbcTemplate.execute("SELECT 1");
+                Future<?> forked = executor.submit(StatementCounter.wrap(() -> jdbcTemplate.execute("SELECT 1")));
+                forked.get();
+                return StatementCounter.current();
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+}
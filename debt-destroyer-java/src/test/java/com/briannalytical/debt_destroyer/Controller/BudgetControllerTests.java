@@ -0,0 +1,64 @@
+package com.briannalytical.debt_destroyer.Controller;
+
+import com.briannalytical.debt_destroyer.H2Tests;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BudgetControllerTests extends H2Tests {
+
+    private static final String[] INVALID_MONTHS = {"13/2025", "0/2025", "12/2023"};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void monthsTheRollupCannotHoldAreRejected() throws Exception {
+        // rejected before the rollup is looked up or built, so nothing reaches the database
+        for (String path : new String[] {"/api/budget/13/2025", "/api/budget/0/2025", "/api/budget/12/2023"}) {
+            mockMvc.perform(get(path))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void projectionsOfInvalidMonthsAreRejected() throws Exception {
+        for (String month : INVALID_MONTHS) {
+            mockMvc.perform(get("/api/budget/" + month + "/projection"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void recommendationsForInvalidMonthsAreRejected() throws Exception {
+        for (String month : INVALID_MONTHS) {
+            mockMvc.perform(get("/api/budget/" + month + "/recommendations"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void scenariosFromInvalidMonthsAreRejected() throws Exception {
+        for (String month : INVALID_MONTHS) {
+            mockMvc.perform(post("/api/budget/" + month + "/scenarios")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"scenarios": [{"name": "no change", "samples": 1, "shocks": []}]}
+                                    """))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void streamsStartingBeforeTheFirstYearAreRejected() throws Exception {
+        for (String range : new String[] {"from=2023-01&to=2023-02", "from=2023-12&to=2024-01"}) {
+            mockMvc.perform(get("/api/budget/stream?" + range))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.briannalytical.debt_destroyer.Controller;
+
+import com.briannalytical.debt_destroyer.H2Tests;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.briannalytical.debt_destroyer.Config.TenantFilter.TENANT_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ the bulk deactivate and reactivate endpoints of expenses and irregular expenses
+ * tenant 9 owns the rows switched here; tenant 10's rows share the table and must never be switched
+ **/
+class BulkActivationTests extends H2Tests {
+
+    private static final long OWNER = 9;
+
+    private static final long OTHER = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void expensesAreSwitchedOffAndOnAgain() throws Exception {
+        long first = insertExpense(OWNER, "switched 1");
+        long second = insertExpense(OWNER, "switched 2");
+
+        send("/api/expenses/deactivate", List.of(first, second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        assertEquals(List.of(false, false), active("expenses", first, second));
+
+        // only rows whose flag actually changes are counted
+        send("/api/expenses/reactivate", List.of(first))
+                .andExpect(jsonPath("$.affected").value(1));
+        send("/api/expenses/reactivate", List.of(first, second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1));
+        assertEquals(List.of(true, true), active("expenses", first, second));
+    }
+
+    @Test
+    void irregularExpensesAreSwitchedOffAndOnAgain() throws Exception {
+        long first = insertIrregularExpense(OWNER, "switched 1");
+
+        send("/api/irregular-expenses/deactivate", List.of(first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1));
+        assertEquals(List.of(false), active("irregular_expenses", first));
+        send("/api/irregular-expenses/reactivate", List.of(first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1));
+        assertEquals(List.of(true), active("irregular_expenses", first));
+    }
+
+    @Test
+    void unknownOrOtherTenantsIdsFailTheWholeRequest() throws Exception {
+        long owned = insertExpense(OWNER, "unknown ids");
+        long other = insertExpense(OTHER, "unknown ids");
+        long ownedIrregular = insertIrregularExpense(OWNER, "unknown ids");
+        long otherIrregular = insertIrregularExpense(OTHER, "unknown ids");
+
+        send("/api/expenses/deactivate", List.of(owned, other))
+                .andExpect(status().isNotFound());
+        send("/api/expenses/deactivate", List.of(owned, 999_999L))
+                .andExpect(status().isNotFound());
+        send("/api/irregular-expenses/deactivate", List.of(ownedIrregular, otherIrregular))
+                .andExpect(status().isNotFound());
+        send("/api/irregular-expenses/deactivate", List.of(999_999L))
+                .andExpect(status().isNotFound());
+
+        assertEquals(List.of(true, true), active("expenses", owned, other));
+        assertEquals(List.of(true, true), active("irregular_expenses", ownedIrregular, otherIrregular));
+    }
+
+    @Test
+    void repeatedIdsCountOnce() throws Exception {
+        long owned = insertExpense(OWNER, "repeated ids");
+
+        send("/api/expenses/deactivate", List.of(owned, owned))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1));
+    }
+
+    @Test
+    void missingOrNullIdsAreRejected() throws Exception {
+        for (String path : new String[] {
+                "/api/expenses/deactivate", "/api/expenses/reactivate",
+                "/api/irregular-expenses/deactivate", "/api/irregular-expenses/reactivate"}) {
+            mockMvc.perform(post(path).header(TENANT_HEADER, Long.toString(OWNER)))
+                    .andExpect(status().isBadRequest());
+            sendJson(path, "null")
+                    .andExpect(status().isBadRequest());
+            sendJson(path, "[1, null]")
+                    .andExpect(status().isBadRequest());
+            sendJson(path, "[]")
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.affected").value(0));
+        }
+    }
+
+    private ResultActions send(String path, List<Long> ids) throws Exception {
+        return sendJson(path, ids.toString());
+    }
+
+    private ResultActions sendJson(String path, String body) throws Exception {
+        return mockMvc.perform(post(path)
+                .header(TENANT_HEADER, Long.toString(OWNER))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private long insertExpense(long tenantId, String name) {
+        jdbcTemplate.update("""
+                INSERT INTO expenses (tenant_id, name, category, expense_type, fixed_amount, is_active, created_at)
+                VALUES (?, ?, 'PHONE', 'FIXED', 40.00, true, CURRENT_TIMESTAMP)
+                """, tenantId, name);
+        return jdbcTemplate.queryForObject("SELECT id FROM expenses WHERE tenant_id = ? AND name = ?",
+                Long.class, tenantId, name);
+    }
+
+    private long insertIrregularExpense(long tenantId, String name) {
+        jdbcTemplate.update("""
+                INSERT INTO irregular_expenses (tenant_id, name, amount, frequency, next_due_date, is_active, created_at)
+                VALUES (?, ?, 120.00, 'ANNUAL', DATE '2025-06-01', true, CURRENT_TIMESTAMP)
+                """, tenantId, name);
+        return jdbcTemplate.queryForObject("SELECT id FROM irregular_expenses WHERE tenant_id = ? AND name = ?",
+                Long.class, tenantId, name);
+    }
+
+    private List<Boolean> active(String table, Long... ids) {
+        List<Boolean> flags = new ArrayList<>();
+        for (Long id : ids) {
+            flags.add(jdbcTemplate.queryForObject("SELECT is_active FROM " + table + " WHERE id = ?", Boolean.class, id));
+        }
+        return flags;
+    }
+}
@@ -0,0 +1,108 @@
+package com.briannalytical.debt_destroyer.Controller;
+
+import com.briannalytical.debt_destroyer.H2Tests;
+import com.briannalytical.debt_destroyer.Model.Dto.CursorPage;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.briannalytical.debt_destroyer.Config.TenantFilter.TENANT_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ walking the keyset-paginated lists through their cursors
+ * tenant 6 owns the expenses paged here, so the other H2 tests' rows never land on its pages; they are posted
+ * once for the class, which needs a per-class instance to have the MockMvc in @BeforeAll
+ **/
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CursorPaginationTests extends H2Tests {
+
+    private static final String TENANT = "6";
+
+    private static final List<String> NAMES = List.of("rent", "internet", "phone", "car", "gym");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void seed() throws Exception {
+        for (String name : NAMES) {
+            mockMvc.perform(post("/api/expenses")
+                            .header(TENANT_HEADER, TENANT)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"name": "%s", "category": "OTHER", "expenseType": "FIXED", "fixedAmount": 10.00}
+                                    """.formatted(name)))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    @Test
+    void pagesFollowEachOtherUntilTheLastHasNoCursor() throws Exception {
+        List<String> names = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            String page = mockMvc.perform(get("/api/expenses")
+                            .header(TENANT_HEADER, TENANT)
+                            .param("limit", "2")
+                            .param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<String> items = JsonPath.read(page, "$.items[*].name");
+            names.addAll(items);
+            pageSizes.add(items.size());
+            cursor = JsonPath.read(page, "$.nextCursor");
+        } while (cursor != null);
+
+        assertEquals(NAMES, names);
+        assertEquals(List.of(2, 2, 1), pageSizes);
+    }
+
+    @Test
+    void limitsOutsideTheAllowedRangeAreClamped() throws Exception {
+        mockMvc.perform(get("/api/expenses").header(TENANT_HEADER, TENANT).param("limit", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(NAMES.size()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get("/api/expenses").header(TENANT_HEADER, TENANT).param("limit", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    void invalidCursorsAreRejected() throws Exception {
+        String[] cursors = {"garbage!", CursorPage.encodeCursor(1, 2), CursorPage.encodeCursor(-1)};
+        for (String path : new String[] {"/api/expenses", "/api/irregular-expenses"}) {
+            for (String cursor : cursors) {
+                mockMvc.perform(get(path).header(TENANT_HEADER, TENANT).param("cursor", cursor))
+                        .andExpect(status().isBadRequest());
+            }
+        }
+
+        // income pages on (year, month), so its keys must also fit an int
+        for (String cursor : new String[] {
+                "garbage!",
+                CursorPage.encodeCursor(2025),
+                CursorPage.encodeCursor(2025, -1),
+                CursorPage.encodeCursor(Integer.MAX_VALUE + 1L, 1)}) {
+            mockMvc.perform(get("/api/income").header(TENANT_HEADER, TENANT).param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/api/income").header(TENANT_HEADER, TENANT)
+                        .param("cursor", CursorPage.encodeCursor(2025, 12)))
+                .andExpect(status().isOk());
+    }
+}
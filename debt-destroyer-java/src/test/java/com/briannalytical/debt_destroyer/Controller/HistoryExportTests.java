@@ -0,0 +1,203 @@
+package com.briannalytical.debt_destroyer.Controller;
+
+import com.briannalytical.debt_destroyer.EmbeddedPostgresTests;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.briannalytical.debt_destroyer.Config.TenantFilter.TENANT_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ the streamed payment and variable expense exports, on Postgres since their queries name the period column
+ * tenant 402 has rows in the same months as 401 and must never show up in 401's export
+ **/
+class HistoryExportTests extends EmbeddedPostgresTests {
+
+    private static final long TENANT_ID = 401;
+
+    private static final long OTHER_TENANT_ID = 402;
+
+    private static final String SEED_SQL = """
+            INSERT INTO tenants (id, name) VALUES (%1$d, 'exports'), (%2$d, 'other exports');
+            INSERT INTO debt_accounts (tenant_id, name, account_type, current_balance, minimum_payment)
+            VALUES (%1$d, 'visa', 'CREDIT_CARD', 1000, 25),
+                   (%1$d, 'car', 'AUTO_LOAN', 9000, 300),
+                   (%2$d, 'other visa', 'CREDIT_CARD', 1000, 25);
+            INSERT INTO debt_payments (tenant_id, debt_account_id, month, year, amount_paid, payment_date)
+            SELECT d.tenant_id, d.id, p.month, p.year, p.amount, TIMESTAMP '2025-03-01 12:00:00'
+            FROM debt_accounts d
+            JOIN (VALUES ('visa', 11, 2024, 100.00), ('visa', 12, 2024, 110.00), ('visa', 1, 2025, 120.00),
+                         ('car', 1, 2025, 300.00), ('visa', 2, 2025, 130.00), ('other visa', 1, 2025, 999.00))
+                AS p (name, month, year, amount) ON p.name = d.name
+            WHERE d.tenant_id IN (%1$d, %2$d);
+            INSERT INTO expenses (tenant_id, name, category, expense_type)
+            VALUES (%1$d, 'groceries', 'GROCERIES', 'VARIABLE'), (%2$d, 'other groceries', 'GROCERIES', 'VARIABLE');
+            INSERT INTO variable_expense_amounts (tenant_id, expense_id, month, year, amount, notes, created_at)
+            SELECT e.tenant_id, e.id, v.month, v.year, v.amount, v.notes, TIMESTAMP '2025-03-01 12:00:00'
+            FROM expenses e
+            JOIN (VALUES ('groceries', 12, 2024, 400.00, 'holidays, "big" shop'), ('groceries', 1, 2025, 350.50, NULL),
+                         ('other groceries', 1, 2025, 999.00, NULL))
+                AS v (name, month, year, amount, notes) ON v.name = e.name
+            WHERE e.tenant_id IN (%1$d, %2$d);
+            """.formatted(TENANT_ID, OTHER_TENANT_ID);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void seed() {
+        execute(SEED_SQL);
+    }
+
+    @Test
+    void paymentsExportAsCsvOldestFirst() throws Exception {
+        MockHttpServletResponse response = export("/api/debt-payments/export");
+
+        assertEquals("text/csv", response.getContentType());
+        assertEquals("attachment; filename=\"debt-payments.csv\"", response.getHeader("Content-Disposition"));
+        List<String> lines = response.getContentAsString().lines().toList();
+        assertEquals("id,debtAccountId,debtAccountName,month,year,amountPaid,paymentDate", lines.get(0));
+        assertEquals(List.of("visa,11,2024,100.00", "visa,12,2024,110.00", "visa,1,2025,120.00",
+                "car,1,2025,300.00", "visa,2,2025,130.00"), paymentColumns(lines));
+        assertEquals(List.of("2025-03-01T12:00"), lines.stream().skip(1)
+                .map(line -> line.substring(line.lastIndexOf(',') + 1)).distinct().toList());
+    }
+
+    @Test
+    void formatIsMatchedIgnoringCase() throws Exception {
+        for (String format : new String[] {"csv", "CSV", "Csv"}) {
+            assertEquals("text/csv", export("/api/debt-payments/export?format=" + format).getContentType());
+        }
+        assertEquals("application/x-ndjson",
+                export("/api/expenses/variable/export?format=NDJSON").getContentType());
+
+        mockMvc.perform(get("/api/debt-payments/export?format=xml").header(TENANT_HEADER, Long.toString(TENANT_ID)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/expenses/variable/export?format=json").header(TENANT_HEADER, Long.toString(TENANT_ID)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void variableAmountsExportAsNdjson() throws Exception {
+        MockHttpServletResponse response = export("/api/expenses/variable/export?format=ndjson");
+
+        assertEquals("attachment; filename=\"variable-expenses.ndjson\"", response.getHeader("Content-Disposition"));
+        List<String> lines = response.getContentAsString().lines().toList();
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : lines) {
+            rows.add(objectMapper.readTree(line));
+        }
+        assertEquals(2, rows.size());
+        assertEquals("groceries", rows.get(0).get("expenseName").asText());
+        assertEquals(12, rows.get(0).get("month").asInt());
+        assertEquals(2024, rows.get(0).get("year").asInt());
+        // amounts keep their scale rather than passing through a double
+        assertTrue(lines.get(0).contains("\"amount\":400.00,"));
+        assertEquals("holidays, \"big\" shop", rows.get(0).get("notes").asText());
+        assertEquals("2025-03-01T12:00", rows.get(0).get("createdAt").asText());
+        assertTrue(lines.get(1).contains("\"amount\":350.50,"));
+        assertTrue(rows.get(1).get("notes").isNull());
+    }
+
+    @Test
+    void csvQuotesValuesWithSeparatorsOrQuotes() throws Exception {
+        List<String> lines = export("/api/expenses/variable/export").getContentAsString().lines().toList();
+
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).contains(",400.00,\"holidays, \"\"big\"\" shop\","));
+        assertTrue(lines.get(2).contains(",350.50,,"));
+    }
+
+    @Test
+    void rangeIsInclusiveAndMayCrossAYear() throws Exception {
+        assertEquals(List.of("visa,12,2024,110.00", "visa,1,2025,120.00", "car,1,2025,300.00"),
+                paymentColumns(lines("/api/debt-payments/export?from=2024-12&to=2025-01")));
+        assertEquals(List.of("visa,1,2025,120.00", "car,1,2025,300.00", "visa,2,2025,130.00"),
+                paymentColumns(lines("/api/debt-payments/export?from=2025-01")));
+        assertEquals(List.of("visa,11,2024,100.00"),
+                paymentColumns(lines("/api/debt-payments/export?to=2024-11")));
+        assertEquals(2, lines("/api/expenses/variable/export?from=2025-01&to=2025-01").size());
+    }
+
+    @Test
+    void rangeCombinesWithTheAccountFilter() throws Exception {
+        long visa = accountId("visa");
+        assertEquals(List.of("visa,12,2024,110.00", "visa,1,2025,120.00"),
+                paymentColumns(lines("/api/debt-payments/export?debtAccountId=" + visa + "&from=2024-12&to=2025-01")));
+    }
+
+    @Test
+    void rangesThatEndBeforeTheyStartOrAreNotMonthsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/debt-payments/export?from=2025-02&to=2025-01").header(TENANT_HEADER, Long.toString(TENANT_ID)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/expenses/variable/export?from=2025-13").header(TENANT_HEADER, Long.toString(TENANT_ID)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportsOnlyContainTheCurrentTenantsRows() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/debt-payments/export")
+                        .header(TENANT_HEADER, Long.toString(OTHER_TENANT_ID)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        List<String> lines = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().lines().toList();
+        assertEquals(List.of("other visa,1,2025,999.00"), paymentColumns(lines));
+
+        // another tenant's account id matches nothing rather than leaking its payments
+        long otherVisa = accountId("other visa");
+        assertEquals(List.of(), paymentColumns(lines("/api/debt-payments/export?debtAccountId=" + otherVisa)));
+        assertFalse(export("/api/expenses/variable/export").getContentAsString().contains("999.00"));
+    }
+
+    private List<String> lines(String path) throws Exception {
+        return export(path).getContentAsString().lines().toList();
+    }
+
+    /**
+     the body is written after the handler returns, so the response is read from the async dispatch
+     **/
+    private MockHttpServletResponse export(String path) throws Exception {
+        MvcResult started = mockMvc.perform(get(path).header(TENANT_HEADER, Long.toString(TENANT_ID)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    // debtAccountName,month,year,amountPaid of each data row
+    private static List<String> paymentColumns(List<String> lines) {
+        return lines.stream().skip(1)
+                .map(line -> String.join(",", List.of(line.split(",")).subList(2, 6)))
+                .toList();
+    }
+
+    private long accountId(String name) {
+        return jdbcTemplate.queryForObject("SELECT id FROM debt_accounts WHERE tenant_id IN (?, ?) AND name = ?",
+                Long.class, TENANT_ID, OTHER_TENANT_ID, name);
+    }
+}
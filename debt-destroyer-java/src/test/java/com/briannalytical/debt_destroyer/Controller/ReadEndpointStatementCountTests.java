@@ -0,0 +1,166 @@
+package com.briannalytical.debt_destroyer.Controller;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.H2Tests;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtPayment;
+import com.briannalytical.debt_destroyer.Model.Entity.Expense;
+import com.briannalytical.debt_destroyer.Model.Entity.VariableExpenseAmount;
+import com.briannalytical.debt_destroyer.Model.Enum.AccountType;
+import com.briannalytical.debt_destroyer.Model.Enum.EssentialExpenseCategory;
+import com.briannalytical.debt_destroyer.Model.Enum.ExpenseType;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Repository.DebtAccountRepository;
+import com.briannalytical.debt_destroyer.Repository.DebtPaymentRepository;
+import com.briannalytical.debt_destroyer.Repository.ExpenseRepository;
+import com.briannalytical.debt_destroyer.Repository.VariableExpenseAmountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ each read endpoint must run a fixed number of statements, however many rows it returns
+ * going over a @StatementBudget fails the test as well, through the check H2Tests registers
+ **/
+class ReadEndpointStatementCountTests extends H2Tests {
+
+    private static final int ROWS = 5;
+
+    // the configured default tenant, which the requests below work for since they send no tenant header
+    private static final long TENANT_ID = 1;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private VariableExpenseAmountRepository variableExpenseAmountRepository;
+
+    @Autowired
+    private DebtAccountRepository debtAccountRepository;
+
+    @Autowired
+    private DebtPaymentRepository debtPaymentRepository;
+
+    private Statistics statistics;
+
+    private Long firstDebtAccountId;
+
+    @BeforeEach
+    void seed() {
+        TenantContext.runAs(TENANT_ID, this::insertRows);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private void insertRows() {
+        variableExpenseAmountRepository.deleteAll();
+        debtPaymentRepository.deleteAll();
+        expenseRepository.deleteAll();
+        debtAccountRepository.deleteAll();
+
+        for (int i = 0; i < ROWS; i++) {
+            Expense expense = new Expense();
+            expense.setName("variable " + i);
+            expense.setCategory(EssentialExpenseCategory.values()[0]);
+            expense.setExpenseType(ExpenseType.VARIABLE);
+            expense = expenseRepository.save(expense);
+
+            VariableExpenseAmount amount = new VariableExpenseAmount();
+            amount.setExpense(expense);
+            amount.setMonth(1);
+            amount.setYear(2025);
+            amount.setAmount(Money.ofCents(10_000 + i));
+            variableExpenseAmountRepository.save(amount);
+
+            DebtAccount account = new DebtAccount();
+            account.setName("card " + i);
+            account.setAccountType(AccountType.CREDIT_CARD);
+            account.setCurrentBalance(Money.ofCents(100_000));
+            account.setCreditLimit(Money.ofCents(200_000));
+            account.setMinimumPayment(Money.ofCents(2_500));
+            account = debtAccountRepository.save(account);
+            if (i == 0) {
+                firstDebtAccountId = account.getId();
+            }
+
+            for (int month = 1; month <= 2; month++) {
+                DebtPayment payment = new DebtPayment();
+                payment.setDebtAccount(account);
+                payment.setMonth(month);
+                payment.setYear(2025);
+                payment.setAmountPaid(Money.ofCents(2_500));
+                debtPaymentRepository.save(payment);
+            }
+        }
+    }
+
+    @Test
+    void variableAmountsForMonthUseOneStatement() throws Exception {
+        mockMvc.perform(get("/api/expenses/variable/1/2025"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROWS))
+                .andExpect(jsonPath("$[0].expenseName").value("variable 0"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void paymentsForMonthUseOneStatement() throws Exception {
+        mockMvc.perform(get("/api/debt-payments/1/2025"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROWS))
+                .andExpect(jsonPath("$[0].debtAccountName").value("card 0"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void paymentsForAccountUseOneStatement() throws Exception {
+        mockMvc.perform(get("/api/debt-payments/account/" + firstDebtAccountId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void budgetRangeUsesOneStatementPerSource() throws Exception {
+        mockMvc.perform(get("/api/budget?from=2025-01&to=2025-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(12))
+                .andExpect(jsonPath("$[0].variableTotal").value(500.10))
+                .andExpect(jsonPath("$[1].paymentsTotal").value(125.00));
+
+        // grouped income, variable and payment sums, plus fixed total, sinking fund and active debts
+        assertTrue(statistics.getPrepareStatementCount() <= 6);
+    }
+
+    @Test
+    void pagedListsStayWithinTheirBudget() throws Exception {
+        mockMvc.perform(get("/api/expenses?limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+        mockMvc.perform(get("/api/income"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/irregular-expenses"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,328 @@
+package com.briannalytical.debt_destroyer.Controller;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Config.TenantFilter;
+import com.briannalytical.debt_destroyer.H2Tests;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtPayment;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyIncome;
+import com.briannalytical.debt_destroyer.Model.Enum.AccountType;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Repository.DebtAccountRepository;
+import com.briannalytical.debt_destroyer.Repository.DebtPaymentRepository;
+import com.briannalytical.debt_destroyer.Repository.MonthlyIncomeRepository;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.briannalytical.debt_destroyer.Config.TenantFilter.TENANT_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ every read and write goes through the tenant of the request, including lookups and updates by id
+ * tenant 2 owns the rows written here; tenant 3 never writes, so everything it sees would be a leak
+ **/
+class TenantIsolationTests extends H2Tests {
+
+    private static final long OWNER = 2;
+
+    private static final long OTHER = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DebtAccountRepository debtAccountRepository;
+
+    @Autowired
+    private DebtPaymentRepository debtPaymentRepository;
+
+    @Autowired
+    private MonthlyIncomeRepository incomeRepository;
+
+    @Test
+    void tenantsOnlySeeTheirOwnRows() throws Exception {
+        String response = mockMvc.perform(post("/api/expenses")
+                        .header(TENANT_HEADER, "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "rent", "category": "RENT", "expenseType": "FIXED", "fixedAmount": 1200.00}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tenantId").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(response, "$.id")).longValue();
+
+        mockMvc.perform(get("/api/expenses/" + id).header(TENANT_HEADER, "2"))
+                .andExpect(status().isOk());
+
+        // the default tenant, and any other, cannot read or change it
+        mockMvc.perform(get("/api/expenses/" + id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/expenses").header(TENANT_HEADER, "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+        mockMvc.perform(put("/api/expenses/" + id)
+                        .header(TENANT_HEADER, "3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "taken", "category": "RENT", "expenseType": "FIXED", "fixedAmount": 1.00}
+                                """))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/expenses/" + id).header(TENANT_HEADER, "3"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/expenses/" + id).header(TENANT_HEADER, "2"))
+                .andExpect(jsonPath("$.name").value("rent"));
+        mockMvc.perform(delete("/api/expenses/" + id).header(TENANT_HEADER, "2"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void irregularExpensesStayWithTheirTenant() throws Exception {
+        String response = mockMvc.perform(post("/api/irregular-expenses")
+                        .header(TENANT_HEADER, "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "insurance", "amount": 600.00, "frequency": "ANNUAL", "nextDueDate": "2025-06-01"}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tenantId").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(response, "$.id")).longValue();
+
+        mockMvc.perform(get("/api/irregular-expenses/" + id).header(TENANT_HEADER, "3"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/irregular-expenses").header(TENANT_HEADER, "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+        mockMvc.perform(put("/api/irregular-expenses/" + id)
+                        .header(TENANT_HEADER, "3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "taken", "amount": 1.00, "frequency": "ANNUAL", "nextDueDate": "2025-06-01"}
+                                """))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/irregular-expenses/" + id).header(TENANT_HEADER, "3"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/irregular-expenses/" + id).header(TENANT_HEADER, "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("insurance"))
+                .andExpect(jsonPath("$.isActive").value(true));
+        mockMvc.perform(delete("/api/irregular-expenses/" + id).header(TENANT_HEADER, "2"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void incomeAndPaymentsStayWithTheirTenant() throws Exception {
+        DebtAccount account = TenantContext.callAs(OWNER, () -> debtAccountRepository.save(account("owner card")));
+        MonthlyIncome income = TenantContext.callAs(OWNER, () -> {
+            MonthlyIncome row = new MonthlyIncome();
+            row.setMonth(3);
+            row.setYear(2025);
+            row.setAmount(Money.ofCents(400_000));
+            return incomeRepository.save(row);
+        });
+        TenantContext.runAs(OWNER, () -> debtPaymentRepository.save(payment(account, 3, 2025)));
+
+        mockMvc.perform(get("/api/income/3/2025").header(TENANT_HEADER, "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(4000.0));
+        mockMvc.perform(get("/api/income/3/2025").header(TENANT_HEADER, "3"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/income").header(TENANT_HEADER, "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+        mockMvc.perform(delete("/api/income/" + income.getId()).header(TENANT_HEADER, "3"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/debt-payments/account/" + account.getId()).header(TENANT_HEADER, "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/debt-payments/account/" + account.getId()).header(TENANT_HEADER, "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/debt-payments/3/2025").header(TENANT_HEADER, "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        // paying another household's account is as if it did not exist, and leaves its balance alone
+        mockMvc.perform(post("/api/debt-payments")
+                        .header(TENANT_HEADER, "3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"debtAccount": {"id": %d}, "month": 3, "year": 2025, "amountPaid": 100.00}
+                                """.formatted(account.getId())))
+                .andExpect(status().isNotFound());
+        DebtAccount reloaded = TenantContext.callAs(OWNER, () -> debtAccountRepository.findById(account.getId()))
+                .orElseThrow();
+        assertEquals(Money.ofCents(100_000), reloaded.getCurrentBalance());
+    }
+
+    @Test
+    void findByIdOnlyFindsRowsOfTheCurrentTenant() throws Exception {
+        DebtAccount account = TenantContext.callAs(OWNER, () -> debtAccountRepository.save(account("lookup card")));
+        DebtPayment payment = TenantContext.callAs(OWNER, () -> debtPaymentRepository.save(payment(account, 4, 2025)));
+        MonthlyIncome income = TenantContext.callAs(OWNER, () -> {
+            MonthlyIncome row = new MonthlyIncome();
+            row.setMonth(4);
+            row.setYear(2025);
+            row.setAmount(Money.ofCents(300_000));
+            return incomeRepository.save(row);
+        });
+
+        TenantContext.runAs(OTHER, () -> {
+            assertTrue(debtAccountRepository.findById(account.getId()).isEmpty());
+            assertFalse(debtAccountRepository.existsByIdAndIsActiveTrue(account.getId()));
+            assertTrue(debtPaymentRepository.findById(payment.getId()).isEmpty());
+            assertTrue(incomeRepository.findById(income.getId()).isEmpty());
+        });
+        TenantContext.runAs(OWNER, () -> {
+            assertTrue(debtAccountRepository.findById(account.getId()).isPresent());
+            assertTrue(debtAccountRepository.existsByIdAndIsActiveTrue(account.getId()));
+            assertTrue(debtPaymentRepository.findById(payment.getId()).isPresent());
+            assertTrue(incomeRepository.findById(income.getId()).isPresent());
+        });
+    }
+
+    @Test
+    void cachedQueryResultsAreKeptPerTenant() throws Exception {
+        DebtAccount account = TenantContext.callAs(OWNER, () -> debtAccountRepository.save(account("cached card")));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<Long> first = TenantContext.callAs(OWNER, this::activeAccountIds);
+        long hits = statistics.getQueryCacheHitCount();
+        List<Long> second = TenantContext.callAs(OWNER, this::activeAccountIds);
+
+        assertTrue(first.contains(account.getId()));
+        assertEquals(first, second);
+        assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+        // the same finder and parameters for another tenant is a different cache entry
+        assertEquals(List.of(), TenantContext.callAs(OTHER, this::activeAccountIds));
+    }
+
+    @Test
+    void budgetCacheIsKeptPerTenant() throws Exception {
+        // tenants 4 and 5, so no other test's fixed expenses are counted
+        mockMvc.perform(get("/api/budget?from=2026-01&to=2026-01").header(TENANT_HEADER, "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fixedTotal").value(0.0));
+        mockMvc.perform(post("/api/expenses")
+                        .header(TENANT_HEADER, "4")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "rent", "category": "RENT", "expenseType": "FIXED", "fixedAmount": 1200.00}
+                                """))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/budget?from=2026-01&to=2026-01").header(TENANT_HEADER, "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fixedTotal").value(1200.0));
+        mockMvc.perform(get("/api/budget?from=2026-01&to=2026-01").header(TENANT_HEADER, "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fixedTotal").value(0.0));
+    }
+
+    @Test
+    void malformedTenantHeaderIsRejected() throws Exception {
+        mockMvc.perform(get("/api/expenses").header(TENANT_HEADER, "household"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/expenses").header(TENANT_HEADER, "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void missingTenantHeaderIsRejectedWithoutADefaultTenant() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        new TenantFilter(null).doFilter(new MockHttpServletRequest("GET", "/api/expenses"), response, chain);
+
+        assertEquals(400, response.getStatus());
+        assertNull(chain.getRequest());
+
+        // with a default tenant configured, as here, the request goes through for that tenant
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses");
+        chain = new MockFilterChain();
+        new TenantFilter(7L).doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+        mockMvc.perform(get("/api/expenses"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void workWithNoTenantBoundFailsInsteadOfUsingTheDefaultTenant() throws Exception {
+        // tenant 1 is the configured default of requests without the header, and has a row to leak
+        TenantContext.runAs(1, () -> debtAccountRepository.save(account("default tenant card")));
+
+        assertThrows(IllegalStateException.class, TenantContext::currentTenantId);
+        assertThrows(IllegalStateException.class, () -> TenantContext.wrap(() -> { }));
+        // a pooled thread nobody wrapped the work for, as a scheduler or a cache loader would run it
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> ForkJoinPool.commonPool().submit(this::activeAccountIds).get());
+        assertInstanceOf(IllegalStateException.class, rootCause(failed));
+        assertThrows(RuntimeException.class, () -> debtAccountRepository.save(account("unbound card")));
+
+        List<String> names = TenantContext.callAs(1, () -> debtAccountRepository.findAll().stream()
+                .map(DebtAccount::getName).toList());
+        assertTrue(names.contains("default tenant card"));
+        assertFalse(names.contains("unbound card"));
+    }
+
+    private List<Long> activeAccountIds() {
+        return debtAccountRepository.findByIsActiveTrue().stream().map(DebtAccount::getId).toList();
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        while (failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+
+    private static DebtAccount account(String name) {
+        DebtAccount account = new DebtAccount();
+        account.setName(name);
+        account.setAccountType(AccountType.CREDIT_CARD);
+        account.setCurrentBalance(Money.ofCents(100_000));
+        account.setCreditLimit(Money.ofCents(200_000));
+        account.setMinimumPayment(Money.ofCents(2_500));
+        return account;
+    }
+
+    private static DebtPayment payment(DebtAccount account, int month, int year) {
+        DebtPayment payment = new DebtPayment();
+        payment.setDebtAccount(account);
+        payment.setMonth(month);
+        payment.setYear(year);
+        payment.setAmountPaid(Money.ofCents(2_500));
+        return payment;
+    }
+}
@@ -0,0 +1,153 @@
+package com.briannalytical.debt_destroyer.Controller;
+
+import com.briannalytical.debt_destroyer.EmbeddedPostgresTests;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+
+import static com.briannalytical.debt_destroyer.Config.TenantFilter.TENANT_HEADER;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ bulk import of variable amounts on Postgres, since rows are upserted and each touched month's rollup refreshed
+ * rows name their expense by expenseId; each test imports into months no other test uses
+ **/
+class VariableExpenseImportTests extends EmbeddedPostgresTests {
+
+    private static final long TENANT_ID = 301;
+
+    private static final String HEADER = "expenseId,month,year,amount,notes\n";
+
+    private static final String SEED_SQL = """
+            INSERT INTO tenants (id, name) VALUES (%1$d, 'imports');
+            INSERT INTO expenses (tenant_id, name, category, expense_type)
+            VALUES (%1$d, 'groceries', 'GROCERIES', 'VARIABLE');
+            INSERT INTO expenses (tenant_id, name, category, expense_type, fixed_amount)
+            VALUES (%1$d, 'rent', 'RENT', 'FIXED', 1200);
+            """.formatted(TENANT_ID);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void seed() {
+        execute(SEED_SQL);
+    }
+
+    @Test
+    void validFileIsUpsertedAndRolledUp() throws Exception {
+        long groceries = expense("groceries");
+        importCsv(HEADER + groceries + ",1,2025,410.25,weekly shop\n" + groceries + ",2,2025,380.00,\n")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.upserted").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        assertEquals(new BigDecimal("410.25"), amount(groceries, 1));
+        assertEquals(new BigDecimal("380.00"), amount(groceries, 2));
+        assertEquals(new BigDecimal("410.25"), variableTotal(1));
+        assertEquals(new BigDecimal("1200.00"), jdbcTemplate.queryForObject(
+                "SELECT fixed_total FROM monthly_budget_rollup WHERE tenant_id = ? AND month = 1 AND year = 2025",
+                BigDecimal.class, TENANT_ID));
+    }
+
+    @Test
+    void headerWithoutTheRequiredColumnsIsRejectedAsAWhole() throws Exception {
+        long groceries = expense("groceries");
+        importCsv("id,month,year,amount\n" + groceries + ",3,2025,10.00\n")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.upserted").value(0))
+                .andExpect(jsonPath("$.errors[0].line").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("CSV header must include")));
+        // a file without any header reads its first row as one
+        importCsv(groceries + ",3,2025,10.00\n")
+                .andExpect(status().isBadRequest());
+
+        assertNull(amount(groceries, 3));
+    }
+
+    @Test
+    void malformedAmountOnlyRejectsItsRow() throws Exception {
+        long groceries = expense("groceries");
+        importCsv(HEADER + groceries + ",4,2025,12.x0,\n" + groceries + ",5,2025,55.00,\n")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.upserted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+
+        assertNull(amount(groceries, 4));
+        assertEquals(new BigDecimal("55.00"), amount(groceries, 5));
+    }
+
+    @Test
+    void rowsForUnknownOrFixedExpensesAreRejected() throws Exception {
+        long rent = expense("rent");
+        importCsv(HEADER + "999999,6,2025,10.00,\n" + rent + ",6,2025,10.00,\n")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserted").value(0))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("is not a variable expense")))
+                .andExpect(jsonPath("$.errors[1].line").value(3));
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM variable_expense_amounts WHERE tenant_id = ? AND month = 6 AND year = 2025",
+                Integer.class, TENANT_ID));
+    }
+
+    @Test
+    void reimportingAMonthReplacesItsAmount() throws Exception {
+        long groceries = expense("groceries");
+        importCsv(HEADER + groceries + ",7,2025,100.00,first\n")
+                .andExpect(status().isOk());
+        importCsv(HEADER + groceries + ",7,2025,150.00,second\n")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserted").value(1));
+
+        assertEquals(1, jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM variable_expense_amounts
+                WHERE tenant_id = ? AND expense_id = ? AND month = 7 AND year = 2025
+                """, Integer.class, TENANT_ID, groceries));
+        assertEquals(new BigDecimal("150.00"), amount(groceries, 7));
+        assertEquals(new BigDecimal("150.00"), variableTotal(7));
+    }
+
+    private ResultActions importCsv(String body) throws Exception {
+        return mockMvc.perform(post("/api/expenses/variable/bulk")
+                .header(TENANT_HEADER, Long.toString(TENANT_ID))
+                .contentType("text/csv")
+                .content(body));
+    }
+
+    private long expense(String name) {
+        return jdbcTemplate.queryForObject("SELECT id FROM expenses WHERE tenant_id = ? AND name = ?",
+                Long.class, TENANT_ID, name);
+    }
+
+    private BigDecimal amount(long expenseId, int month) {
+        return jdbcTemplate.query("""
+                        SELECT amount FROM variable_expense_amounts
+                        WHERE tenant_id = ? AND expense_id = ? AND month = ? AND year = 2025
+                        """, (row, i) -> row.getBigDecimal(1), TENANT_ID, expenseId, month)
+                .stream().findFirst().orElse(null);
+    }
+
+    private BigDecimal variableTotal(int month) {
+        return jdbcTemplate.queryForObject(
+                "SELECT variable_total FROM monthly_budget_rollup WHERE tenant_id = ? AND month = ? AND year = 2025",
+                BigDecimal.class, TENANT_ID, month);
+    }
+}
@@ -0,0 +1,81 @@
+package com.briannalytical.debt_destroyer;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ base for tests that need the real schema: one embedded Postgres per test run, loaded from schema.sql,
+ * and one application context shared by every subclass
+ * the database is shared as well, so each test class seeds its own tenants and only reads those
+ * a request over its @StatementBudget fails the test it ran in
+ **/
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureMockMvc
+@ExtendWith(StatementBudgetExtension.class)
+public abstract class EmbeddedPostgresTests {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    /**
+     a connection straight to the database, bypassing the application's DataSource and its statement listeners
+     **/
+    protected static Connection connection() throws SQLException {
+        return POSTGRES.getPostgresDatabase().getConnection();
+    }
+
+    /**
+     run a script outside the application, e.g. to seed a test class's tenants from @BeforeAll
+     **/
+    protected static void execute(String sql) {
+        try (Connection connection = connection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // the process is exiting anyway
+                }
+            }));
+            try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute(Files.readString(Path.of("../schema.sql")));
+            }
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.briannalytical.debt_destroyer;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ base for tests that run against an in-memory H2 database in PostgreSQL mode, with the schema generated
+ * from the entities; every subclass shares the one application context and database
+ * H2 cannot run the Postgres upserts (ON CONFLICT ... DO UPDATE), so tests of upserts, or of anything
+ * that refreshes a month's rollup, belong in EmbeddedPostgresTests
+ * a request over its @StatementBudget fails the test it ran in
+ **/
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:debt-destroyer;MODE=PostgreSQL;NON_KEYWORDS=MONTH,YEAR",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureMockMvc
+@ExtendWith(StatementBudgetExtension.class)
+public abstract class H2Tests {
+}
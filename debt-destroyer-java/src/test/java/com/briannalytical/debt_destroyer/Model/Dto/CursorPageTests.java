@@ -0,0 +1,78 @@
+package com.briannalytical.debt_destroyer.Model.Dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorPageTests {
+
+    @Test
+    void cursorsDecodeToTheKeysTheyWereEncodedFrom() {
+        assertArrayEquals(new long[] {42}, CursorPage.decodeCursor(CursorPage.encodeCursor(42), 1));
+        assertArrayEquals(new long[] {2025, 12}, CursorPage.decodeCursor(CursorPage.encodeCursor(2025, 12), 2));
+        assertArrayEquals(new long[] {0, Long.MAX_VALUE},
+                CursorPage.decodeCursor(CursorPage.encodeCursor(0, Long.MAX_VALUE), 2));
+    }
+
+    @Test
+    void missingCursorStartsFromTheBeginning() {
+        assertNull(CursorPage.decodeCursor(null, 1));
+        assertNull(CursorPage.decodeCursor("", 1));
+        assertNull(CursorPage.decodeCursor("  ", 1));
+    }
+
+    @Test
+    void onlyAFullPageWithAnExtraRowHasANextCursor() {
+        CursorPage<Long> last = CursorPage.of(List.of(1L, 2L, 3L), 3, id -> new long[] {id});
+        assertEquals(List.of(1L, 2L, 3L), last.items());
+        assertNull(last.nextCursor());
+
+        assertNull(CursorPage.of(List.<Long>of(), 3, id -> new long[] {id}).nextCursor());
+
+        CursorPage<Long> first = CursorPage.of(List.of(1L, 2L, 3L, 4L), 3, id -> new long[] {id});
+        assertEquals(List.of(1L, 2L, 3L), first.items());
+        assertNotNull(first.nextCursor());
+        // the next page starts after the last row returned, not after the extra one
+        assertArrayEquals(new long[] {3}, CursorPage.decodeCursor(first.nextCursor(), 1));
+    }
+
+    @Test
+    void cursorsNotIssuedByTheApiAreRejected() {
+        for (String cursor : new String[] {
+                "not base64!",
+                token("v1"),
+                token("v1:1:2"),
+                token("v2:1"),
+                token("v1:one"),
+                token("v1:-1"),
+                token("v1:99999999999999999999"),
+                token(":1")}) {
+            assertThrows(IllegalArgumentException.class, () -> CursorPage.decodeCursor(cursor, 1), cursor);
+        }
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.decodeCursor(CursorPage.encodeCursor(2025), 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> CursorPage.decodeCursor(CursorPage.encodeCursor(2025, -1), 2));
+    }
+
+    @Test
+    void pageSizesAreClampedToTheAllowedRange() {
+        assertEquals(CursorPage.DEFAULT_PAGE_SIZE, CursorPage.clampPageSize(null));
+        assertEquals(20, CursorPage.clampPageSize(20));
+        assertEquals(1, CursorPage.clampPageSize(0));
+        assertEquals(1, CursorPage.clampPageSize(-5));
+        assertEquals(CursorPage.MAX_PAGE_SIZE, CursorPage.clampPageSize(CursorPage.MAX_PAGE_SIZE + 1));
+        assertEquals(CursorPage.MAX_PAGE_SIZE, CursorPage.clampPageSize(Integer.MAX_VALUE));
+    }
+
+    private static String token(String plain) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+}
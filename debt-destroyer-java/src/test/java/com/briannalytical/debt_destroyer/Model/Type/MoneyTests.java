@@ -0,0 +1,48 @@
+package com.briannalytical.debt_destroyer.Model.Type;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoneyTests {
+
+    @Test
+    void conversionRoundsHalfUp() {
+        assertEquals(1235, Money.of(new BigDecimal("12.345")).cents());
+        assertEquals(1234, Money.of(new BigDecimal("12.3449")).cents());
+        assertEquals(-1235, Money.of(new BigDecimal("-12.345")).cents());
+        assertEquals(new BigDecimal("12.30"), Money.parse("12.3").toBigDecimal());
+    }
+
+    @Test
+    void divisionMatchesBigDecimalHalfUp() {
+        for (long cents = -5_000; cents <= 5_000; cents += 7) {
+            for (long divisor : new long[] {3, 6, 7, 12}) {
+                BigDecimal expected = BigDecimal.valueOf(cents, 2)
+                        .divide(BigDecimal.valueOf(divisor), 2, RoundingMode.HALF_UP);
+                assertEquals(expected, Money.ofCents(cents).divide(divisor).toBigDecimal());
+            }
+        }
+    }
+
+    @Test
+    void ratioMatchesBigDecimalHalfUp() {
+        Money limit = Money.parse("3000.00");
+        for (long cents = 0; cents <= 400_000; cents += 131) {
+            BigDecimal expected = BigDecimal.valueOf(cents, 2)
+                    .divide(limit.toBigDecimal(), 4, RoundingMode.HALF_UP);
+            assertEquals(expected, BigDecimal.valueOf(Money.ofCents(cents).ratioBasisPoints(limit), 4));
+        }
+    }
+
+    @Test
+    void serialisesAsPlainDecimal() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals("1500.50", mapper.writeValueAsString(Money.parse("1500.5")));
+        assertEquals(Money.ofCents(1999), mapper.readValue("19.99", Money.class));
+    }
+}
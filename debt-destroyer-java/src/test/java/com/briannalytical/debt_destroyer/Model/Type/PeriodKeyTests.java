@@ -0,0 +1,31 @@
+package com.briannalytical.debt_destroyer.Model.Type;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PeriodKeyTests {
+
+    @Test
+    void keysOrderLikeTheMonths() {
+        assertEquals(202412, PeriodKey.of(12, 2024));
+        assertEquals(202501, PeriodKey.of(YearMonth.of(2025, 1)));
+        assertEquals(-1, Integer.signum(PeriodKey.of(12, 2024) - PeriodKey.of(1, 2025)));
+    }
+
+    @Test
+    void validPeriodsMatchTheSchemaChecks() {
+        assertDoesNotThrow(() -> PeriodKey.requireValid(1, PeriodKey.FIRST_YEAR));
+        assertDoesNotThrow(() -> PeriodKey.requireValid(12, 2035));
+
+        assertThrows(IllegalArgumentException.class, () -> PeriodKey.requireValid(0, 2025));
+        assertThrows(IllegalArgumentException.class, () -> PeriodKey.requireValid(13, 2025));
+        assertThrows(IllegalArgumentException.class, () -> PeriodKey.requireValid(12, PeriodKey.FIRST_YEAR - 1));
+        assertThrows(IllegalArgumentException.class, () -> PeriodKey.requireValid(null, 2025));
+        assertThrows(IllegalArgumentException.class, () -> PeriodKey.requireValid(1, null));
+    }
+}
@@ -0,0 +1,183 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.H2Tests;
+import com.briannalytical.debt_destroyer.Model.Entity.Expense;
+import com.briannalytical.debt_destroyer.Model.Entity.IrregularExpense;
+import com.briannalytical.debt_destroyer.Model.Enum.EssentialExpenseCategory;
+import com.briannalytical.debt_destroyer.Model.Enum.ExpenseType;
+import com.briannalytical.debt_destroyer.Model.Enum.Frequency;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ the bulk UPDATE queries change only the columns they name, and only on rows of the current tenant
+ * rows are inserted with plain JDBC so every column, created_at included, starts at a known value;
+ * tenant 7 owns the rows updated here and tenant 8 the ones that must come through untouched
+ **/
+class ExpenseUpdateQueriesTests extends H2Tests {
+
+    private static final long OWNER = 7;
+
+    private static final long OTHER = 8;
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 9, 30);
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IrregularExpenseRepository irregularExpenseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deactivateOnlyClearsIsActive() throws Exception {
+        long owned = insertExpense(OWNER, "deactivate", true);
+        long other = insertExpense(OTHER, "deactivate", true);
+        Map<String, Object> before = expenseRow(owned);
+
+        assertEquals(1, asOwner(() -> expenseRepository.deactivate(owned)));
+        // another tenant's id matches no row
+        assertEquals(0, asOwner(() -> expenseRepository.deactivate(other)));
+
+        Map<String, Object> after = expenseRow(owned);
+        assertEquals(false, after.get("IS_ACTIVE"));
+        after.put("IS_ACTIVE", before.get("IS_ACTIVE"));
+        assertEquals(before, after);
+        assertEquals(true, expenseRow(other).get("IS_ACTIVE"));
+    }
+
+    @Test
+    void setActiveCountsOnlyTheRowsItChanges() throws Exception {
+        long first = insertExpense(OWNER, "set active 1", true);
+        long second = insertExpense(OWNER, "set active 2", true);
+        long inactive = insertExpense(OWNER, "set active 3", false);
+        long other = insertExpense(OTHER, "set active 1", true);
+        Map<String, Object> before = expenseRow(first);
+        List<Long> ids = List.of(first, second, inactive, other);
+
+        assertEquals(2, asOwner(() -> expenseRepository.setActive(ids, false)));
+        assertEquals(false, expenseRow(second).get("IS_ACTIVE"));
+        assertEquals(true, expenseRow(other).get("IS_ACTIVE"));
+        assertEquals(3, asOwner(() -> expenseRepository.setActive(ids, true)));
+        assertEquals(0, asOwner(() -> expenseRepository.setActive(ids, true)));
+
+        assertEquals(before, expenseRow(first));
+        assertEquals(true, expenseRow(inactive).get("IS_ACTIVE"));
+        assertEquals(true, expenseRow(other).get("IS_ACTIVE"));
+    }
+
+    @Test
+    void updateDetailsLeavesIsActiveCreatedAtAndTenantAlone() throws Exception {
+        long owned = insertExpense(OWNER, "update", false);
+        long other = insertExpense(OTHER, "update", true);
+        Map<String, Object> otherBefore = expenseRow(other);
+
+        Expense details = new Expense();
+        details.setName("broadband");
+        details.setCategory(EssentialExpenseCategory.INTERNET);
+        details.setExpenseType(ExpenseType.FIXED);
+        details.setFixedAmount(Money.ofCents(65_00));
+        // columns a request body could carry but the query must not write
+        details.setIsActive(true);
+        details.setCreatedAt(LocalDateTime.now());
+        details.setTenantId(OTHER);
+
+        assertEquals(1, asOwner(() -> expenseRepository.updateDetails(owned, details)));
+        assertEquals(0, asOwner(() -> expenseRepository.updateDetails(other, details)));
+
+        Map<String, Object> after = expenseRow(owned);
+        assertEquals("broadband", after.get("NAME"));
+        assertEquals("INTERNET", after.get("CATEGORY"));
+        assertEquals("FIXED", after.get("EXPENSE_TYPE"));
+        assertEquals(0, Money.ofCents(65_00).toBigDecimal().compareTo((BigDecimal) after.get("FIXED_AMOUNT")));
+        assertEquals(false, after.get("IS_ACTIVE"));
+        assertEquals(CREATED_AT, ((Timestamp) after.get("CREATED_AT")).toLocalDateTime());
+        assertEquals(OWNER, ((Number) after.get("TENANT_ID")).longValue());
+        assertEquals(otherBefore, expenseRow(other));
+    }
+
+    @Test
+    void irregularExpenseQueriesOnlyTouchTheirColumnsAndTenant() throws Exception {
+        long owned = insertIrregularExpense(OWNER, "insurance");
+        long other = insertIrregularExpense(OTHER, "insurance");
+        Map<String, Object> otherBefore = irregularExpenseRow(other);
+
+        IrregularExpense details = new IrregularExpense();
+        details.setName("car insurance");
+        details.setAmount(Money.ofCents(600_00));
+        details.setFrequency(Frequency.CUSTOM);
+        details.setNextDueDate(LocalDate.of(2025, 9, 1));
+        details.setCustomMonths(4);
+        details.setIsActive(false);
+        details.setCreatedAt(LocalDateTime.now());
+
+        assertEquals(1, asOwner(() -> irregularExpenseRepository.updateDetails(owned, details)));
+        assertEquals(0, asOwner(() -> irregularExpenseRepository.updateDetails(other, details)));
+        Map<String, Object> updated = irregularExpenseRow(owned);
+        assertEquals("car insurance", updated.get("NAME"));
+        assertEquals("CUSTOM", updated.get("FREQUENCY"));
+        assertEquals(4, updated.get("CUSTOM_MONTHS"));
+        assertEquals(true, updated.get("IS_ACTIVE"));
+        assertEquals(CREATED_AT, ((Timestamp) updated.get("CREATED_AT")).toLocalDateTime());
+
+        assertEquals(1, asOwner(() -> irregularExpenseRepository.setActive(List.of(owned, other), false)));
+        assertEquals(1, asOwner(() -> irregularExpenseRepository.setActive(List.of(owned, other), true)));
+        assertEquals(1, asOwner(() -> irregularExpenseRepository.deactivate(owned)));
+
+        Map<String, Object> deactivated = irregularExpenseRow(owned);
+        assertEquals(false, deactivated.get("IS_ACTIVE"));
+        deactivated.put("IS_ACTIVE", true);
+        assertEquals(updated, deactivated);
+        assertEquals(otherBefore, irregularExpenseRow(other));
+    }
+
+    private int asOwner(Supplier<Integer> update) throws Exception {
+        return TenantContext.callAs(OWNER, () -> new TransactionTemplate(transactionManager).execute(status -> update.get()));
+    }
+
+    private long insertExpense(long tenantId, String name, boolean active) {
+        jdbcTemplate.update("""
+                INSERT INTO expenses (tenant_id, name, category, expense_type, fixed_amount, is_active, created_at)
+                VALUES (?, ?, 'RENT', 'FIXED', 1200.00, ?, ?)
+                """, tenantId, name, active, CREATED_AT);
+        return jdbcTemplate.queryForObject("SELECT id FROM expenses WHERE tenant_id = ? AND name = ?",
+                Long.class, tenantId, name);
+    }
+
+    private long insertIrregularExpense(long tenantId, String name) {
+        jdbcTemplate.update("""
+                INSERT INTO irregular_expenses (tenant_id, name, amount, frequency, next_due_date, is_active, created_at)
+                VALUES (?, ?, 480.00, 'ANNUAL', DATE '2025-06-01', true, ?)
+                """, tenantId, name, CREATED_AT);
+        return jdbcTemplate.queryForObject("SELECT id FROM irregular_expenses WHERE tenant_id = ? AND name = ?",
+                Long.class, tenantId, name);
+    }
+
+    private Map<String, Object> expenseRow(long id) {
+        return jdbcTemplate.queryForMap("SELECT * FROM expenses WHERE id = ?", id);
+    }
+
+    private Map<String, Object> irregularExpenseRow(long id) {
+        return jdbcTemplate.queryForMap("SELECT * FROM irregular_expenses WHERE id = ?", id);
+    }
+}
@@ -0,0 +1,218 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.EmbeddedPostgresTests;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ query plans of the finders on the year-partitioned time-series tables, against schema.sql on a real Postgres
+ * each finder runs as usual while its statements are captured, then every statement is explained with the
+ * parameters it was bound with; sequential scans are disabled for the explain, so a plan that still has one
+ * found no usable index
+ **/
+class TimeSeriesQueryPlanTests extends EmbeddedPostgresTests {
+
+    private static final long TENANT_ID = 7;
+
+    // one expense and one debt account with four years of history for each of tenants 1 to 50,
+    // which belong to this class in the shared database
+    private static final String SEED_SQL = """
+            INSERT INTO tenants (id, name) SELECT t, 'household ' || t FROM generate_series(2, 50) t;
+            INSERT INTO expenses (tenant_id, name, category, expense_type)
+            SELECT t, 'groceries', 'GROCERIES', 'VARIABLE' FROM generate_series(1, 50) t;
+            INSERT INTO debt_accounts (tenant_id, name, account_type, current_balance, minimum_payment)
+            SELECT t, 'card', 'CREDIT_CARD', 1000, 25 FROM generate_series(1, 50) t;
+            INSERT INTO variable_expense_amounts (tenant_id, expense_id, month, year, amount)
+            SELECT e.tenant_id, e.id, m, y, 100 FROM expenses e, generate_series(2024, 2027) y, generate_series(1, 12) m
+            WHERE e.tenant_id <= 50;
+            INSERT INTO debt_payments (tenant_id, debt_account_id, month, year, amount_paid)
+            SELECT d.tenant_id, d.id, m, y, 50 FROM debt_accounts d, generate_series(2024, 2027) y, generate_series(1, 12) m
+            WHERE d.tenant_id <= 50;
+            ANALYZE;
+            """;
+
+    private static final String PERIOD_INDEX = "tenant_id_period_idx";
+
+    // a partition, e.g. debt_payments_2025, and an index on one, e.g. debt_payments_2025_tenant_id_period_idx
+    private static final Pattern PARTITION = Pattern.compile("\\b(variable_expense_amounts|debt_payments)_(\\d{4}|default)\\b");
+    private static final Pattern PARTITION_INDEX =
+            Pattern.compile("\\b(?:variable_expense_amounts|debt_payments)_(?:\\d{4}|default)_(\\w+)");
+
+    // the expense and debt account seeded for TENANT_ID
+    private static long expenseId;
+    private static long debtAccountId;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private VariableExpenseAmountRepository variableExpenseAmountRepository;
+
+    @Autowired
+    private DebtPaymentRepository debtPaymentRepository;
+
+    @Autowired
+    private MonthlyBudgetSnapshotRepository snapshotRepository;
+
+    @BeforeAll
+    static void seed() throws Exception {
+        execute(SEED_SQL);
+        try (Connection connection = connection();
+             Statement statement = connection.createStatement();
+             ResultSet ids = statement.executeQuery("""
+                     SELECT (SELECT id FROM expenses WHERE tenant_id = %d),
+                            (SELECT id FROM debt_accounts WHERE tenant_id = %d)
+                     """.formatted(TENANT_ID, TENANT_ID))) {
+            ids.next();
+            expenseId = ids.getLong(1);
+            debtAccountId = ids.getLong(2);
+        }
+    }
+
+    @Test
+    void monthFindersReadOnePartitionByIndex() throws Exception {
+        assertPlans(() -> variableExpenseAmountRepository.findByMonthAndYear(3, 2025), PERIOD_INDEX, "2025");
+        assertPlans(() -> variableExpenseAmountRepository.findViewsByMonthAndYear(3, 2025), PERIOD_INDEX, "2025");
+        assertPlans(() -> debtPaymentRepository.findByMonthAndYear(3, 2025), PERIOD_INDEX, "2025");
+        assertPlans(() -> debtPaymentRepository.findViewsByMonthAndYear(3, 2025), PERIOD_INDEX, "2025");
+        assertPlans(() -> snapshotRepository.sumVariableExpenses(3, 2025), PERIOD_INDEX, "2025");
+        assertPlans(() -> debtPaymentRepository.findByDebtAccountIdAndMonthAndYear(debtAccountId, 3, 2025),
+                "tenant_id_debt_account_id_month_year_key", "2025");
+    }
+
+    @Test
+    void rangeFindersReadOnlyTheYearsInRangeByIndex() throws Exception {
+        YearMonth from = YearMonth.of(2024, 11);
+        YearMonth to = YearMonth.of(2025, 2);
+
+        assertPlans(() -> variableExpenseAmountRepository.findViewsBetween(from, to), PERIOD_INDEX, "2024", "2025");
+        assertPlans(() -> debtPaymentRepository.findViewsBetween(from, to), PERIOD_INDEX, "2024", "2025");
+        assertPlans(() -> snapshotRepository.sumVariableExpensesByMonth(from, to), PERIOD_INDEX, "2024", "2025");
+        assertPlans(() -> snapshotRepository.sumPaymentsByMonth(from, to), PERIOD_INDEX, "2024", "2025");
+    }
+
+    @Test
+    void findersWithoutAMonthReadEveryPartitionByIndex() throws Exception {
+        assertNoSequentialScans(() -> variableExpenseAmountRepository.findById(1L));
+        assertNoSequentialScans(() -> variableExpenseAmountRepository.findByExpenseId(expenseId));
+        assertNoSequentialScans(() -> debtPaymentRepository.findById(1L));
+        assertNoSequentialScans(() -> debtPaymentRepository.findByDebtAccountId(debtAccountId));
+        assertNoSequentialScans(() -> debtPaymentRepository.findViewsByDebtAccountId(debtAccountId));
+    }
+
+    /**
+     runs the finder for TENANT_ID; every statement it ran must only touch the given years' partitions,
+     * each through the given index (named by its suffix after the partition name)
+     **/
+    private void assertPlans(Runnable finder, String index, String... years) throws Exception {
+        for (String plan : plansOf(finder)) {
+            assertNoSequentialScans(plan);
+
+            Set<String> partitions = new TreeSet<>();
+            Matcher scan = PARTITION.matcher(plan);
+            while (scan.find()) {
+                partitions.add(scan.group(2));
+            }
+            assertEquals(new TreeSet<>(List.of(years)), partitions, plan);
+
+            Set<String> indexes = new TreeSet<>();
+            Matcher partitionIndex = PARTITION_INDEX.matcher(plan);
+            while (partitionIndex.find()) {
+                indexes.add(partitionIndex.group(1));
+            }
+            assertEquals(Set.of(index), indexes, plan);
+        }
+    }
+
+    private void assertNoSequentialScans(Runnable finder) throws Exception {
+        for (String plan : plansOf(finder)) {
+            assertNoSequentialScans(plan);
+        }
+    }
+
+    private static void assertNoSequentialScans(String plan) {
+        assertFalse(plan.contains("Seq Scan on variable_expense_amounts"), plan);
+        assertFalse(plan.contains("Seq Scan on debt_payments"), plan);
+    }
+
+    private List<String> plansOf(Runnable finder) throws Exception {
+        List<QueryInfo> queries = capture(finder);
+        assertFalse(queries.isEmpty());
+
+        List<String> plans = new ArrayList<>();
+        for (QueryInfo query : queries) {
+            plans.add(explain(query));
+        }
+        return plans;
+    }
+
+    private List<QueryInfo> capture(Runnable finder) {
+        List<QueryInfo> queries = new CopyOnWriteArrayList<>();
+        QueryExecutionListener listener = new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                queries.addAll(queryInfoList);
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+        };
+
+        ProxyDataSource proxy = (ProxyDataSource) dataSource;
+        proxy.addListener(listener);
+        try {
+            TenantContext.runAs(TENANT_ID, finder);
+        } finally {
+            proxy.getProxyConfig().getQueryListener().getListeners().remove(listener);
+        }
+        return queries;
+    }
+
+    private String explain(QueryInfo query) throws Exception {
+        try (Connection connection = connection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+            }
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (COSTS OFF) " + query.getQuery())) {
+                // replay the setter calls the statement was bound with
+                for (List<ParameterSetOperation> parameters : query.getParametersList()) {
+                    for (ParameterSetOperation parameter : parameters) {
+                        parameter.getMethod().invoke(statement, parameter.getArgs());
+                    }
+                }
+                List<String> lines = new ArrayList<>();
+                try (ResultSet plan = statement.executeQuery()) {
+                    while (plan.next()) {
+                        lines.add(plan.getString(1));
+                    }
+                }
+                return String.join("\n", lines);
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.briannalytical.debt_destroyer.Repository;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.EmbeddedPostgresTests;
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtPayment;
+import com.briannalytical.debt_destroyer.Model.Entity.Expense;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyIncome;
+import com.briannalytical.debt_destroyer.Model.Entity.VariableExpenseAmount;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.briannalytical.debt_destroyer.Config.TenantFilter.TENANT_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ the single-statement upserts against schema.sql on a real Postgres, since H2 cannot run ON CONFLICT ... DO UPDATE
+ * each test writes its own month, so the order the tests run in does not matter
+ **/
+class UpsertTests extends EmbeddedPostgresTests {
+
+    private static final long TENANT_ID = 501;
+
+    private static final String SEED_SQL = """
+            INSERT INTO tenants (id, name) VALUES (%1$d, 'upserts');
+            INSERT INTO expenses (tenant_id, name, category, expense_type)
+            VALUES (%1$d, 'groceries', 'GROCERIES', 'VARIABLE');
+            INSERT INTO debt_accounts (tenant_id, name, account_type, current_balance, minimum_payment)
+            VALUES (%1$d, 'visa', 'CREDIT_CARD', 1000, 25);
+            """.formatted(TENANT_ID);
+
+    @Autowired
+    private MonthlyIncomeRepository incomeRepository;
+
+    @Autowired
+    private VariableExpenseAmountRepository variableExpenseAmountRepository;
+
+    @Autowired
+    private DebtPaymentRepository debtPaymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private TenantContext.Scope tenant;
+
+    @BeforeAll
+    static void seed() {
+        execute(SEED_SQL);
+    }
+
+    @BeforeEach
+    void bindTenant() {
+        tenant = TenantContext.bind(TENANT_ID);
+    }
+
+    @AfterEach
+    void unbindTenant() {
+        tenant.close();
+    }
+
+    @Test
+    void incomeIsInsertedThenUpdatedInPlace() {
+        UpsertResult<MonthlyIncome> first = inTransaction(() -> incomeRepository.upsert(income(1, 4_000_00)));
+        UpsertResult<MonthlyIncome> second = inTransaction(() -> incomeRepository.upsert(income(1, 4_200_00)));
+
+        assertTrue(first.inserted());
+        assertFalse(second.inserted());
+        assertEquals(first.value().getId(), second.value().getId());
+        assertEquals(Money.ofCents(4_200_00), second.value().getAmount());
+        assertEquals(1, count("monthly_income", 1));
+    }
+
+    @Test
+    void variableAmountIsInsertedThenUpdatedInPlace() {
+        UpsertResult<VariableExpenseAmount> first =
+                inTransaction(() -> variableExpenseAmountRepository.upsert(variableAmount(2, 100_00, "first")));
+        UpsertResult<VariableExpenseAmount> second =
+                inTransaction(() -> variableExpenseAmountRepository.upsert(variableAmount(2, 150_00, null)));
+
+        assertTrue(first.inserted());
+        assertFalse(second.inserted());
+        assertEquals(first.value().getId(), second.value().getId());
+        assertEquals(202502, second.value().getPeriod());
+        assertEquals(Money.ofCents(150_00), second.value().getAmount());
+        assertNull(second.value().getNotes());
+        assertEquals(1, count("variable_expense_amounts", 2));
+    }
+
+    @Test
+    void paymentIsReplacedByUpsertAndAddedToByAddPayment() {
+        UpsertResult<DebtPayment> first = inTransaction(() -> debtPaymentRepository.upsert(payment(3, 50_00)));
+        UpsertResult<DebtPayment> replaced = inTransaction(() -> debtPaymentRepository.upsert(payment(3, 40_00)));
+        UpsertResult<DebtPayment> added = inTransaction(() -> debtPaymentRepository.addPayment(payment(3, 25_00)));
+
+        assertTrue(first.inserted());
+        assertFalse(replaced.inserted());
+        assertFalse(added.inserted());
+        assertEquals(first.value().getId(), added.value().getId());
+        assertEquals(Money.ofCents(40_00), replaced.value().getAmountPaid());
+        assertEquals(Money.ofCents(65_00), added.value().getAmountPaid());
+        assertEquals(1, count("debt_payments", 3));
+    }
+
+    @Test
+    void concurrentIncomeUpsertsEndInOneRow() throws Exception {
+        boolean[] inserted = concurrently(
+                () -> incomeRepository.upsert(income(4, 1_000_00)),
+                () -> incomeRepository.upsert(income(4, 2_000_00)));
+
+        assertTrue(inserted[0]);
+        assertFalse(inserted[1]);
+        assertEquals(1, count("monthly_income", 4));
+        assertEquals(new BigDecimal("2000.00"), jdbcTemplate.queryForObject(
+                "SELECT amount FROM monthly_income WHERE tenant_id = ? AND month = 4 AND year = 2025",
+                BigDecimal.class, TENANT_ID));
+    }
+
+    @Test
+    void concurrentVariableAmountUpsertsEndInOneRow() throws Exception {
+        boolean[] inserted = concurrently(
+                () -> variableExpenseAmountRepository.upsert(variableAmount(5, 100_00, "first")),
+                () -> variableExpenseAmountRepository.upsert(variableAmount(5, 200_00, "second")));
+
+        // the second statement drew its own id from the sequence but updated the first one's row
+        assertTrue(inserted[0]);
+        assertFalse(inserted[1]);
+        assertEquals(1, count("variable_expense_amounts", 5));
+    }
+
+    @Test
+    void upsertsWithoutTheirRequiredFieldsAreRejected() {
+        MonthlyIncome noAmount = income(6, 0);
+        noAmount.setAmount(null);
+        MonthlyIncome badYear = income(6, 1_00);
+        badYear.setYear(2023);
+        VariableExpenseAmount noExpense = variableAmount(6, 1_00, null);
+        noExpense.setExpense(null);
+        VariableExpenseAmount noMonth = variableAmount(6, 1_00, null);
+        noMonth.setMonth(null);
+        DebtPayment noAccount = payment(6, 1_00);
+        noAccount.setDebtAccount(null);
+        DebtPayment negative = payment(6, -1_00);
+
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> incomeRepository.upsert(noAmount));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> incomeRepository.upsert(badYear));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> variableExpenseAmountRepository.upsert(noExpense));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> variableExpenseAmountRepository.upsert(noMonth));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> debtPaymentRepository.upsert(noAccount));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> debtPaymentRepository.addPayment(negative));
+        assertEquals(0, count("monthly_income", 6));
+    }
+
+    @Test
+    void postsWithoutTheirRequiredFieldsGetBadRequest() throws Exception {
+        for (String[] request : new String[][] {
+                {"/api/income", "{\"month\": 7, \"year\": 2025}"},
+                {"/api/income", "{\"year\": 2025, \"amount\": 10.00}"},
+                {"/api/expenses/variable", "{\"expense\": {\"id\": " + expenseId() + "}, \"month\": 7, \"year\": 2025}"},
+                {"/api/expenses/variable", "{\"expense\": {\"id\": " + expenseId() + "}, \"month\": 7, \"amount\": 1}"},
+                {"/api/expenses/variable", "{\"month\": 7, \"year\": 2025, \"amount\": 10.00}"},
+                {"/api/debt-payments", "{\"month\": 7, \"year\": 2025, \"amountPaid\": 10.00}"},
+                {"/api/debt-payments", "{\"debtAccount\": {\"id\": " + accountId() + "}, \"month\": 7, \"year\": 2025}"}}) {
+            mockMvc.perform(post(request[0])
+                            .header(TENANT_HEADER, Long.toString(TENANT_ID))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(request[1]))
+                    .andExpect(status().isBadRequest());
+        }
+        assertEquals(0, count("monthly_income", 7));
+        assertEquals(0, count("variable_expense_amounts", 7));
+        assertEquals(0, count("debt_payments", 7));
+    }
+
+    /**
+     runs both upserts in their own transactions for the current tenant; the second is only started once the
+     * first has written its row, and the first only commits once the second is waiting on that row's lock
+     * returns whether each one inserted
+     **/
+    private boolean[] concurrently(Supplier<UpsertResult<?>> first, Supplier<UpsertResult<?>> second) throws Exception {
+        CountDownLatch firstWritten = new CountDownLatch(1);
+        Callable<Boolean> firstTask = TenantContext.wrap(() -> inTransaction(() -> {
+            UpsertResult<?> result = first.get();
+            firstWritten.countDown();
+            awaitLockWaiter();
+            return result.inserted();
+        }));
+        Callable<Boolean> secondTask = TenantContext.wrap(() -> {
+            firstWritten.await();
+            return inTransaction(() -> second.get().inserted());
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> firstResult = executor.submit(firstTask);
+            Future<Boolean> secondResult = executor.submit(secondTask);
+            return new boolean[] {firstResult.get(30, TimeUnit.SECONDS), secondResult.get(30, TimeUnit.SECONDS)};
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // polled on a connection of its own, since a transaction keeps seeing its first snapshot of pg_stat_activity
+    private static void awaitLockWaiter() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        try (Connection connection = connection();
+             Statement statement = connection.createStatement()) {
+            while (System.nanoTime() < deadline) {
+                try (ResultSet waiting = statement.executeQuery(
+                        "SELECT COUNT(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'")) {
+                    if (waiting.next() && waiting.getInt(1) > 0) {
+                        return;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        throw new IllegalStateException("the second upsert never waited on the first one's row");
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private static MonthlyIncome income(int month, long cents) {
+        MonthlyIncome income = new MonthlyIncome();
+        income.setMonth(month);
+        income.setYear(2025);
+        income.setAmount(Money.ofCents(cents));
+        return income;
+    }
+
+    private VariableExpenseAmount variableAmount(int month, long cents, String notes) {
+        Expense expense = new Expense();
+        expense.setId(expenseId());
+        VariableExpenseAmount amount = new VariableExpenseAmount();
+        amount.setExpense(expense);
+        amount.setMonth(month);
+        amount.setYear(2025);
+        amount.setAmount(Money.ofCents(cents));
+        amount.setNotes(notes);
+        return amount;
+    }
+
+    private DebtPayment payment(int month, long cents) {
+        DebtAccount debtAccount = new DebtAccount();
+        debtAccount.setId(accountId());
+        DebtPayment payment = new DebtPayment();
+        payment.setDebtAccount(debtAccount);
+        payment.setMonth(month);
+        payment.setYear(2025);
+        payment.setAmountPaid(Money.ofCents(cents));
+        return payment;
+    }
+
+    private long expenseId() {
+        return jdbcTemplate.queryForObject("SELECT id FROM expenses WHERE tenant_id = ?", Long.class, TENANT_ID);
+    }
+
+    private long accountId() {
+        return jdbcTemplate.queryForObject("SELECT id FROM debt_accounts WHERE tenant_id = ?", Long.class, TENANT_ID);
+    }
+
+    private int count(String table, int month) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE tenant_id = ? AND month = ? AND year = 2025",
+                Integer.class, TENANT_ID, month);
+    }
+}
@@ -0,0 +1,80 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Enum.AccountType;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService.DebtRecommendation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AllocationStrategiesTests {
+
+    private final BudgetCalculationService budgetCalculationService = new BudgetCalculationService();
+
+    @Test
+    void rankingIsAStableDescendingSort() {
+        Random random = new Random(3);
+        for (int run = 0; run < 200; run++) {
+            long[] keys = new long[random.nextInt(300)];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextInt(10) - 5;   // plenty of ties
+            }
+
+            int[] expected = IntStream.range(0, keys.length).boxed()
+                    .sorted(Comparator.comparingLong((Integer i) -> keys[i]).reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            assertArrayEquals(expected, DebtColumns.rankDescending(keys), "run " + run);
+        }
+    }
+
+    @Test
+    void strategiesRankDebtsForExtraFunds() {
+        List<DebtAccount> debts = List.of(
+                debt(1L, "900.00", "1000.00", "25.00", "19.99"),
+                debt(2L, "300.00", null, "30.00", null),
+                debt(3L, "4000.00", null, "80.00", "7.50"),
+                debt(4L, "1200.00", "6000.00", "35.00", "27.24"));
+        MonthlyBudgetSnapshot snapshot = new MonthlyBudgetSnapshot(1, 2025,
+                Money.parse("3000.00"), Money.parse("1500.00"), Money.ZERO, Money.ZERO, debts);
+
+        assertEquals(List.of(1L, 4L, 2L, 3L), rankedIds(snapshot, AllocationMethod.UTILIZATION_FIRST));
+        assertEquals(List.of(4L, 1L, 3L, 2L), rankedIds(snapshot, AllocationMethod.AVALANCHE));
+        assertEquals(List.of(2L, 1L, 4L, 3L), rankedIds(snapshot, AllocationMethod.SNOWBALL));
+
+        List<DebtRecommendation> avalanche =
+                budgetCalculationService.generateRecommendations(snapshot, AllocationMethod.AVALANCHE);
+        assertEquals("High interest rate (27.24% APR)", avalanche.get(0).getReason());
+        assertEquals(Money.parse("1200.00"), avalanche.get(0).getRecommendedPayment());
+        assertEquals(new BigDecimal("0.2000"), avalanche.get(0).getUtilization());
+    }
+
+    private List<Long> rankedIds(MonthlyBudgetSnapshot snapshot, AllocationMethod method) {
+        return budgetCalculationService.generateRecommendations(snapshot, method).stream()
+                .map(DebtRecommendation::getDebtAccountId)
+                .toList();
+    }
+
+    private DebtAccount debt(Long id, String balance, String creditLimit, String minimum, String interestRate) {
+        DebtAccount debt = new DebtAccount();
+        debt.setId(id);
+        debt.setName("Debt " + id);
+        debt.setAccountType(creditLimit == null ? AccountType.PERSONAL_LOAN : AccountType.CREDIT_CARD);
+        debt.setCurrentBalance(Money.parse(balance));
+        debt.setCreditLimit(creditLimit == null ? null : Money.parse(creditLimit));
+        debt.setMinimumPayment(Money.parse(minimum));
+        debt.setInterestRate(interestRate == null ? null : new BigDecimal(interestRate));
+        debt.setIsActive(true);
+        return debt;
+    }
+}
@@ -0,0 +1,90 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ each write evicts only the totals it changes; no transaction is active here, so evictions run at once
+ **/
+class BudgetCacheTests {
+
+    private static final long TENANT_ID = 1;
+
+    private final BudgetCache cache = new BudgetCache(100, Duration.ofMinutes(10));
+    // how often each total was loaded, i.e. missed the cache
+    private final Map<BudgetCache.Kind, Integer> loads = new EnumMap<>(BudgetCache.Kind.class);
+
+    private TenantContext.Scope tenant;
+
+    @BeforeEach
+    void setUp() {
+        tenant = TenantContext.bind(TENANT_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tenant.close();
+    }
+
+    @Test
+    void aFixedExpenseWriteKeepsVariableTotalsCached() {
+        readEverything();
+
+        cache.evictFixedExpenses();
+        readEverything();
+
+        assertEquals(2, loads.get(BudgetCache.Kind.FIXED));
+        assertEquals(2, loads.get(BudgetCache.Kind.LEFTOVER));
+        assertEquals(1, loads.get(BudgetCache.Kind.SINKING_FUND));
+        assertEquals(1, loads.get(BudgetCache.Kind.VARIABLE));
+    }
+
+    @Test
+    void aSinkingFundWriteKeepsFixedAndVariableTotalsCached() {
+        readEverything();
+
+        cache.evictSinkingFund();
+        readEverything();
+
+        assertEquals(2, loads.get(BudgetCache.Kind.SINKING_FUND));
+        assertEquals(2, loads.get(BudgetCache.Kind.LEFTOVER));
+        assertEquals(1, loads.get(BudgetCache.Kind.FIXED));
+        assertEquals(1, loads.get(BudgetCache.Kind.VARIABLE));
+    }
+
+    @Test
+    void evictingTheTenantDropsEveryTotal() {
+        readEverything();
+
+        cache.evictTenant();
+        readEverything();
+
+        for (BudgetCache.Kind kind : BudgetCache.Kind.values()) {
+            assertEquals(2, loads.get(kind), kind.name());
+        }
+    }
+
+    private void readEverything() {
+        cache.fixedExpenses(loader(BudgetCache.Kind.FIXED));
+        cache.monthlySinkingFund(loader(BudgetCache.Kind.SINKING_FUND));
+        cache.variableExpenses(1, 2025, loader(BudgetCache.Kind.VARIABLE));
+        cache.leftoverFunds(1, 2025, loader(BudgetCache.Kind.LEFTOVER));
+    }
+
+    private Supplier<Money> loader(BudgetCache.Kind kind) {
+        return () -> {
+            loads.merge(kind, 1, Integer::sum);
+            return Money.ofCents(10_000);
+        };
+    }
+}
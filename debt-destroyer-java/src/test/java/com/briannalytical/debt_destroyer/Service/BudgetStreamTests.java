@@ -0,0 +1,163 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSummary;
+import com.briannalytical.debt_destroyer.Model.Dto.RecommendationDelta;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Event.RecommendationsRecomputedEvent;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Repository.MonthlyBudgetSnapshotRepository;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService.DebtRecommendation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BudgetStreamTests {
+
+    private static final long TENANT_ID = 1;
+
+    private static final YearMonth JANUARY = YearMonth.of(2025, 1);
+    private static final YearMonth FEBRUARY = YearMonth.of(2025, 2);
+    private static final Instant COMPUTED_AT = Instant.parse("2025-01-10T08:00:00Z");
+
+    private final RecommendationStore recommendationStore = mock(RecommendationStore.class);
+    private final BudgetCalculationService budgetCalculationService = mock(BudgetCalculationService.class);
+    private final MonthlyBudgetSnapshotRepository snapshotRepository = mock(MonthlyBudgetSnapshotRepository.class);
+
+    private BudgetStream stream;
+
+    // reads and subscriptions happen on the test thread, as they would on a request thread
+    private TenantContext.Scope tenant;
+
+    @BeforeEach
+    void setUp() {
+        tenant = TenantContext.bind(TENANT_ID);
+        stream = new BudgetStream(Duration.ofMinutes(1), Duration.ofMillis(100), 3);
+        ReflectionTestUtils.setField(stream, "recommendationStore", recommendationStore);
+        ReflectionTestUtils.setField(stream, "budgetCalculationService", budgetCalculationService);
+        ReflectionTestUtils.setField(stream, "snapshotRepository", snapshotRepository);
+
+        when(snapshotRepository.sumPaymentsByMonth(JANUARY, JANUARY)).thenReturn(Map.of(JANUARY, Money.ofCents(2_500)));
+        when(budgetCalculationService.summarize(any(), any(), any()))
+                .thenAnswer(call -> summary(JANUARY, call.getArgument(2)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+        tenant.close();
+    }
+
+    @Test
+    void oneRecomputationFansOutOncePerStrategyInUse() {
+        stream.subscribe(JANUARY, FEBRUARY, AllocationMethod.AVALANCHE);
+        stream.subscribe(JANUARY, JANUARY, AllocationMethod.AVALANCHE);
+        stream.subscribe(JANUARY, JANUARY, AllocationMethod.SNOWBALL);
+        assertThrows(IllegalStateException.class, () -> stream.subscribe(JANUARY, JANUARY, AllocationMethod.SNOWBALL));
+        assertEquals(3, stream.subscriberCount());
+
+        stream.onRecomputed(recomputed(TENANT_ID));
+        // another household's change reaches none of them and loads nothing
+        stream.onRecomputed(recomputed(2));
+
+        verify(snapshotRepository, times(1)).sumPaymentsByMonth(JANUARY, JANUARY);
+        verify(budgetCalculationService, times(1)).summarize(any(), any(), eq(ranking(AllocationMethod.AVALANCHE, 5_000)));
+        verify(budgetCalculationService, times(1)).summarize(any(), any(), eq(ranking(AllocationMethod.SNOWBALL, 5_000)));
+    }
+
+    @Test
+    void rangesAreLimited() {
+        assertThrows(IllegalArgumentException.class,
+                () -> stream.subscribe(FEBRUARY, JANUARY, AllocationMethod.AVALANCHE));
+        assertThrows(IllegalArgumentException.class,
+                () -> stream.subscribe(JANUARY, JANUARY.plusMonths(BudgetStream.MAX_STREAM_MONTHS), AllocationMethod.AVALANCHE));
+        assertEquals(0, stream.subscriberCount());
+    }
+
+    @Test
+    void aClientThatFallsBehindGetsTheLatestSummaryAndTheCombinedChanges() throws Exception {
+        BudgetStream.Subscriber subscriber = new BudgetStream.Subscriber(TENANT_ID,
+                JANUARY, FEBRUARY, AllocationMethod.AVALANCHE, new SseEmitter());
+
+        // January: card 1 goes from 50.00 to 60.00 and back, card 2 is dropped; February changes once
+        List<DebtRecommendation> before = List.of(recommendation(1L, 5_000), recommendation(2L, 2_500));
+        List<DebtRecommendation> raised = List.of(recommendation(1L, 6_000));
+        List<DebtRecommendation> lowered = List.of(recommendation(1L, 4_000));
+        subscriber.offer(JANUARY, summary(JANUARY, raised), delta(JANUARY, before, raised));
+        subscriber.offer(JANUARY, summary(JANUARY, lowered), delta(JANUARY, raised, lowered));
+        subscriber.offer(FEBRUARY, summary(FEBRUARY, raised), delta(FEBRUARY, before, raised));
+
+        List<Object> sent = data(subscriber.take(Duration.ZERO));
+
+        assertEquals(4, sent.size());
+        assertEquals(lowered, ((MonthlyBudgetSummary) sent.get(0)).recommendations());
+        assertEquals(FEBRUARY.getMonthValue(), ((MonthlyBudgetSummary) sent.get(1)).month());
+        RecommendationDelta january = (RecommendationDelta) sent.get(2);
+        assertEquals(lowered, january.changed());
+        assertEquals(List.of(2L), january.removedDebtAccountIds());
+        assertEquals(FEBRUARY.getMonthValue(), ((RecommendationDelta) sent.get(3)).month());
+
+        // nothing pending: the wait ends at the heartbeat interval
+        assertTrue(subscriber.take(Duration.ofMillis(10)).isEmpty());
+    }
+
+    private static RecommendationsRecomputedEvent recomputed(long tenantId) {
+        MonthlyBudgetSnapshot snapshot = new MonthlyBudgetSnapshot(1, 2025, Money.ofCents(500_000),
+                Money.ZERO, Money.ZERO, Money.ZERO, List.of());
+        Map<AllocationMethod, List<DebtRecommendation>> previous = Map.of(
+                AllocationMethod.AVALANCHE, ranking(AllocationMethod.AVALANCHE, 4_000),
+                AllocationMethod.SNOWBALL, ranking(AllocationMethod.SNOWBALL, 4_000));
+        Map<AllocationMethod, List<DebtRecommendation>> current = Map.of(
+                AllocationMethod.AVALANCHE, ranking(AllocationMethod.AVALANCHE, 5_000),
+                AllocationMethod.SNOWBALL, ranking(AllocationMethod.SNOWBALL, 5_000));
+        return new RecommendationsRecomputedEvent(tenantId, snapshot, COMPUTED_AT, previous, current);
+    }
+
+    private static List<DebtRecommendation> ranking(AllocationMethod method, long cents) {
+        return List.of(new DebtRecommendation(1L, "card", Money.ofCents(cents), 1, method.name(), null));
+    }
+
+    private static DebtRecommendation recommendation(Long debtAccountId, long cents) {
+        return new DebtRecommendation(debtAccountId, "card " + debtAccountId, Money.ofCents(cents), 1, "Minimum payment", null);
+    }
+
+    private static MonthlyBudgetSummary summary(YearMonth month, List<DebtRecommendation> recommendations) {
+        return new MonthlyBudgetSummary(month.getMonthValue(), month.getYear(), Money.ofCents(500_000), Money.ZERO,
+                Money.ZERO, Money.ZERO, Money.ZERO, Money.ofCents(500_000), Money.ZERO, recommendations);
+    }
+
+    private static RecommendationDelta delta(YearMonth month, List<DebtRecommendation> previous,
+                                             List<DebtRecommendation> current) {
+        return RecommendationDelta.between(month.getMonthValue(), month.getYear(), AllocationMethod.AVALANCHE,
+                COMPUTED_AT, previous, current);
+    }
+
+    // the payload of each event, skipping the "event:" and "data:" framing
+    private static List<Object> data(List<SseEmitter.SseEventBuilder> events) {
+        List<Object> data = new ArrayList<>();
+        for (SseEmitter.SseEventBuilder event : events) {
+            for (DataWithMediaType part : event.build()) {
+                if (!(part.getData() instanceof String)) {
+                    data.add(part.getData());
+                }
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,175 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.EmbeddedPostgresTests;
+import com.briannalytical.debt_destroyer.Model.Dto.PaymentPosting;
+import com.briannalytical.debt_destroyer.Model.Dto.UpsertResult;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtPayment;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ payments against schema.sql on a real Postgres, since posting relies on its upsert and row locking
+ * each test works on its own seeded accounts
+ **/
+class DebtPaymentServiceTests extends EmbeddedPostgresTests {
+
+    private static final long TENANT_ID = 101;
+
+    // cards 1 to 6, each with a balance of 100.00
+    private static final String SEED_SQL = """
+            INSERT INTO tenants (id, name) VALUES (%1$d, 'payments');
+            INSERT INTO debt_accounts (tenant_id, name, account_type, current_balance, minimum_payment)
+            SELECT %1$d, 'card ' || n, 'CREDIT_CARD', 100, 25 FROM generate_series(1, 6) n;
+            """.formatted(TENANT_ID);
+
+    @Autowired
+    private DebtPaymentService debtPaymentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TenantContext.Scope tenant;
+
+    @BeforeAll
+    static void seed() {
+        execute(SEED_SQL);
+    }
+
+    @BeforeEach
+    void bindTenant() {
+        tenant = TenantContext.bind(TENANT_ID);
+    }
+
+    @AfterEach
+    void unbindTenant() {
+        tenant.close();
+    }
+
+    @Test
+    void paymentsInTheSameMonthAddUpAndComeOffTheBalance() {
+        long card = card(1);
+        UpsertResult<DebtPayment> first = debtPaymentService.post(payment(card, 3_000)).orElseThrow();
+        UpsertResult<DebtPayment> second = debtPaymentService.post(payment(card, 2_000)).orElseThrow();
+
+        assertTrue(first.inserted());
+        assertFalse(second.inserted());
+        assertEquals(new BigDecimal("50.00"), amountPaid(card));
+        assertEquals(new BigDecimal("50.00"), balance(card));
+    }
+
+    @Test
+    void aPaymentTheBalanceDoesNotCoverIsRejected() {
+        long card = card(2);
+        assertThrows(IllegalArgumentException.class, () -> debtPaymentService.post(payment(card, 10_001)));
+        assertTrue(debtPaymentService.post(payment(Long.MAX_VALUE, 1_000)).isEmpty());
+
+        assertEquals(new BigDecimal("100.00"), balance(card));
+        assertNull(amountPaid(card));
+    }
+
+    @Test
+    void aBatchPostsEveryPaymentOrNone() {
+        long third = card(3);
+        long fourth = card(4);
+        List<PaymentPosting> shortOne = List.of(
+                new PaymentPosting(third, Money.ofCents(1_000)),
+                new PaymentPosting(fourth, Money.ofCents(20_000)));
+        assertThrows(IllegalArgumentException.class, () -> debtPaymentService.postMonth(1, 2025, shortOne));
+        assertEquals(new BigDecimal("100.00"), balance(third));
+        assertNull(amountPaid(third));
+
+        List<PaymentPosting> payments = List.of(
+                new PaymentPosting(fourth, Money.ofCents(2_500)),
+                new PaymentPosting(third, Money.ofCents(1_000)));
+        assertEquals(2, debtPaymentService.postMonth(1, 2025, payments));
+        assertEquals(new BigDecimal("90.00"), balance(third));
+        assertEquals(new BigDecimal("75.00"), balance(fourth));
+        assertEquals(new BigDecimal("25.00"), amountPaid(fourth));
+    }
+
+    @Test
+    void paymentsOutsideTheSchemaBoundsAreRejectedBeforeTheBalanceChanges() {
+        long card = card(6);
+        DebtPayment badMonth = payment(card, 1_000);
+        badMonth.setMonth(13);
+        DebtPayment badYear = payment(card, 1_000);
+        badYear.setYear(2023);
+        List<PaymentPosting> batch = List.of(new PaymentPosting(card, Money.ofCents(1_000)));
+
+        assertThrows(IllegalArgumentException.class, () -> debtPaymentService.post(badMonth));
+        assertThrows(IllegalArgumentException.class, () -> debtPaymentService.post(badYear));
+        assertThrows(IllegalArgumentException.class, () -> debtPaymentService.postMonth(0, 2025, batch));
+        assertThrows(IllegalArgumentException.class, () -> debtPaymentService.postMonth(1, 2023, batch));
+        assertEquals(new BigDecimal("100.00"), balance(card));
+    }
+
+    @Test
+    void concurrentPaymentsNeverTakeTheBalanceBelowZero() throws Exception {
+        long card = card(5);
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Boolean> pay = TenantContext.wrap(() -> {
+            start.await();
+            try {
+                return debtPaymentService.post(payment(card, 6_000)).isPresent();
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = executor.submit(pay);
+            Future<Boolean> second = executor.submit(pay);
+            start.countDown();
+            assertNotEquals(first.get(), second.get());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(new BigDecimal("40.00"), balance(card));
+        assertEquals(new BigDecimal("60.00"), amountPaid(card));
+    }
+
+    private static DebtPayment payment(Long debtAccountId, long cents) {
+        DebtAccount debtAccount = new DebtAccount();
+        debtAccount.setId(debtAccountId);
+        DebtPayment payment = new DebtPayment();
+        payment.setDebtAccount(debtAccount);
+        payment.setMonth(1);
+        payment.setYear(2025);
+        payment.setAmountPaid(Money.ofCents(cents));
+        return payment;
+    }
+
+    private long card(int number) {
+        return jdbcTemplate.queryForObject("SELECT id FROM debt_accounts WHERE tenant_id = ? AND name = ?",
+                Long.class, TENANT_ID, "card " + number);
+    }
+
+    private BigDecimal balance(Long debtAccountId) {
+        return jdbcTemplate.queryForObject("SELECT current_balance FROM debt_accounts WHERE id = ?",
+                BigDecimal.class, debtAccountId);
+    }
+
+    private BigDecimal amountPaid(Long debtAccountId) {
+        return jdbcTemplate.query("SELECT amount_paid FROM debt_payments WHERE debt_account_id = ? AND month = 1 AND year = 2025",
+                        (row, i) -> row.getBigDecimal(1), debtAccountId)
+                .stream().findFirst().orElse(null);
+    }
+}
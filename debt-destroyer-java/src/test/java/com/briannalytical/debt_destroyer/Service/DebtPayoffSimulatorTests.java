@@ -0,0 +1,137 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Enum.AccountType;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DebtPayoffSimulatorTests {
+
+    private final BudgetCalculationService budgetCalculationService = new BudgetCalculationService();
+
+    @Test
+    void firstMonthMatchesGenerateRecommendations() {
+        Random random = new Random(42);
+
+        for (int run = 0; run < 500; run++) {
+            List<DebtAccount> debts = randomDebts(random, 1 + random.nextInt(12));
+            MonthlyBudgetSnapshot snapshot = new MonthlyBudgetSnapshot(
+                    1, 2025,
+                    cents(random.nextInt(1_000_000)),
+                    cents(random.nextInt(200_000)),
+                    cents(random.nextInt(100_000)),
+                    cents(random.nextInt(50_000)),
+                    debts);
+
+            Map<Long, Money> expected = new HashMap<>();
+            budgetCalculationService.generateRecommendations(snapshot)
+                    .forEach(r -> expected.put(r.getDebtAccountId(), r.getRecommendedPayment()));
+
+            DebtPayoffSimulator.Simulation simulation = simulationFor(debts, 1);
+            simulation.run(budgetCalculationService.calculateLeftoverFunds(snapshot).cents());
+
+            for (int i = 0; i < debts.size(); i++) {
+                Money recommended = expected.getOrDefault(debts.get(i).getId(), Money.ZERO);
+                assertEquals(recommended.cents(), simulation.firstMonthPayments[i],
+                        "run " + run + ", account " + debts.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    void balancesReachZeroAndTotalPaidMatchesStartingBalance() {
+        List<DebtAccount> debts = List.of(
+                debt(1L, "2500.00", "5000.00", "50.00"),
+                debt(2L, "900.00", null, "75.00"));
+
+        DebtPayoffSimulator.Simulation simulation = simulationFor(debts, 360);
+        simulation.run(Money.parse("400.00").cents());
+
+        assertTrue(simulation.allPaidOff());
+        assertEquals(250_000, simulation.totalPaid[0]);
+        assertEquals(90_000, simulation.totalPaid[1]);
+        assertEquals(simulation.monthsSimulated,
+                Math.max(simulation.monthsToZero[0], simulation.monthsToZero[1]));
+    }
+
+    @Test
+    void minimumsOfAClosedAccountGoToTheOthers() {
+        // the loan is paid off in month 2; the card, ranked first at full utilization, then gets the whole budget
+        List<DebtAccount> debts = List.of(
+                debt(1L, "100.00", null, "50.00"),
+                debt(2L, "3000.00", "3000.00", "100.00"));
+
+        DebtPayoffSimulator.Simulation simulation = simulationFor(debts, 360);
+        simulation.run(Money.parse("300.00").cents());
+
+        assertEquals(2, simulation.monthsToZero[0]);
+        List<Long> cardBalances = new ArrayList<>();
+        for (int month = 0; month < 4; month++) {
+            cardBalances.add(simulation.trajectory[month * debts.size() + 1]);
+        }
+        assertEquals(List.of(275_000L, 250_000L, 220_000L, 190_000L), cardBalances);
+        assertEquals(11, simulation.monthsSimulated);
+        assertEquals(10_000, simulation.totalPaid[0]);
+        assertEquals(300_000, simulation.totalPaid[1]);
+    }
+
+    @Test
+    void aBalanceBelowItsMinimumOnlyOwesTheBalance() {
+        List<DebtAccount> debts = List.of(
+                debt(1L, "20.00", null, "50.00"),
+                debt(2L, "1000.00", "2000.00", "100.00"));
+
+        DebtPayoffSimulator.Simulation simulation = simulationFor(debts, 1);
+        assertEquals(12_000, simulation.minimumsDue());
+        simulation.run(Money.parse("200.00").cents());
+
+        assertEquals(2_000, simulation.firstMonthPayments[0]);
+        assertEquals(18_000, simulation.firstMonthPayments[1]);
+    }
+
+    private DebtPayoffSimulator.Simulation simulationFor(List<DebtAccount> debts, int months) {
+        return new DebtPayoffSimulator.Simulation(DebtColumns.of(debts),
+                AllocationStrategies.of(AllocationMethod.UTILIZATION_FIRST), months, true);
+    }
+
+    private List<DebtAccount> randomDebts(Random random, int count) {
+        List<DebtAccount> debts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DebtAccount debt = new DebtAccount();
+            debt.setId((long) i + 1);
+            debt.setName("Debt " + (i + 1));
+            debt.setAccountType(AccountType.CREDIT_CARD);
+            debt.setCurrentBalance(cents(random.nextInt(2_000_000)));
+            debt.setCreditLimit(random.nextInt(4) == 0 ? null : cents(1 + random.nextInt(3_000_000)));
+            debt.setMinimumPayment(cents(random.nextInt(50_000)));
+            debts.add(debt);
+        }
+        return debts;
+    }
+
+    private DebtAccount debt(Long id, String balance, String creditLimit, String minimum) {
+        DebtAccount debt = new DebtAccount();
+        debt.setId(id);
+        debt.setName("Debt " + id);
+        debt.setAccountType(AccountType.CREDIT_CARD);
+        debt.setCurrentBalance(Money.parse(balance));
+        debt.setCreditLimit(creditLimit == null ? null : Money.parse(creditLimit));
+        debt.setMinimumPayment(Money.parse(minimum));
+        return debt;
+    }
+
+    private Money cents(long cents) {
+        return Money.ofCents(cents);
+    }
+}
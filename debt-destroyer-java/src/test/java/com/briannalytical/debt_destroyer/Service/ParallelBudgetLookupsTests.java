@@ -0,0 +1,102 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Entity.MonthlyIncome;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Repository.DebtAccountRepository;
+import com.briannalytical.debt_destroyer.Repository.MonthlyBudgetSnapshotRepository;
+import com.briannalytical.debt_destroyer.Repository.MonthlyIncomeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelBudgetLookupsTests {
+
+    private static final long TENANT_ID = 1;
+
+    private final MonthlyBudgetSnapshotRepository snapshotRepository = mock(MonthlyBudgetSnapshotRepository.class);
+    private final MonthlyIncomeRepository incomeRepository = mock(MonthlyIncomeRepository.class);
+    private final DebtAccountRepository debtAccountRepository = mock(DebtAccountRepository.class);
+
+    private ParallelBudgetLookups lookups;
+
+    // lookups are started from the test thread, as they would be from a request thread
+    private TenantContext.Scope tenant;
+
+    @BeforeEach
+    void setUp() {
+        tenant = TenantContext.bind(TENANT_ID);
+        lookups = new ParallelBudgetLookups();
+        ReflectionTestUtils.setField(lookups, "snapshotRepository", snapshotRepository);
+        ReflectionTestUtils.setField(lookups, "incomeRepository", incomeRepository);
+        ReflectionTestUtils.setField(lookups, "debtAccountRepository", debtAccountRepository);
+        ReflectionTestUtils.setField(lookups, "budgetCache", new BudgetCache(0, Duration.ofMinutes(10)));
+        ReflectionTestUtils.setField(lookups, "timeout", Duration.ofSeconds(2));
+
+        when(snapshotRepository.sumFixedExpenses()).thenReturn(Money.ofCents(150_000));
+        when(snapshotRepository.sumMonthlySinkingFund()).thenReturn(Money.ofCents(8_333));
+        when(debtAccountRepository.findByIsActiveTrueOrderByIdAsc()).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        lookups.shutdown();
+        tenant.close();
+    }
+
+    @Test
+    void lookupsOverlapInsteadOfRunningInSequence() {
+        // the variable and income lookups each wait for the other to start, so a sequential load would fail
+        CountDownLatch allStarted = new CountDownLatch(2);
+        when(snapshotRepository.sumVariableExpenses(1, 2025)).thenAnswer(call -> {
+            allStarted.countDown();
+            assertTrue(allStarted.await(1, TimeUnit.SECONDS));
+            return Money.ofCents(40_010);
+        });
+        when(incomeRepository.findByMonthAndYear(1, 2025)).thenAnswer(call -> {
+            allStarted.countDown();
+            assertTrue(allStarted.await(1, TimeUnit.SECONDS));
+            MonthlyIncome income = new MonthlyIncome();
+            income.setAmount(Money.ofCents(500_000));
+            return Optional.of(income);
+        });
+
+        MonthlyBudgetSnapshot snapshot = lookups.loadSnapshot(1, 2025);
+
+        assertEquals(Money.ofCents(500_000), snapshot.income());
+        assertEquals(Money.ofCents(150_000), snapshot.fixedTotal());
+        assertEquals(Money.ofCents(40_010), snapshot.variableTotal());
+        assertEquals(Money.ofCents(8_333), snapshot.sinkingFundTotal());
+    }
+
+    @Test
+    void timeoutCancelsLookupsStillRunning() throws InterruptedException {
+        ReflectionTestUtils.setField(lookups, "timeout", Duration.ofMillis(100));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(snapshotRepository.sumVariableExpenses(1, 2025)).thenAnswer(call -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return Money.ZERO;
+        });
+        when(incomeRepository.findByMonthAndYear(1, 2025)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> lookups.loadSnapshot(1, 2025));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,113 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Dto.StoredRecommendations;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Event.BudgetChangedEvent;
+import com.briannalytical.debt_destroyer.Model.Event.RecommendationsRecomputedEvent;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Service.BudgetCalculationService.DebtRecommendation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class RecommendationStoreTests {
+
+    private static final long TENANT_ID = 1;
+
+    private static final Instant FIRST = Instant.parse("2025-01-10T08:00:00Z");
+    private static final Instant SECOND = Instant.parse("2025-01-10T08:05:00Z");
+
+    private final BudgetCalculationService budgetCalculationService = mock(BudgetCalculationService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final Clock clock = mock(Clock.class);
+    // the tenant each snapshot was loaded for
+    private final List<Long> loadedFor = new CopyOnWriteArrayList<>();
+
+    private RecommendationStore store;
+
+    // reads and subscriptions happen on the test thread, as they would on a request thread
+    private TenantContext.Scope tenant;
+
+    @BeforeEach
+    void setUp() {
+        tenant = TenantContext.bind(TENANT_ID);
+        store = new RecommendationStore(Duration.ofMillis(200), 100, clock);
+        ReflectionTestUtils.setField(store, "budgetCalculationService", budgetCalculationService);
+        ReflectionTestUtils.setField(store, "eventPublisher", eventPublisher);
+
+        when(clock.instant()).thenReturn(FIRST, SECOND);
+        when(budgetCalculationService.loadSnapshot(anyInt(), anyInt())).thenAnswer(call -> {
+            loadedFor.add(TenantContext.currentTenantId());
+            return new MonthlyBudgetSnapshot(call.getArgument(0), call.getArgument(1),
+                    Money.ofCents(500_000), Money.ZERO, Money.ZERO, Money.ZERO, List.of());
+        });
+        when(budgetCalculationService.generateRecommendations(any(MonthlyBudgetSnapshot.class), any()))
+                .thenAnswer(call -> List.of(new DebtRecommendation(1L, "card", Money.ofCents(2_500), 1,
+                        call.getArgument(1, AllocationMethod.class).name(), null)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+        tenant.close();
+    }
+
+    @Test
+    void firstReadComputesEveryStrategyAndLaterReadsServeTheStoredResult() {
+        StoredRecommendations first = store.get(1, 2025, AllocationMethod.AVALANCHE);
+        StoredRecommendations second = store.get(1, 2025, AllocationMethod.SNOWBALL);
+
+        assertEquals(FIRST, first.computedAt());
+        assertEquals("AVALANCHE", first.recommendations().get(0).getReason());
+        assertEquals(FIRST, second.computedAt());
+        assertEquals("SNOWBALL", second.recommendations().get(0).getReason());
+        verify(budgetCalculationService, times(1)).loadSnapshot(1, 2025);
+    }
+
+    @Test
+    void aBurstOfWritesRecomputesOnceAfterTheDebounce() {
+        store.get(1, 2025, AllocationMethod.UTILIZATION_FIRST);
+
+        for (int i = 0; i < 5; i++) {
+            store.onBudgetChanged(new BudgetChangedEvent(TENANT_ID, 1, 2025));
+        }
+        // until the recomputation lands the previous result is served
+        assertEquals(FIRST, store.get(1, 2025, AllocationMethod.UTILIZATION_FIRST).computedAt());
+
+        verify(budgetCalculationService, timeout(2_000).times(2)).loadSnapshot(1, 2025);
+        verify(budgetCalculationService, after(500).times(2)).loadSnapshot(1, 2025);
+        assertEquals(SECOND, store.get(1, 2025, AllocationMethod.UTILIZATION_FIRST).computedAt());
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) ->
+                event instanceof RecommendationsRecomputedEvent recomputed && recomputed.computedAt().equals(SECOND)));
+    }
+
+    @Test
+    void writesOnlyRecomputeMonthsAlreadyStoredForTheirTenant() {
+        store.get(1, 2025, AllocationMethod.UTILIZATION_FIRST);
+        TenantContext.runAs(2, () -> store.get(1, 2025, AllocationMethod.UTILIZATION_FIRST));
+
+        // a month nobody has read, then a change to every month of tenant 2
+        store.onBudgetChanged(new BudgetChangedEvent(TENANT_ID, 2, 2025));
+        store.onBudgetChanged(new BudgetChangedEvent(2, null, null));
+
+        verify(budgetCalculationService, after(700).times(3)).loadSnapshot(anyInt(), anyInt());
+        assertEquals(List.of(1L, 2L, 2L), loadedFor);
+        assertEquals(2, store.size());
+    }
+}
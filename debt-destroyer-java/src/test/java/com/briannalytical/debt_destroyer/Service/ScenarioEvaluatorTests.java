@@ -0,0 +1,121 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Model.Dto.MonthlyBudgetSnapshot;
+import com.briannalytical.debt_destroyer.Model.Dto.ScenarioEvaluation.ScenarioOutcome;
+import com.briannalytical.debt_destroyer.Model.Dto.ScenarioRequest;
+import com.briannalytical.debt_destroyer.Model.Entity.DebtAccount;
+import com.briannalytical.debt_destroyer.Model.Enum.AccountType;
+import com.briannalytical.debt_destroyer.Model.Enum.AllocationMethod;
+import com.briannalytical.debt_destroyer.Model.Enum.ShockTarget;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScenarioEvaluatorTests {
+
+    private final MonthlyBudgetSnapshot snapshot = new MonthlyBudgetSnapshot(
+            1, 2025,
+            Money.parse("4000.00"),
+            Money.parse("2000.00"),
+            Money.parse("600.00"),
+            Money.parse("100.00"),
+            List.of(
+                    debt(1L, "2500.00", "5000.00", "50.00"),
+                    debt(2L, "9000.00", null, "200.00")));
+
+    @Test
+    void unshockedScenarioPaysOffLikeTheProjection() {
+        ScenarioEvaluator.Base base = ScenarioEvaluator.Base.of(snapshot);
+        DebtPayoffSimulator.Simulation projection = new DebtPayoffSimulator.Simulation(
+                base.debts().withOwnBalances(), AllocationStrategies.of(AllocationMethod.UTILIZATION_FIRST), 360, true);
+        projection.run(new BudgetCalculationService().calculateLeftoverFunds(snapshot).cents());
+
+        ScenarioOutcome outcome = evaluate(1, 7L,
+                new ScenarioEvaluator.CompiledScenario("baseline", 1, new ScenarioEvaluator.CompiledShock[0]));
+
+        assertEquals(projection.monthsSimulated, outcome.payoffMonthsP50());
+        assertEquals(0, outcome.probabilityMissingMinimums().signum());
+        assertEquals(new BigDecimal("1.0000"), outcome.probabilityPaidOff());
+    }
+
+    @Test
+    void sampledShocksGiveTheSameDistributionsForAnyParallelism() {
+        ScenarioEvaluator.CompiledScenario incomeDrop = new ScenarioEvaluator.CompiledScenario("income drop", 2_000,
+                new ScenarioEvaluator.CompiledShock[] {
+                        new ScenarioEvaluator.CompiledShock(ShockTarget.INCOME, 0, -6_000, 0, 0, 3),
+                        new ScenarioEvaluator.CompiledShock(ShockTarget.VARIABLE_EXPENSES, 0, 0, 3_000, 0, 360)
+                });
+
+        ScenarioOutcome sequential = evaluate(1, 42L, incomeDrop);
+        ScenarioOutcome parallel = evaluate(4, 42L, incomeDrop);
+
+        assertEquals(sequential, parallel);
+        assertTrue(sequential.probabilityMissingMinimums().signum() > 0);
+        assertTrue(sequential.payoffMonthsP10() <= sequential.payoffMonthsP50());
+        assertTrue(sequential.payoffMonthsP50() <= sequential.payoffMonthsP90());
+    }
+
+    @Test
+    void lostIncomeMissesMinimumsAndNeverPaysOff() {
+        ScenarioOutcome outcome = evaluate(2, 1L, new ScenarioEvaluator.CompiledScenario("no income", 10,
+                new ScenarioEvaluator.CompiledShock[] {
+                        new ScenarioEvaluator.CompiledShock(ShockTarget.INCOME, 0, -10_000, -10_000, 0, 600)
+                }));
+
+        assertEquals(new BigDecimal("1.0000"), outcome.probabilityMissingMinimums());
+        assertEquals(0, outcome.probabilityPaidOff().signum());
+        assertNull(outcome.payoffMonthsP10());
+    }
+
+    @Test
+    void shockMonthsBeyondTheProjectionAreRejected() {
+        int limit = DebtPayoffSimulator.MAX_PROJECTION_MONTHS;
+
+        ScenarioEvaluator.CompiledShock longest = ScenarioEvaluator.compile(scenario(limit, limit), Map.of())
+                .shocks()[0];
+        assertEquals(limit, longest.firstMonth());
+        assertEquals(2 * limit, longest.endMonth());
+        // startMonth + durationMonths would overflow an int
+        assertThrows(IllegalArgumentException.class,
+                () -> ScenarioEvaluator.compile(scenario(1, Integer.MAX_VALUE), Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScenarioEvaluator.compile(scenario(Integer.MAX_VALUE, 1), Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScenarioEvaluator.compile(scenario(limit + 1, 1), Map.of()));
+    }
+
+    private ScenarioRequest.Scenario scenario(int startMonth, int durationMonths) {
+        return new ScenarioRequest.Scenario("shocked", 1, List.of(new ScenarioRequest.Shock(
+                ShockTarget.INCOME, null, new BigDecimal("-10"), null, startMonth, durationMonths)));
+    }
+
+    private ScenarioOutcome evaluate(int parallelism, long seed, ScenarioEvaluator.CompiledScenario scenario) {
+        ScenarioEvaluator evaluator = new ScenarioEvaluator(parallelism);
+        try {
+            return evaluator.run(ScenarioEvaluator.Base.of(snapshot), List.of(scenario),
+                    AllocationStrategies.of(AllocationMethod.UTILIZATION_FIRST), 360, seed).get(0);
+        } finally {
+            evaluator.shutdown();
+        }
+    }
+
+    private DebtAccount debt(Long id, String balance, String creditLimit, String minimum) {
+        DebtAccount debt = new DebtAccount();
+        debt.setId(id);
+        debt.setName("Debt " + id);
+        debt.setAccountType(creditLimit == null ? AccountType.PERSONAL_LOAN : AccountType.CREDIT_CARD);
+        debt.setCurrentBalance(Money.parse(balance));
+        debt.setCreditLimit(creditLimit == null ? null : Money.parse(creditLimit));
+        debt.setMinimumPayment(Money.parse(minimum));
+        debt.setIsActive(true);
+        return debt;
+    }
+}
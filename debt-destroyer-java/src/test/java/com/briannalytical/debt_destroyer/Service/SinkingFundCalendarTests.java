@@ -0,0 +1,169 @@
+package com.briannalytical.debt_destroyer.Service;
+
+import com.briannalytical.debt_destroyer.Config.TenantContext;
+import com.briannalytical.debt_destroyer.Model.Dto.SinkingFundMonth.DueBill;
+import com.briannalytical.debt_destroyer.Model.Entity.IrregularExpense;
+import com.briannalytical.debt_destroyer.Model.Enum.Frequency;
+import com.briannalytical.debt_destroyer.Model.Type.Money;
+import com.briannalytical.debt_destroyer.Repository.IrregularExpenseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SinkingFundCalendarTests {
+
+    private static final YearMonth START = YearMonth.of(2025, 1);
+
+    @Test
+    void occurrencesAreSavedForOverTheMonthsBeforeTheyLand() {
+        // due in March: January to March share it; June's occurrence is saved for April to June
+        IrregularExpense quarterly = expense(1L, "300.00", Frequency.QUARTERLY, null, LocalDate.of(2025, 3, 15));
+        SinkingFundCalendar.Index index = new SinkingFundCalendar.Index(START, 7, List.of(quarterly));
+        SinkingFundCalendar.View view = index.view;
+
+        assertArrayEquals(new long[] {10_000, 10_000, 10_000, 10_000, 10_000, 10_000, 10_000}, view.sinkingCents());
+        assertArrayEquals(new long[] {0, 0, 30_000, 0, 0, 30_000, 0}, view.dueCents());
+        assertEquals(LocalDate.of(2025, 6, 15), view.dueBills()[5][0].dueDate());
+
+        // an annual bill two months out has to be covered by the two months left
+        IrregularExpense annual = expense(2L, "100.00", Frequency.ANNUAL, null, LocalDate.of(2025, 2, 1));
+        index.put(annual);
+        assertEquals(15_000, index.view.sinkingCents()[0]);
+        assertEquals(15_000, index.view.sinkingCents()[1]);
+        // next February's occurrence starts in March: 100.00 over 12 months, the first 4 carry the odd cents
+        assertEquals(10_000 + 834, index.view.sinkingCents()[2]);
+    }
+
+    @Test
+    void pastDueDatesRollForwardWithoutDrifting() {
+        IrregularExpense custom = expense(1L, "50.00", Frequency.CUSTOM, 2, LocalDate.of(2024, 8, 31));
+        SinkingFundCalendar.Index index = new SinkingFundCalendar.Index(START, 6, List.of(custom));
+
+        List<LocalDate> dueDates = new ArrayList<>();
+        for (DueBill[] month : index.view.dueBills()) {
+            for (DueBill bill : month) {
+                dueDates.add(bill.dueDate());
+            }
+        }
+        assertEquals(List.of(LocalDate.of(2025, 2, 28), LocalDate.of(2025, 4, 30), LocalDate.of(2025, 6, 30)),
+                dueDates);
+    }
+
+    @Test
+    void incrementalChangesMatchAFullRebuild() {
+        Random random = new Random(7);
+        Map<Long, IrregularExpense> expenses = new HashMap<>();
+        for (long id = 1; id <= 40; id++) {
+            expenses.put(id, randomExpense(random, id));
+        }
+        SinkingFundCalendar.Index index = new SinkingFundCalendar.Index(START, 24, List.copyOf(expenses.values()));
+
+        for (int change = 0; change < 200; change++) {
+            long id = 1 + random.nextInt(50);
+            if (random.nextInt(4) == 0) {
+                expenses.remove(id);
+                index.remove(id);
+            } else {
+                IrregularExpense expense = randomExpense(random, id);
+                expenses.put(id, expense);
+                index.put(expense);
+            }
+        }
+
+        List<IrregularExpense> active = expenses.values().stream()
+                .filter(IrregularExpense::getIsActive)
+                .toList();
+        SinkingFundCalendar.View rebuilt = new SinkingFundCalendar.Index(START, 24, active).view;
+        assertArrayEquals(rebuilt.sinkingCents(), index.view.sinkingCents());
+        assertArrayEquals(rebuilt.dueCents(), index.view.dueCents());
+        for (int month = 0; month < 24; month++) {
+            assertArrayEquals(rebuilt.dueBills()[month], index.view.dueBills()[month], "month " + month);
+        }
+
+        long totalDue = 0;
+        for (long due : rebuilt.dueCents()) {
+            totalDue += due;
+        }
+        assertTrue(totalDue > 0);
+    }
+
+    @Test
+    void inactiveExpensesAreLeftOutOfABuild() {
+        IrregularExpense active = expense(1L, "300.00", Frequency.QUARTERLY, null, LocalDate.of(2025, 3, 15));
+        IrregularExpense inactive = expense(2L, "120.00", Frequency.ANNUAL, null, LocalDate.of(2025, 2, 1), false);
+
+        SinkingFundCalendar.View withInactive = new SinkingFundCalendar.Index(START, 12, List.of(active, inactive)).view;
+        SinkingFundCalendar.View activeOnly = new SinkingFundCalendar.Index(START, 12, List.of(active)).view;
+
+        assertArrayEquals(activeOnly.sinkingCents(), withInactive.sinkingCents());
+        assertArrayEquals(activeOnly.dueCents(), withInactive.dueCents());
+    }
+
+    @Test
+    void aChangeCommittedWhileTheIndexIsReadIsNotLost() throws Exception {
+        Clock clock = Clock.fixed(START.atDay(10).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        SinkingFundCalendar calendar = new SinkingFundCalendar(12, 10, clock);
+        IrregularExpenseRepository repository = mock(IrregularExpenseRepository.class);
+        ReflectionTestUtils.setField(calendar, "irregularExpenseRepository", repository);
+
+        IrregularExpense before = expense(1L, "300.00", Frequency.QUARTERLY, null, LocalDate.of(2025, 3, 15));
+        IrregularExpense after = expense(1L, "600.00", Frequency.QUARTERLY, null, LocalDate.of(2025, 3, 15));
+        // the first read returns the old row, and the edit commits before that read's index is installed
+        when(repository.findByIsActiveTrue())
+                .thenAnswer(call -> {
+                    calendar.expenseChanged(after);
+                    return List.of(before);
+                })
+                .thenReturn(List.of(after));
+
+        Money march = TenantContext.callAs(1, () -> calendar.sinkingFund(YearMonth.of(2025, 3)));
+
+        assertEquals(Money.parse("200.00"), march);
+        verify(repository, times(2)).findByIsActiveTrue();
+    }
+
+    private IrregularExpense randomExpense(Random random, long id) {
+        Frequency frequency = Frequency.values()[random.nextInt(Frequency.values().length)];
+        return expense(id,
+                Money.ofCents(1 + random.nextInt(500_000)).toString(),
+                frequency,
+                frequency == Frequency.CUSTOM ? random.nextInt(19) : null,
+                LocalDate.of(2024, 1, 1).plusDays(random.nextInt(900)),
+                random.nextInt(5) != 0);
+    }
+
+    private IrregularExpense expense(Long id, String amount, Frequency frequency, Integer customMonths,
+                                     LocalDate nextDueDate) {
+        return expense(id, amount, frequency, customMonths, nextDueDate, true);
+    }
+
+    private IrregularExpense expense(Long id, String amount, Frequency frequency, Integer customMonths,
+                                     LocalDate nextDueDate, boolean active) {
+        IrregularExpense expense = new IrregularExpense();
+        expense.setId(id);
+        expense.setName("Irregular " + id);
+        expense.setAmount(Money.parse(amount));
+        expense.setFrequency(frequency);
+        expense.setCustomMonths(customMonths);
+        expense.setNextDueDate(nextDueDate);
+        expense.setIsActive(active);
+        return expense;
+    }
+}
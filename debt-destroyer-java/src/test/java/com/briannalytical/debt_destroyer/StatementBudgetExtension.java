@@ -0,0 +1,80 @@
+package com.briannalytical.debt_destroyer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ fails any integration test during which a request went over its @StatementBudget
+ * the interceptor only logs and counts an overrun, so without this a test would pass on a response that was
+ * right but took too many statements; registered by H2Tests and EmbeddedPostgresTests
+ **/
+public class StatementBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final String OVER_BUDGET = "http.server.statements.over.budget";
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(StatementBudgetExtension.class);
+
+    /**
+     for a test class that goes over budget on purpose, e.g. to check the overrun is counted
+     **/
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Inherited
+    public @interface OverrunsExpected {
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (checked(context)) {
+            context.getStore(NAMESPACE).put(OVER_BUDGET, overrunsByHandler(context));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterEach(ExtensionContext context) {
+        if (!checked(context)) {
+            return;
+        }
+        Map<String, Double> before = context.getStore(NAMESPACE).remove(OVER_BUDGET, Map.class);
+        Map<String, Double> overruns = new TreeMap<>();
+        overrunsByHandler(context).forEach((handler, count) -> {
+            double during = count - before.getOrDefault(handler, 0.0);
+            if (during > 0) {
+                overruns.put(handler, during);
+            }
+        });
+        if (!overruns.isEmpty()) {
+            fail("requests went over their @StatementBudget: " + overruns);
+        }
+    }
+
+    private static boolean checked(ExtensionContext context) {
+        return !context.getRequiredTestClass().isAnnotationPresent(OverrunsExpected.class);
+    }
+
+    private static Map<String, Double> overrunsByHandler(ExtensionContext context) {
+        MeterRegistry meterRegistry = SpringExtension.getApplicationContext(context).getBean(MeterRegistry.class);
+        Map<String, Double> counts = new HashMap<>();
+        for (Counter counter : meterRegistry.find(OVER_BUDGET).counters()) {
+            counts.merge(counter.getId().getTag("handler"), counter.count(), Double::sum);
+        }
+        return counts;
+    }
+}
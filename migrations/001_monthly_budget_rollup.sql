@@ -0,0 +1,14 @@
+-- Adds the precomputed monthly budget rollup.
+-- Populate it afterwards with POST /api/budget/rollup/rebuild.
+
+CREATE TABLE monthly_budget_rollup (
+    month INTEGER NOT NULL CHECK (month BETWEEN 1 AND 12),
+    year INTEGER NOT NULL CHECK (year >= 2024),
+    fixed_total DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    variable_total DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    sinking_total DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    income DECIMAL(10, 2),
+    leftover DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (year, month)
+);
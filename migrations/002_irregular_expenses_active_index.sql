@@ -0,0 +1,4 @@
+-- Keyset pagination over active irregular expenses walks this index by id,
+-- matching idx_expenses_active and idx_debt_accounts_active.
+
+CREATE INDEX idx_irregular_expenses_active ON irregular_expenses(id) WHERE is_active = true;
@@ -0,0 +1,4 @@
+-- Adds the APR used by the AVALANCHE allocation strategy.
+-- Existing accounts get NULL, which ranks them last under AVALANCHE until a rate is set.
+
+ALTER TABLE debt_accounts ADD COLUMN interest_rate DECIMAL(5, 2) CHECK (interest_rate >= 0);
@@ -0,0 +1,68 @@
+-- Adds a tenant (household) dimension so one database can host many households.
+-- Every existing row is assigned to the default tenant 1, which requests without an X-Tenant-Id header use.
+-- Unique keys and indexes now lead with tenant_id, so one household's lookups only touch its own index range.
+-- Child rows reference their parent through (tenant_id, id), so they cannot point at another household's rows.
+
+CREATE TABLE tenants (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO tenants (id, name) VALUES (1, 'Default household');
+SELECT setval(pg_get_serial_sequence('tenants', 'id'), 1);
+
+-- A constant default backfills without rewriting the tables; it is dropped so inserts must name the tenant
+ALTER TABLE monthly_income ADD COLUMN tenant_id BIGINT NOT NULL DEFAULT 1 REFERENCES tenants(id);
+ALTER TABLE expenses ADD COLUMN tenant_id BIGINT NOT NULL DEFAULT 1 REFERENCES tenants(id);
+ALTER TABLE variable_expense_amounts ADD COLUMN tenant_id BIGINT NOT NULL DEFAULT 1 REFERENCES tenants(id);
+ALTER TABLE irregular_expenses ADD COLUMN tenant_id BIGINT NOT NULL DEFAULT 1 REFERENCES tenants(id);
+ALTER TABLE debt_accounts ADD COLUMN tenant_id BIGINT NOT NULL DEFAULT 1 REFERENCES tenants(id);
+ALTER TABLE debt_payments ADD COLUMN tenant_id BIGINT NOT NULL DEFAULT 1 REFERENCES tenants(id);
+ALTER TABLE monthly_budget_rollup ADD COLUMN tenant_id BIGINT NOT NULL DEFAULT 1 REFERENCES tenants(id);
+
+ALTER TABLE monthly_income ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE expenses ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE variable_expense_amounts ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE irregular_expenses ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE debt_accounts ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE debt_payments ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE monthly_budget_rollup ALTER COLUMN tenant_id DROP DEFAULT;
+
+-- Natural keys are unique per tenant, not globally
+ALTER TABLE monthly_income DROP CONSTRAINT monthly_income_month_year_key;
+ALTER TABLE monthly_income ADD UNIQUE (tenant_id, month, year);
+
+ALTER TABLE monthly_budget_rollup DROP CONSTRAINT monthly_budget_rollup_pkey;
+ALTER TABLE monthly_budget_rollup ADD PRIMARY KEY (tenant_id, year, month);
+
+-- Parents are addressable by (tenant_id, id) so children can reference them within their tenant
+ALTER TABLE expenses ADD UNIQUE (tenant_id, id);
+ALTER TABLE debt_accounts ADD UNIQUE (tenant_id, id);
+
+ALTER TABLE variable_expense_amounts DROP CONSTRAINT variable_expense_amounts_expense_id_fkey;
+ALTER TABLE variable_expense_amounts DROP CONSTRAINT variable_expense_amounts_expense_id_month_year_key;
+ALTER TABLE variable_expense_amounts ADD FOREIGN KEY (tenant_id, expense_id)
+    REFERENCES expenses(tenant_id, id) ON DELETE CASCADE;
+ALTER TABLE variable_expense_amounts ADD UNIQUE (tenant_id, expense_id, month, year);
+
+ALTER TABLE debt_payments DROP CONSTRAINT debt_payments_debt_account_id_fkey;
+ALTER TABLE debt_payments DROP CONSTRAINT debt_payments_debt_account_id_month_year_key;
+ALTER TABLE debt_payments ADD FOREIGN KEY (tenant_id, debt_account_id)
+    REFERENCES debt_accounts(tenant_id, id) ON DELETE CASCADE;
+ALTER TABLE debt_payments ADD UNIQUE (tenant_id, debt_account_id, month, year);
+
+-- Month and active-row indexes, recreated with the tenant leading
+DROP INDEX idx_monthly_income_date;
+DROP INDEX idx_expenses_active;
+DROP INDEX idx_irregular_expenses_active;
+DROP INDEX idx_variable_amounts_date;
+DROP INDEX idx_debt_accounts_active;
+DROP INDEX idx_debt_payments_date;
+
+CREATE INDEX idx_monthly_income_date ON monthly_income(tenant_id, year, month);
+CREATE INDEX idx_expenses_active ON expenses(tenant_id, id) WHERE is_active = true;
+CREATE INDEX idx_irregular_expenses_active ON irregular_expenses(tenant_id, id) WHERE is_active = true;
+CREATE INDEX idx_variable_amounts_date ON variable_expense_amounts(tenant_id, year, month);
+CREATE INDEX idx_debt_accounts_active ON debt_accounts(tenant_id, id) WHERE is_active = true;
+CREATE INDEX idx_debt_payments_date ON debt_payments(tenant_id, year, month);
@@ -0,0 +1,93 @@
+-- Adds a packed period (yyyymm) column to variable_expense_amounts and debt_payments and range-partitions
+-- both tables by year.
+-- Month lookups filter on year, which picks the partition, and on period, which is indexed with the tenant;
+-- a range of months is then one index range even when it crosses a year boundary.
+-- Postgres cannot partition in place, so each table is rebuilt: its rows are held in a temporary table while
+-- it is dropped and recreated, which keeps constraint names the same as in schema.sql. Ids and sequences are kept.
+-- Both tables are locked until it commits.
+
+BEGIN;
+
+-- Creates the yearly partitions of a time-series table that do not exist yet, e.g.
+-- SELECT create_year_partitions('debt_payments', 2036, 2040);
+-- rows for a year without its own partition land in the default partition, which must be emptied
+-- before that year's partition can be created
+CREATE FUNCTION create_year_partitions(parent TEXT, from_year INTEGER, to_year INTEGER) RETURNS VOID AS $$
+BEGIN
+    FOR y IN from_year..to_year LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%s) TO (%s)',
+                       parent || '_' || y, parent, y, y + 1);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================
+-- VARIABLE EXPENSE AMOUNTS
+-- ============================================
+
+CREATE TEMPORARY TABLE variable_expense_amounts_rows ON COMMIT DROP AS SELECT * FROM variable_expense_amounts;
+-- The sequence is released first so dropping the table does not drop it too
+ALTER SEQUENCE variable_expense_amounts_id_seq OWNED BY NONE;
+DROP TABLE variable_expense_amounts;
+
+CREATE TABLE variable_expense_amounts (
+    id INTEGER NOT NULL DEFAULT nextval('variable_expense_amounts_id_seq'),
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id),
+    expense_id INTEGER NOT NULL,
+    month INTEGER NOT NULL CHECK (month BETWEEN 1 AND 12),
+    year INTEGER NOT NULL CHECK (year >= 2024),
+    period INTEGER GENERATED ALWAYS AS (year * 100 + month) STORED,
+    amount DECIMAL(10, 2) NOT NULL CHECK (amount >= 0),
+    notes VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, year),
+    FOREIGN KEY (tenant_id, expense_id) REFERENCES expenses(tenant_id, id) ON DELETE CASCADE,
+    UNIQUE(tenant_id, expense_id, month, year)
+) PARTITION BY RANGE (year);
+
+SELECT create_year_partitions('variable_expense_amounts', 2024, 2035);
+CREATE TABLE variable_expense_amounts_default PARTITION OF variable_expense_amounts DEFAULT;
+CREATE INDEX idx_variable_amounts_period ON variable_expense_amounts(tenant_id, period);
+
+INSERT INTO variable_expense_amounts (id, tenant_id, expense_id, month, year, amount, notes, created_at)
+SELECT id, tenant_id, expense_id, month, year, amount, notes, created_at
+FROM variable_expense_amounts_rows;
+
+ALTER SEQUENCE variable_expense_amounts_id_seq OWNED BY variable_expense_amounts.id;
+
+-- ============================================
+-- DEBT PAYMENTS
+-- ============================================
+
+CREATE TEMPORARY TABLE debt_payments_rows ON COMMIT DROP AS SELECT * FROM debt_payments;
+ALTER SEQUENCE debt_payments_id_seq OWNED BY NONE;
+DROP TABLE debt_payments;
+
+CREATE TABLE debt_payments (
+    id INTEGER NOT NULL DEFAULT nextval('debt_payments_id_seq'),
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id),
+    debt_account_id INTEGER NOT NULL,
+    month INTEGER NOT NULL CHECK (month BETWEEN 1 AND 12),
+    year INTEGER NOT NULL CHECK (year >= 2024),
+    period INTEGER GENERATED ALWAYS AS (year * 100 + month) STORED,
+    amount_paid DECIMAL(10, 2) NOT NULL CHECK (amount_paid >= 0),
+    payment_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, year),
+    FOREIGN KEY (tenant_id, debt_account_id) REFERENCES debt_accounts(tenant_id, id) ON DELETE CASCADE,
+    UNIQUE(tenant_id, debt_account_id, month, year)
+) PARTITION BY RANGE (year);
+
+SELECT create_year_partitions('debt_payments', 2024, 2035);
+CREATE TABLE debt_payments_default PARTITION OF debt_payments DEFAULT;
+CREATE INDEX idx_debt_payments_period ON debt_payments(tenant_id, period);
+
+INSERT INTO debt_payments (id, tenant_id, debt_account_id, month, year, amount_paid, payment_date)
+SELECT id, tenant_id, debt_account_id, month, year, amount_paid, payment_date
+FROM debt_payments_rows;
+
+ALTER SEQUENCE debt_payments_id_seq OWNED BY debt_payments.id;
+
+ANALYZE variable_expense_amounts;
+ANALYZE debt_payments;
+
+COMMIT;
@@ -0,0 +1,44 @@
+-- Stores the enum columns as the Java enum names the entities read and write (@Enumerated(STRING)),
+-- e.g. 'CREDIT_CARD' instead of the Postgres enum label 'credit_card', with a CHECK listing the names.
+-- The Postgres enum types are dropped: the driver binds the entities' values as varchar, which an enum
+-- column does not accept. Also adds irregular_expenses.custom_months, mapped by IrregularExpense.
+-- Every label, 'water' included, maps to the enum name of the same spelling, so no row changes category.
+
+BEGIN;
+
+ALTER TABLE expenses DROP CONSTRAINT expenses_check;
+ALTER TABLE expenses
+    ALTER COLUMN category TYPE VARCHAR(50)
+        USING upper(category::text),
+    ALTER COLUMN expense_type TYPE VARCHAR(50) USING upper(expense_type::text);
+ALTER TABLE expenses
+    ADD CONSTRAINT expenses_category_check CHECK (category IN (
+        'RENT', 'CAR_PAYMENT', 'INTERNET', 'GROCERIES', 'ELECTRIC', 'GAS', 'WATER', 'PHONE', 'SUBSCRIPTIONS',
+        'OTHER'
+    )),
+    ADD CONSTRAINT expenses_expense_type_check CHECK (expense_type IN ('FIXED', 'VARIABLE')),
+    ADD CONSTRAINT expenses_check CHECK (
+        (expense_type = 'FIXED' AND fixed_amount IS NOT NULL) OR
+        (expense_type = 'VARIABLE' AND fixed_amount IS NULL)
+    );
+
+ALTER TABLE irregular_expenses
+    ALTER COLUMN frequency TYPE VARCHAR(50) USING upper(frequency::text);
+ALTER TABLE irregular_expenses
+    ADD CONSTRAINT irregular_expenses_frequency_check
+        CHECK (frequency IN ('ANNUAL', 'SEMI_ANNUAL', 'QUARTERLY', 'CUSTOM')),
+    ADD COLUMN custom_months INTEGER CHECK (custom_months > 0);
+
+ALTER TABLE debt_accounts
+    ALTER COLUMN account_type TYPE VARCHAR(50) USING upper(account_type::text);
+ALTER TABLE debt_accounts
+    ADD CONSTRAINT debt_accounts_account_type_check CHECK (account_type IN (
+        'CREDIT_CARD', 'PERSONAL_LOAN', 'STUDENT_LOAN', 'AUTO_LOAN', 'OTHER'
+    ));
+
+DROP TYPE essential_expense_category_enum;
+DROP TYPE expense_type_enum;
+DROP TYPE frequency_enum;
+DROP TYPE account_type_enum;
+
+COMMIT;
@@ -1,83 +1,82 @@
+-- ============================================
+-- TENANTS
+-- ============================================
+
+-- One row per household; every other table is partitioned by tenant_id
+CREATE TABLE tenants (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- ============================================
 -- INCOME
 -- ============================================
 CREATE TABLE monthly_income (
     id SERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id),
     month INTEGER NOT NULL CHECK (month BETWEEN 1 AND 12),
     year INTEGER NOT NULL CHECK (year >= 2024),
     amount DECIMAL(10, 2) NOT NULL CHECK (amount >= 0),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    UNIQUE(month, year)
+    UNIQUE(tenant_id, month, year)
 );
 
 -- ============================================
 -- EXPENSES
 -- ============================================
 
--- Expense category enum (what the expense is)
-CREATE TYPE essential_expense_category_enum AS ENUM (
-    'rent',
-    'car_payment',
-    'internet',
-    'groceries',
-    'electric',
-    'gas',
-	'water',
-    'phone',
-    'subscriptions',
-    'other'
-);
-
--- Expense type enum (how it's paid)
-CREATE TYPE expense_type_enum AS ENUM (
-    'fixed',
-    'variable'
-);
-
 -- Main expenses table (both fixed and variable)
 CREATE TABLE expenses (
     id SERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id),
     name VARCHAR(255) NOT NULL,
-    category essential_expense_category_enum NOT NULL,
-    expense_type expense_type_enum NOT NULL,
+    -- what the expense is; the names of EssentialExpenseCategory, as the entity stores them
+    category VARCHAR(50) NOT NULL CHECK (category IN (
+        'RENT', 'CAR_PAYMENT', 'INTERNET', 'GROCERIES', 'ELECTRIC', 'GAS', 'WATER', 'PHONE', 'SUBSCRIPTIONS',
+        'OTHER'
+    )),
+    -- how it's paid
+    expense_type VARCHAR(50) NOT NULL CHECK (expense_type IN ('FIXED', 'VARIABLE')),
     fixed_amount DECIMAL(10, 2), -- Only populated for fixed expenses
     is_active BOOLEAN DEFAULT true,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     -- Constraint: fixed expenses must have fixed_amount, variable must not
     CHECK (
-        (expense_type = 'fixed' AND fixed_amount IS NOT NULL) OR
-        (expense_type = 'variable' AND fixed_amount IS NULL)
-    )
+        (expense_type = 'FIXED' AND fixed_amount IS NOT NULL) OR
+        (expense_type = 'VARIABLE' AND fixed_amount IS NULL)
+    ),
+    UNIQUE(tenant_id, id)
 );
 
--- Monthly amounts for variable expenses
+-- Monthly amounts for variable expenses, partitioned by year (see PARTITIONS)
 CREATE TABLE variable_expense_amounts (
-    id SERIAL PRIMARY KEY,
-    expense_id INTEGER NOT NULL REFERENCES expenses(id) ON DELETE CASCADE,
+    id SERIAL,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id),
+    expense_id INTEGER NOT NULL,
     month INTEGER NOT NULL CHECK (month BETWEEN 1 AND 12),
     year INTEGER NOT NULL CHECK (year >= 2024),
+    period INTEGER GENERATED ALWAYS AS (year * 100 + month) STORED, -- yyyymm, for month and range lookups
     amount DECIMAL(10, 2) NOT NULL CHECK (amount >= 0),
     notes VARCHAR(255),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    UNIQUE(expense_id, month, year)
-);
+    PRIMARY KEY (id, year), -- keys of a partitioned table must include the partition key
+    FOREIGN KEY (tenant_id, expense_id) REFERENCES expenses(tenant_id, id) ON DELETE CASCADE,
+    UNIQUE(tenant_id, expense_id, month, year)
+) PARTITION BY RANGE (year);
 
 -- ============================================
 -- IRREGULAR EXPENSES (Annual, Quarterly, etc.)
 -- ============================================
 
-CREATE TYPE frequency_enum AS ENUM (
-    'annual',
-    'semi_annual',
-    'quarterly'
-);
-
 CREATE TABLE irregular_expenses (
     id SERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id),
     name VARCHAR(255) NOT NULL,
     amount DECIMAL(10, 2) NOT NULL CHECK (amount >= 0),
-    frequency frequency_enum NOT NULL,
+    frequency VARCHAR(50) NOT NULL CHECK (frequency IN ('ANNUAL', 'SEMI_ANNUAL', 'QUARTERLY', 'CUSTOM')),
     next_due_date DATE NOT NULL,
+    custom_months INTEGER CHECK (custom_months > 0), -- months between due dates, for CUSTOM only
     is_active BOOLEAN DEFAULT true,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -86,44 +85,92 @@ CREATE TABLE irregular_expenses (
 -- DEBT ACCOUNTS
 -- ============================================
 
-CREATE TYPE account_type_enum AS ENUM (
-    'credit_card',
-    'personal_loan',
-    'student_loan',
-    'other'
-);
-
 CREATE TABLE debt_accounts (
     id SERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id),
     name VARCHAR(255) NOT NULL,
-    account_type account_type_enum NOT NULL,
+    account_type VARCHAR(50) NOT NULL CHECK (account_type IN (
+        'CREDIT_CARD', 'PERSONAL_LOAN', 'STUDENT_LOAN', 'AUTO_LOAN', 'OTHER'
+    )),
     current_balance DECIMAL(10, 2) NOT NULL CHECK (current_balance >= 0),
     credit_limit DECIMAL(10, 2), -- NULL for non-revolving debt (loans)
     minimum_payment DECIMAL(10, 2) NOT NULL CHECK (minimum_payment >= 0),
+    interest_rate DECIMAL(5, 2) CHECK (interest_rate >= 0), -- APR percent, NULL when unknown
     is_active BOOLEAN DEFAULT true,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(tenant_id, id)
 );
 
 -- ============================================
 -- DEBT PAYMENT HISTORY
 -- ============================================
 
+-- Partitioned by year like variable_expense_amounts
 CREATE TABLE debt_payments (
-    id SERIAL PRIMARY KEY,
-    debt_account_id INTEGER NOT NULL REFERENCES debt_accounts(id) ON DELETE CASCADE,
+    id SERIAL,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id),
+    debt_account_id INTEGER NOT NULL,
     month INTEGER NOT NULL CHECK (month BETWEEN 1 AND 12),
     year INTEGER NOT NULL CHECK (year >= 2024),
+    period INTEGER GENERATED ALWAYS AS (year * 100 + month) STORED, -- yyyymm, for month and range lookups
     amount_paid DECIMAL(10, 2) NOT NULL CHECK (amount_paid >= 0),
     payment_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    UNIQUE(debt_account_id, month, year)
+    PRIMARY KEY (id, year),
+    FOREIGN KEY (tenant_id, debt_account_id) REFERENCES debt_accounts(tenant_id, id) ON DELETE CASCADE,
+    UNIQUE(tenant_id, debt_account_id, month, year)
+) PARTITION BY RANGE (year);
+
+-- ============================================
+-- MONTHLY BUDGET ROLLUP
+-- ============================================
+
+-- Precomputed per-month totals, maintained on every write by BudgetRollupService
+CREATE TABLE monthly_budget_rollup (
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id),
+    month INTEGER NOT NULL CHECK (month BETWEEN 1 AND 12),
+    year INTEGER NOT NULL CHECK (year >= 2024),
+    fixed_total DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    variable_total DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    sinking_total DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    income DECIMAL(10, 2), -- NULL when no income is recorded for the month
+    leftover DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (tenant_id, year, month)
 );
 
+-- ============================================
+-- PARTITIONS
+-- ============================================
+
+-- One partition per year, so month and range lookups only touch the years they ask for.
+-- Create later years before they are written to, e.g. SELECT create_year_partitions('debt_payments', 2036, 2040);
+-- rows for a year without its own partition land in the default partition, which must be emptied
+-- before that year's partition can be created
+CREATE FUNCTION create_year_partitions(parent TEXT, from_year INTEGER, to_year INTEGER) RETURNS VOID AS $$
+BEGIN
+    FOR y IN from_year..to_year LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%s) TO (%s)',
+                       parent || '_' || y, parent, y, y + 1);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_year_partitions('variable_expense_amounts', 2024, 2035);
+SELECT create_year_partitions('debt_payments', 2024, 2035);
+CREATE TABLE variable_expense_amounts_default PARTITION OF variable_expense_amounts DEFAULT;
+CREATE TABLE debt_payments_default PARTITION OF debt_payments DEFAULT;
+
 -- ============================================
 -- INDEXES
 -- ============================================
 
-CREATE INDEX idx_monthly_income_date ON monthly_income(year, month);
-CREATE INDEX idx_expenses_active ON expenses(id) WHERE is_active = true;
-CREATE INDEX idx_variable_amounts_date ON variable_expense_amounts(expense_id, year, month);
-CREATE INDEX idx_debt_accounts_active ON debt_accounts(id) WHERE is_active = true;
-CREATE INDEX idx_debt_payments_date ON debt_payments(year, month);
\ No newline at end of file
+-- Every index leads with tenant_id, so a household's lookups stay the same size however many share the database
+CREATE INDEX idx_monthly_income_date ON monthly_income(tenant_id, year, month);
+CREATE INDEX idx_expenses_active ON expenses(tenant_id, id) WHERE is_active = true;
+CREATE INDEX idx_irregular_expenses_active ON irregular_expenses(tenant_id, id) WHERE is_active = true;
+CREATE INDEX idx_variable_amounts_period ON variable_expense_amounts(tenant_id, period);
+CREATE INDEX idx_debt_accounts_active ON debt_accounts(tenant_id, id) WHERE is_active = true;
+CREATE INDEX idx_debt_payments_period ON debt_payments(tenant_id, period);
+
+INSERT INTO tenants (id, name) VALUES (1, 'Default household');
+SELECT setval(pg_get_serial_sequence('tenants', 'id'), 1);
\ No newline at end of file